@@ -4,8 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
 public class RegulationsApplication {
@@ -17,12 +15,4 @@ public class RegulationsApplication {
         SpringApplication.run(RegulationsApplication.class, args);
         logger.info("USDS Regulations Analysis Backend Application started successfully");
     }
-    
-    /**
-     * Configure RestTemplate bean for HTTP client operations
-     */
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.usds.regulations.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Outbound HTTP client used for eCFR calls. Connections come from a pool and
+ * are kept alive between requests; HttpClient's default content compression
+ * sends Accept-Encoding: gzip, deflate and transparently decodes responses.
+ * Timeouts come from the ecfr.api.timeout.* properties.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${ecfr.api.timeout.connect:5000}")
+    private long connectTimeoutMillis;
+
+    @Value("${ecfr.api.timeout.read:30000}")
+    private long readTimeoutMillis;
+
+    // How long a caller may wait for a free pooled connection
+    @Value("${ecfr.api.timeout.pool:10000}")
+    private long poolTimeoutMillis;
+
+    @Value("${ecfr.api.pool.max-total:20}")
+    private int maxTotalConnections;
+
+    @Value("${ecfr.api.pool.max-per-route:10}")
+    private int maxConnectionsPerRoute;
+
+    // Used when the server does not send a Keep-Alive header
+    @Value("${ecfr.api.pool.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    @Value("${ecfr.api.pool.idle-eviction-seconds:60}")
+    private long idleEvictionSeconds;
+
+    @Value("${ecfr.api.hedge.max-concurrent:16}")
+    private int hedgeMaxConcurrent;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxTotalConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                // Re-check connections that sat idle before handing them out again
+                .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                .build())
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMillis))
+            .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+            .setDefaultKeepAlive(keepAliveSeconds, TimeUnit.SECONDS)
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(httpConnectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+            .build();
+    }
+
+    /**
+     * Configure RestTemplate bean for HTTP client operations
+     */
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * Runs hedged eCFR requests. There is no queue: when every thread is busy the
+     * caller makes the request itself, unhedged, instead of waiting for a slot.
+     */
+    @Bean(name = "ecfrHedgeExecutor")
+    public ThreadPoolTaskExecutor ecfrHedgeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hedgeMaxConcurrent);
+        executor.setMaxPoolSize(hedgeMaxConcurrent);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ecfr-hedge-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
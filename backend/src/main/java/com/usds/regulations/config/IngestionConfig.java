@@ -0,0 +1,73 @@
+package com.usds.regulations.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.usds.regulations.service.RawPayloadArchive;
+
+/**
+ * Bounded executors for eCFR ingestion. Titles and parts get separate pools
+ * so a title task waiting on its parts can never starve the part workers.
+ */
+@Configuration
+public class IngestionConfig {
+
+    @Value("${ecfr.ingest.title-concurrency:4}")
+    private int titleConcurrency;
+
+    @Value("${ecfr.ingest.part-concurrency:8}")
+    private int partConcurrency;
+
+    @Value("${ecfr.ingest.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${ecfr.jobs.concurrency:1}")
+    private int jobConcurrency;
+
+    @Value("${ecfr.jobs.queue-capacity:10}")
+    private int jobQueueCapacity;
+
+    @Bean(name = "ecfrTitleExecutor")
+    public ThreadPoolTaskExecutor ecfrTitleExecutor() {
+        return buildExecutor("ecfr-title-", titleConcurrency);
+    }
+
+    @Bean(name = "ecfrPartExecutor")
+    public ThreadPoolTaskExecutor ecfrPartExecutor() {
+        return buildExecutor("ecfr-part-", partConcurrency);
+    }
+
+    /**
+     * Runs whole ingestion jobs in the background. Unlike the worker pools a full
+     * queue rejects the submission rather than running the job on the request thread.
+     */
+    @Bean(name = "ecfrJobExecutor")
+    public ThreadPoolTaskExecutor ecfrJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobConcurrency);
+        executor.setMaxPoolSize(jobConcurrency);
+        executor.setQueueCapacity(jobQueueCapacity);
+        executor.setThreadNamePrefix("ecfr-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    private ThreadPoolTaskExecutor buildExecutor(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        // Back-pressure: when the queue is full the submitting thread does the work itself
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Workers inherit a replay-from-archive run's scope from the thread that submitted them
+        executor.setTaskDecorator(RawPayloadArchive::propagateReplayScope);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
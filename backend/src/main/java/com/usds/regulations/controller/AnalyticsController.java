@@ -20,8 +20,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.usds.regulations.dto.AnalyticsResponse;
-import com.usds.regulations.entity.Regulation;
+import com.usds.regulations.repository.RegulationSummary;
 import com.usds.regulations.service.AnalyticsService;
+import com.usds.regulations.service.AnalyticsSnapshotService;
 import com.usds.regulations.service.ChangeDetectionService;
 import com.usds.regulations.service.ChangeDetectionService.ChangeDetectionResult;
 import com.usds.regulations.service.ChangeDetectionService.ChangeHistoryEntry;
@@ -40,6 +41,9 @@ public class AnalyticsController {
     @Autowired
     private ChangeDetectionService changeDetectionService;
     
+    @Autowired
+    private AnalyticsSnapshotService analyticsSnapshot;
+    
     /**
      * Get comprehensive analytics report
      */
@@ -140,7 +144,7 @@ public class AnalyticsController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            List<Regulation> topRegulations = analyticsService.getTopRegulationsByWordCount(limit);
+            List<RegulationSummary> topRegulations = analyticsService.getTopRegulationsByWordCount(limit);
             
             response.put("success", true);
             response.put("limit", limit);
@@ -290,6 +294,69 @@ public class AnalyticsController {
         }
     }
     
+    /**
+     * Page through regulations updated since a point in time, newest first.
+     * Pass the returned nextCursor back as cursor to get the following page.
+     */
+    @GetMapping("/recent-changes")
+    public ResponseEntity<Map<String, Object>> getRecentChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Recent changes endpoint called since: {}", since);
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.putAll(changeDetectionService.getRecentChangesPage(since, cursor, limit));
+            response.put("success", true);
+            response.put("since", since);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Error listing recent changes: {}", e.getMessage(), e);
+            
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    /**
+     * Recompute the analytics aggregates from the regulations table
+     */
+    @PostMapping("/snapshot/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSnapshot() {
+        logger.info("Analytics snapshot rebuild endpoint called");
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            analyticsSnapshot.rebuild();
+            
+            response.put("success", true);
+            response.put("titles", analyticsSnapshot.getTitles().size());
+            response.put("agencies", analyticsSnapshot.getAgencies().size());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("Error rebuilding analytics snapshot: {}", e.getMessage(), e);
+            
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
     /**
      * Get analytics summary (lightweight version)
      */
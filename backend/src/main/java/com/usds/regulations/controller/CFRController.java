@@ -7,6 +7,7 @@ import java.util.ArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,6 +15,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.usds.regulations.service.AnalyticsSnapshotService;
+
 @RestController
 @RequestMapping("/api/cfr")
 @CrossOrigin(origins = "*")
@@ -21,6 +24,9 @@ public class CFRController {
     
     private static final Logger logger = LoggerFactory.getLogger(CFRController.class);
     
+    @Autowired
+    private AnalyticsSnapshotService analyticsSnapshotService;
+    
     /**
      * Get all CFR titles with their agency mappings
      * This matches what our Angular RegulationService expects
@@ -149,16 +155,22 @@ public class CFRController {
         
         Map<String, Object> metrics = new HashMap<>();
         
-        // Mock metrics based on title number (in production, this would query the relationship database)
-        int baseWordCount = 30000 + (titleNumber * 1200);
-        int avgWordCount = 42000;
+        // Word counts come from the analytics snapshot; the average is over titles with data
+        AnalyticsSnapshotService.Aggregate title = analyticsSnapshotService.getTitle(titleNumber);
+        List<AnalyticsSnapshotService.Aggregate> titlesWithData = analyticsSnapshotService.getTitles();
+        long titleWordCount = title.getTotalWordCount();
+        long avgWordCount = titlesWithData.isEmpty() ? 0
+            : analyticsSnapshotService.getTotal().getTotalWordCount() / titlesWithData.size();
         
         metrics.put("wordCount", Map.of(
-            "total", baseWordCount,
+            "total", titleWordCount,
             "vsAverage", avgWordCount,
-            "percentageDifference", Math.round(((double)(baseWordCount - avgWordCount) / avgWordCount * 100) * 10.0) / 10.0
+            "percentageDifference", avgWordCount > 0
+                ? Math.round(((double)(titleWordCount - avgWordCount) / avgWordCount * 100) * 10.0) / 10.0 : 0.0
         ));
         
+        metrics.put("regulationCount", title.getRegulationCount());
+        
         metrics.put("historicalChanges", Map.of(
             "count", 3 + (titleNumber % 8),
             "period", "Last 2 Years",
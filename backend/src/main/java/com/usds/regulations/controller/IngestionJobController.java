@@ -0,0 +1,136 @@
+package com.usds.regulations.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.usds.regulations.entity.IngestionJob;
+import com.usds.regulations.entity.IngestionJobStatus;
+import com.usds.regulations.service.IngestionJobService;
+
+/**
+ * Background ingestion jobs: submit, poll, stream progress, cancel and resume
+ */
+@RestController
+@RequestMapping("/api/eCFR_source-jobs")
+@CrossOrigin(origins = "*")
+public class IngestionJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionJobController.class);
+
+    @Autowired
+    private IngestionJobService ingestionJobService;
+
+    /**
+     * Submit an ingestion job for ALL CFR titles
+     * Endpoint: POST /api/eCFR_source-jobs?sampleSize=10&replay=false (no sampleSize = all parts)
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestParam(required = false) Integer sampleSize,
+                                                         @RequestParam(defaultValue = "false") boolean replay) {
+        Map<String, Object> response = new HashMap<>();
+        if (sampleSize != null && sampleSize < 1) {
+            response.put("success", false);
+            response.put("error", "sampleSize must be positive");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        IngestionJob job = ingestionJobService.submit(sampleSize, replay);
+        boolean accepted = job.getStatus() != IngestionJobStatus.FAILED;
+        response.put("success", accepted);
+        response.putAll(jobLinks(job));
+        // A job the full queue rejected is recorded as FAILED; the client should retry later
+        return ResponseEntity.status(accepted ? HttpStatus.ACCEPTED : HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    /**
+     * Most recent jobs, newest first
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> listJobs() {
+        return ResponseEntity.ok(ingestionJobService.listJobs());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(ingestionJobService.getStatus(jobId));
+        } catch (IllegalArgumentException e) {
+            return notFound(e);
+        }
+    }
+
+    /**
+     * Server-sent "progress" events while the job runs, then one "complete" event
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJobEvents(@PathVariable Long jobId) {
+        return ingestionJobService.subscribe(jobId);
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable Long jobId) {
+        try {
+            ingestionJobService.cancel(jobId);
+            return ResponseEntity.accepted().body(ingestionJobService.getStatus(jobId));
+        } catch (IllegalArgumentException e) {
+            return notFound(e);
+        }
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<Map<String, Object>> resumeJob(@PathVariable Long jobId) {
+        try {
+            IngestionJob job = ingestionJobService.resume(jobId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.putAll(jobLinks(job));
+            return ResponseEntity.accepted().body(response);
+        } catch (IllegalArgumentException e) {
+            return notFound(e);
+        } catch (IllegalStateException e) {
+            logger.info("Resume rejected: {}", e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+
+    /**
+     * Job id, status and where to follow it; shared with the bulk download endpoints
+     */
+    static Map<String, Object> jobLinks(IngestionJob job) {
+        Map<String, Object> links = new HashMap<>();
+        links.put("jobId", job.getId());
+        links.put("status", job.getStatus());
+        links.put("statusUrl", "/api/eCFR_source-jobs/" + job.getId());
+        links.put("eventsUrl", "/api/eCFR_source-jobs/" + job.getId() + "/events");
+        if (job.getMessage() != null) {
+            links.put("message", job.getMessage());
+        }
+        return links;
+    }
+
+    private ResponseEntity<Map<String, Object>> notFound(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+}
@@ -1,6 +1,10 @@
 package com.usds.regulations.controller;
 
 import com.usds.regulations.security.RateLimitingService;
+import com.usds.regulations.service.EcfrHttpClient;
+import com.usds.regulations.service.EcfrRequestThrottle;
+import com.usds.regulations.service.EcfrResponseCache;
+import com.usds.regulations.service.RawPayloadArchive;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +22,18 @@ public class RateLimitController {
     @Autowired
     private RateLimitingService rateLimitingService;
     
+    @Autowired
+    private EcfrRequestThrottle ecfrRequestThrottle;
+    
+    @Autowired
+    private EcfrHttpClient ecfrHttpClient;
+    
+    @Autowired
+    private EcfrResponseCache ecfrResponseCache;
+    
+    @Autowired
+    private RawPayloadArchive rawPayloadArchive;
+    
     // Inject configuration values for display
     @Value("${rate-limit.api.general.requests-per-minute:60}")
     private int apiCallsPerMinute;
@@ -103,6 +119,21 @@ public class RateLimitController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Get the adaptive outbound eCFR throttle state (current permit rate, throttled responses)
+     * how many requests the response cache answered with a 304, and per-endpoint circuit breakers
+     */
+    @GetMapping("/outbound")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getOutboundThrottleStats() {
+        Map<String, Object> stats = new HashMap<>(ecfrRequestThrottle.getMetrics());
+        stats.put("responseCache", ecfrResponseCache.getMetrics());
+        stats.put("payloadArchive", rawPayloadArchive.getMetrics());
+        stats.putAll(ecfrHttpClient.getCircuitMetrics());
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * Test endpoint to simulate rate limiting
      */
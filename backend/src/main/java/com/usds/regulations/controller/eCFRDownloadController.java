@@ -5,26 +5,36 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.usds.regulations.entity.IngestionJob;
+import com.usds.regulations.entity.IngestionJobStatus;
 import com.usds.regulations.entity.Regulation;
 import com.usds.regulations.entity.RegulationRelationship;
 import com.usds.regulations.repository.RegulationRepository;
+import com.usds.regulations.repository.RegulationSummary;
+import com.usds.regulations.service.AnalyticsSnapshotService;
 import com.usds.regulations.service.AutoRelationshipService;
 import com.usds.regulations.service.EcfrApiService;
+import com.usds.regulations.service.EcfrDateResolver;
+import com.usds.regulations.service.IngestionJobService;
 import com.usds.regulations.service.MockDataService;
+import com.usds.regulations.service.RegulationBulkUpsertService;
 import com.usds.regulations.service.RegulationRelationshipService;
+import com.usds.regulations.util.PageCursor;
 
 @RestController
 @RequestMapping("/api")
@@ -36,6 +46,15 @@ public class eCFRDownloadController {
     @Autowired
     private EcfrApiService ecfrApiService;
     
+    @Autowired
+    private EcfrDateResolver dateResolver;
+    
+    @Autowired
+    private IngestionJobService ingestionJobService;
+    
+    @Autowired
+    private RegulationBulkUpsertService bulkUpsertService;
+    
     @Autowired
     private RegulationRepository regulationRepository;
     
@@ -48,6 +67,17 @@ public class eCFRDownloadController {
     @Autowired
     private AutoRelationshipService autoRelationshipService;
     
+    @Autowired
+    private AnalyticsSnapshotService analyticsSnapshotService;
+    
+    @Value("${regulations.api.page-size:100}")
+    private int defaultPageSize;
+    
+    @Value("${regulations.api.max-page-size:500}")
+    private int maxPageSize;
+    
+    private static final String TITLE_LISTING = "title-";
+    
 
     /**
      * eCFR health status check
@@ -115,20 +145,17 @@ public class eCFRDownloadController {
             long endTime = System.currentTimeMillis();
             
             // Get statistics for the requested title
-            long totalRegulations = regulationRepository.count();
-            long titleCount = regulationRepository.countByTitle(title);
-            Long totalWordCount = regulationRepository.getTotalWordCountByTitle(title);
-            Double avgWordCount = regulationRepository.getAverageWordCountByTitle(title);
+            AnalyticsSnapshotService.Aggregate titleSummary = analyticsSnapshotService.getTitle(title);
             
             response.put("success", true);
             response.put("message", result);
             response.put("cfrTitle", title);
             response.put("executionTimeMs", endTime - startTime);
             response.put("statistics", Map.of(
-                "totalRegulationsInDatabase", totalRegulations,
-                "requestedTitleCount", titleCount,
-                "requestedTitleTotalWordCount", totalWordCount != null ? totalWordCount : 0,
-                "requestedTitleAverageWordCount", avgWordCount != null ? Math.round(avgWordCount) : 0
+                "totalRegulationsInDatabase", analyticsSnapshotService.getTotal().getRegulationCount(),
+                "requestedTitleCount", titleSummary.getRegulationCount(),
+                "requestedTitleTotalWordCount", titleSummary.getTotalWordCount(),
+                "requestedTitleAverageWordCount", Math.round(titleSummary.getAverageNonEmptyWordCount())
             ));
             
             logger.info("eCFR source download for Title {} completed successfully in {}ms", title, endTime - startTime);
@@ -189,20 +216,17 @@ public class eCFRDownloadController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // Get statistics for the requested title
-            long titleCount = regulationRepository.countByTitle(title);
-            Long totalWordCount = regulationRepository.getTotalWordCountByTitle(title);
-            Double avgWordCount = regulationRepository.getAverageWordCountByTitle(title);
-            
-            // Get overall database stats for context
-            long totalRegulations = regulationRepository.count();
+            // Get statistics for the requested title, with overall database stats for context
+            AnalyticsSnapshotService.Aggregate titleSummary = analyticsSnapshotService.getTitle(title);
+            long titleCount = titleSummary.getRegulationCount();
+            long totalRegulations = analyticsSnapshotService.getTotal().getRegulationCount();
             
             response.put("success", true);
             response.put("cfrTitle", title);
             response.put("statistics", Map.of(
                 "regulationCount", titleCount,
-                "totalWordCount", totalWordCount != null ? totalWordCount : 0,
-                "averageWordCount", avgWordCount != null ? Math.round(avgWordCount) : 0,
+                "totalWordCount", titleSummary.getTotalWordCount(),
+                "averageWordCount", Math.round(titleSummary.getAverageNonEmptyWordCount()),
                 "hasData", titleCount > 0
             ));
             response.put("context", Map.of(
@@ -222,10 +246,14 @@ public class eCFRDownloadController {
     }
     
     /**
-     * List all regulations for a specific CFR title (basic info only)
+     * List the regulations of a CFR title (basic info only), largest first, one page at a time.
+     * Pass the returned nextCursor back as cursor to get the following page.
      */
     @GetMapping("/regulations/title/{title}")
-    public ResponseEntity<Map<String, Object>> getRegulationsByTitle(@PathVariable Integer title) {
+    public ResponseEntity<Map<String, Object>> getRegulationsByTitle(
+            @PathVariable Integer title,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         Map<String, Object> response = new HashMap<>();
         
         try {
@@ -236,27 +264,53 @@ public class eCFRDownloadController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            var regulations = regulationRepository.findByCfrTitleOrderByWordCountDesc(title);
+            int pageSize = PageCursor.clampPageSize(limit != null ? limit : defaultPageSize, maxPageSize);
+            // One extra row tells whether another page follows
+            PageRequest page = PageRequest.of(0, pageSize + 1);
+            List<RegulationSummary> regulations;
+            if (cursor == null || cursor.isEmpty()) {
+                regulations = regulationRepository.findTitlePage(title, page);
+                response.put("totalCount", regulationRepository.countByTitle(title));
+            } else {
+                PageCursor after = PageCursor.decode(cursor, TITLE_LISTING + title);
+                regulations = regulationRepository.findTitlePageAfter(title, after.getIntKey(), after.getId(), page);
+            }
+            boolean hasMore = regulations.size() > pageSize;
+            if (hasMore) {
+                regulations = regulations.subList(0, pageSize);
+            }
             
             // Convert to simpler format for API response
-            var regulationSummaries = regulations.stream()
-                    .map(reg -> Map.of(
-                        "id", reg.getId(),
-                        "partNumber", reg.getPartNumber(),
-                        "title", reg.getTitle(),
-                        "agencyName", reg.getAgencyName(),
-                        "wordCount", reg.getWordCount() != null ? reg.getWordCount() : 0,
-                        "createdAt", reg.getCreatedAt() != null ? reg.getCreatedAt().toString() : null
-                    ))
-                    .toList();
+            List<Map<String, Object>> regulationSummaries = new ArrayList<>(regulations.size());
+            for (RegulationSummary reg : regulations) {
+                Map<String, Object> summary = new HashMap<>();
+                summary.put("id", reg.getId());
+                summary.put("partNumber", reg.getPartNumber());
+                summary.put("title", reg.getTitle());
+                summary.put("agencyName", reg.getAgencyName());
+                summary.put("wordCount", reg.getWordCount() != null ? reg.getWordCount() : 0);
+                summary.put("createdAt", reg.getCreatedAt() != null ? reg.getCreatedAt().toString() : null);
+                regulationSummaries.add(summary);
+            }
             
             response.put("success", true);
             response.put("cfrTitle", title);
             response.put("count", regulations.size());
+            response.put("pageSize", pageSize);
+            response.put("hasMore", hasMore);
+            if (hasMore) {
+                RegulationSummary last = regulations.get(regulations.size() - 1);
+                response.put("nextCursor", PageCursor.encode(TITLE_LISTING + title, last.getWordCount(), last.getId()));
+            }
             response.put("regulations", regulationSummaries);
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("cfrTitle", title);
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             logger.error("Error retrieving CFR Title {} regulations: {}", title, e.getMessage(), e);
             response.put("success", false);
@@ -274,24 +328,17 @@ public class eCFRDownloadController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            long totalRegulations = regulationRepository.count();
-            
             // Get counts for each title that has data
             Map<Integer, Long> titleCounts = new HashMap<>();
             Map<Integer, Long> titleWordCounts = new HashMap<>();
             
-            // Check titles 1-50 for any data
-            for (int title = 1; title <= 50; title++) {
-                long count = regulationRepository.countByTitle(title);
-                if (count > 0) {
-                    titleCounts.put(title, count);
-                    Long wordCount = regulationRepository.getTotalWordCountByTitle(title);
-                    titleWordCounts.put(title, wordCount != null ? wordCount : 0);
-                }
+            for (AnalyticsSnapshotService.Aggregate title : analyticsSnapshotService.getTitles()) {
+                titleCounts.put(Integer.valueOf(title.getName()), title.getRegulationCount());
+                titleWordCounts.put(Integer.valueOf(title.getName()), title.getTotalWordCount());
             }
             
             response.put("success", true);
-            response.put("totalRegulations", totalRegulations);
+            response.put("totalRegulations", analyticsSnapshotService.getTotal().getRegulationCount());
             response.put("titlesWithData", titleCounts.keySet().size());
             response.put("titleCounts", titleCounts);
             response.put("titleWordCounts", titleWordCounts);
@@ -307,50 +354,43 @@ public class eCFRDownloadController {
     }
     
     /**
-     * Download ALL CFR titles (1-50) with all available parts
-     * Endpoint: GET /api/eCFR_source-download-all-titles
+     * Download ALL CFR titles (1-50) with all available parts as a background ingestion job
+     * Endpoint: GET /api/eCFR_source-download-all-titles (?replay=true re-ingests from the payload archive)
+     * Returns 202 immediately; follow progress at /api/eCFR_source-jobs/{jobId}
      */
     @GetMapping("/eCFR_source-download-all-titles")
-    public ResponseEntity<Map<String, Object>> downloadAllTitles() {
+    public ResponseEntity<Map<String, Object>> downloadAllTitles(@RequestParam(defaultValue = "false") boolean replay) {
         logger.info("Bulk download endpoint called for ALL CFR titles (1-50) - all available parts");
         
         Map<String, Object> response = new HashMap<>();
-        long startTime = System.currentTimeMillis();
         
         try {
-            // This will download all parts of all 50 titles
-            Map<String, Object> result = ecfrApiService.downloadAllTitles();
+            IngestionJob job = ingestionJobService.submit(null, replay);
             
-            long endTime = System.currentTimeMillis();
-            long durationSeconds = (endTime - startTime) / 1000;
-            
-            response.put("success", true);
-            response.put("message", "Bulk download of all CFR titles completed (all parts)");
-            response.put("durationSeconds", durationSeconds);
-            response.putAll(result);
-            
-            logger.info("Bulk download for all titles completed successfully in {} seconds", durationSeconds);
-            return ResponseEntity.ok(response);
+            response.put("success", job.getStatus() != IngestionJobStatus.FAILED);
+            response.put("message", "Bulk download of all CFR titles submitted (all parts)");
+            response.putAll(IngestionJobController.jobLinks(job));
+            return ResponseEntity.accepted().body(response);
             
         } catch (Exception e) {
-            logger.error("Error in bulk download for all titles: {}", e.getMessage(), e);
+            logger.error("Error submitting bulk download for all titles: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("error", e.getMessage());
-            response.put("durationSeconds", (System.currentTimeMillis() - startTime) / 1000);
             return ResponseEntity.internalServerError().body(response);
         }
     }
     
     /**
-     * Download ALL CFR titles (1-50) with sample size limit per title
-     * Endpoint: GET /api/eCFR_source-download-all-titles/{sampleSize}
+     * Download ALL CFR titles (1-50) with sample size limit per title as a background ingestion job
+     * Endpoint: GET /api/eCFR_source-download-all-titles/{sampleSize} (?replay=true re-ingests from the payload archive)
+     * Returns 202 immediately; follow progress at /api/eCFR_source-jobs/{jobId}
      */
     @GetMapping("/eCFR_source-download-all-titles/{sampleSize}")
-    public ResponseEntity<Map<String, Object>> downloadAllTitlesWithSample(@PathVariable Integer sampleSize) {
+    public ResponseEntity<Map<String, Object>> downloadAllTitlesWithSample(@PathVariable Integer sampleSize,
+                                                                           @RequestParam(defaultValue = "false") boolean replay) {
         logger.info("Bulk download endpoint called for ALL CFR titles (1-50) - {} parts each", sampleSize);
         
         Map<String, Object> response = new HashMap<>();
-        long startTime = System.currentTimeMillis();
         
         try {
             // Validate sampleSize
@@ -360,26 +400,75 @@ public class eCFRDownloadController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // This will download limited parts of all 50 titles
-            Map<String, Object> result = ecfrApiService.downloadAllTitles(sampleSize);
-            
-            long endTime = System.currentTimeMillis();
-            long durationSeconds = (endTime - startTime) / 1000;
+            IngestionJob job = ingestionJobService.submit(sampleSize, replay);
             
-            response.put("success", true);
-            response.put("message", String.format("Bulk download of all CFR titles completed (%d parts each)", sampleSize));
+            response.put("success", job.getStatus() != IngestionJobStatus.FAILED);
+            response.put("message", String.format("Bulk download of all CFR titles submitted (%d parts each)", sampleSize));
             response.put("sampleSize", sampleSize);
-            response.put("durationSeconds", durationSeconds);
-            response.putAll(result);
+            response.putAll(IngestionJobController.jobLinks(job));
+            return ResponseEntity.accepted().body(response);
             
-            logger.info("Bulk download for all titles (sample size {}) completed successfully in {} seconds", sampleSize, durationSeconds);
+        } catch (Exception e) {
+            logger.error("Error submitting bulk download for all titles with sample {}: {}", sampleSize, e.getMessage(), e);
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    /**
+     * Incremental sync of one CFR title: only parts amended upstream since the last ingest are fetched
+     * Endpoint: GET /api/eCFR_source-sync/{title}
+     */
+    @GetMapping("/eCFR_source-sync/{title}")
+    public ResponseEntity<Map<String, Object>> syncTitle(@PathVariable Integer title) {
+        logger.info("Incremental sync endpoint called for Title {}", title);
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            if (title < 1 || title > 50) {
+                response.put("success", false);
+                response.put("error", "Title must be between 1 and 50");
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            response.putAll(ecfrApiService.syncTitle(title));
+            response.put("success", true);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
-            logger.error("Error in bulk download for all titles with sample {}: {}", sampleSize, e.getMessage(), e);
+            logger.error("Error syncing Title {}: {}", title, e.getMessage(), e);
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    /**
+     * Incremental sync of ALL CFR titles (1-50) as a background ingestion job: unchanged titles
+     * cost no requests beyond the titles listing
+     * Endpoint: GET /api/eCFR_source-sync-all-titles
+     * Returns 202 immediately; follow progress at /api/eCFR_source-jobs/{jobId}
+     */
+    @GetMapping("/eCFR_source-sync-all-titles")
+    public ResponseEntity<Map<String, Object>> syncAllTitles() {
+        logger.info("Incremental sync endpoint called for ALL CFR titles (1-50)");
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            IngestionJob job = ingestionJobService.submitIncrementalSync();
+            
+            response.put("success", job.getStatus() != IngestionJobStatus.FAILED);
+            response.put("message", "Incremental sync of all CFR titles submitted");
+            response.putAll(IngestionJobController.jobLinks(job));
+            return ResponseEntity.accepted().body(response);
+            
+        } catch (Exception e) {
+            logger.error("Error submitting incremental sync for all titles: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("error", e.getMessage());
-            response.put("durationSeconds", (System.currentTimeMillis() - startTime) / 1000);
             return ResponseEntity.internalServerError().body(response);
         }
     }
@@ -449,6 +538,41 @@ public class eCFRDownloadController {
         }
     }
     
+    /**
+     * Show how fresh the upstream eCFR data is, from the cached title dates (no network call)
+     * Endpoint: GET /api/eCFR_source-freshness
+     */
+    @GetMapping("/eCFR_source-freshness")
+    public ResponseEntity<Map<String, Object>> getDataFreshness() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.putAll(dateResolver.getFreshness());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Force a refresh of the cached eCFR title dates
+     * Endpoint: POST /api/eCFR_source-freshness/refresh
+     */
+    @PostMapping("/eCFR_source-freshness/refresh")
+    public ResponseEntity<Map<String, Object>> refreshDataFreshness() {
+        logger.info("Refreshing cached eCFR title dates");
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.put("success", true);
+            response.putAll(dateResolver.refresh());
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("Error refreshing eCFR title dates: {}", e.getMessage());
+            response.put("success", false);
+            response.put("error", "Failed to refresh title dates: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
     /**
      * Helper method to get title names (private)
      */
@@ -539,35 +663,9 @@ public class eCFRDownloadController {
             // Generate mock data
             List<Regulation> mockRegulations = mockDataService.generateMockRegulations(title, count);
             
-            // Save to database
-            int created = 0, updated = 0;
-            List<Regulation> savedRegulations = new ArrayList<>();
-            
-            for (Regulation mockRegulation : mockRegulations) {
-                Optional<Regulation> existing = regulationRepository
-                        .findByCfrTitleAndPartNumber(mockRegulation.getCfrTitle(), mockRegulation.getPartNumber());
-                
-                if (existing.isPresent()) {
-                    // Update existing
-                    Regulation existingReg = existing.get();
-                    existingReg.setTitle(mockRegulation.getTitle());
-                    existingReg.setContent(mockRegulation.getContent());
-                    existingReg.setWordCount(mockRegulation.getWordCount());
-                    existingReg.setContentChecksum(mockRegulation.getContentChecksum());
-                    existingReg.setLatestAmendedOn(mockRegulation.getLatestAmendedOn());
-                    existingReg.setLatestIssueDate(mockRegulation.getLatestIssueDate());
-                    existingReg.setLastUpdatedOn(mockRegulation.getLastUpdatedOn());
-                    existingReg.setAmendmentCount(mockRegulation.getAmendmentCount());
-                    existingReg.setEcfrLastModified(mockRegulation.getEcfrLastModified());
-                    existingReg.setSourceUrl(mockRegulation.getSourceUrl());
-                    savedRegulations.add(regulationRepository.save(existingReg));
-                    updated++;
-                } else {
-                    // Create new
-                    savedRegulations.add(regulationRepository.save(mockRegulation));
-                    created++;
-                }
-            }
+            // Save to database in one bulk upsert
+            RegulationBulkUpsertService.UpsertResult upsert = bulkUpsertService.upsert(mockRegulations);
+            int created = upsert.getCreated(), updated = upsert.getUpdated() + upsert.getDatesRefreshed();
             
             long endTime = System.currentTimeMillis();
             long durationSeconds = (endTime - startTime) / 1000;
@@ -578,10 +676,10 @@ public class eCFRDownloadController {
             response.put("titleName", getTitleName(title));
             response.put("created", created);
             response.put("updated", updated);
-            response.put("totalRegulations", savedRegulations.size());
-            response.put("totalWordCount", savedRegulations.stream().mapToInt(r -> r.getWordCount() != null ? r.getWordCount() : 0).sum());
+            response.put("totalRegulations", mockRegulations.size());
+            response.put("totalWordCount", mockRegulations.stream().mapToInt(r -> r.getWordCount() != null ? r.getWordCount() : 0).sum());
             response.put("durationSeconds", durationSeconds);
-            response.put("sampleTitles", savedRegulations.stream().limit(3).map(Regulation::getTitle).toList());
+            response.put("sampleTitles", mockRegulations.stream().limit(3).map(Regulation::getTitle).toList());
             
             logger.info("Generated mock data: {} created, {} updated for Title {}", created, updated, title);
             return ResponseEntity.ok(response);
@@ -624,39 +722,17 @@ public class eCFRDownloadController {
                 try {
                     List<Regulation> mockRegulations = mockDataService.generateMockRegulations(title, count);
                     
-                    int titleCreated = 0, titleUpdated = 0;
+                    RegulationBulkUpsertService.UpsertResult upsert = bulkUpsertService.upsert(mockRegulations);
+                    int titleCreated = upsert.getCreated();
+                    int titleUpdated = upsert.getUpdated() + upsert.getDatesRefreshed();
+                    totalWordCount += mockRegulations.stream().mapToInt(r -> r.getWordCount() != null ? r.getWordCount() : 0).sum();
                     
+                    // Collect sample titles from first few regulations
                     for (Regulation mockRegulation : mockRegulations) {
-                        Optional<Regulation> existing = regulationRepository
-                                .findByCfrTitleAndPartNumber(mockRegulation.getCfrTitle(), mockRegulation.getPartNumber());
-                        
-                        if (existing.isPresent()) {
-                            // Update existing
-                            Regulation existingReg = existing.get();
-                            existingReg.setTitle(mockRegulation.getTitle());
-                            existingReg.setContent(mockRegulation.getContent());
-                            existingReg.setWordCount(mockRegulation.getWordCount());
-                            existingReg.setContentChecksum(mockRegulation.getContentChecksum());
-                            existingReg.setLatestAmendedOn(mockRegulation.getLatestAmendedOn());
-                            existingReg.setLatestIssueDate(mockRegulation.getLatestIssueDate());
-                            existingReg.setLastUpdatedOn(mockRegulation.getLastUpdatedOn());
-                            existingReg.setAmendmentCount(mockRegulation.getAmendmentCount());
-                            existingReg.setEcfrLastModified(mockRegulation.getEcfrLastModified());
-                            existingReg.setSourceUrl(mockRegulation.getSourceUrl());
-                            Regulation saved = regulationRepository.save(existingReg);
-                            totalWordCount += saved.getWordCount() != null ? saved.getWordCount() : 0;
-                            titleUpdated++;
-                        } else {
-                            // Create new
-                            Regulation saved = regulationRepository.save(mockRegulation);
-                            totalWordCount += saved.getWordCount() != null ? saved.getWordCount() : 0;
-                            titleCreated++;
-                            
-                            // Collect sample titles from first few regulations
-                            if (sampleTitles.size() < 5) {
-                                sampleTitles.add(saved.getTitle());
-                            }
+                        if (sampleTitles.size() >= 5) {
+                            break;
                         }
+                        sampleTitles.add(mockRegulation.getTitle());
                     }
                     
                     totalCreated += titleCreated;
@@ -823,11 +899,11 @@ public class eCFRDownloadController {
             for (int titleNumber = 1; titleNumber <= 50; titleNumber++) {
                 try {
                     List<Regulation> mockRegulations = mockDataService.generateEnhancedMockRegulations(titleNumber, count);
-                    List<Regulation> savedRegulations = regulationRepository.saveAll(mockRegulations);
-                    allSavedRegulations.addAll(savedRegulations);
-                    titleResults.put(titleNumber, savedRegulations.size());
+                    RegulationBulkUpsertService.UpsertResult upsert = bulkUpsertService.upsert(mockRegulations);
+                    allSavedRegulations.addAll(mockRegulations);
+                    titleResults.put(titleNumber, mockRegulations.size());
                     
-                    logger.info("Generated {} mock regulations for CFR Title {}", savedRegulations.size(), titleNumber);
+                    logger.info("Generated {} mock regulations for CFR Title {} ({})", mockRegulations.size(), titleNumber, upsert);
                     
                 } catch (Exception e) {
                     logger.error("Error generating mock data for Title {}: {}", titleNumber, e.getMessage());
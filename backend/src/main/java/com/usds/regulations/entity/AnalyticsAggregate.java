@@ -0,0 +1,64 @@
+package com.usds.regulations.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running regulation count, word total and last update of one agency or one CFR
+ * title. Maintained incrementally by AnalyticsSnapshotService once the regulation
+ * writes it summarizes have committed.
+ */
+@Entity
+@Table(name = "analytics_aggregates")
+public class AnalyticsAggregate {
+
+    public static final String AGENCY = "AGENCY";
+    public static final String TITLE = "TITLE";
+
+    // Dimension and name, e.g. "TITLE:7" or "AGENCY:Department of Agriculture"
+    @Id
+    @Column(name = "aggregate_key", length = 300)
+    private String aggregateKey;
+
+    @Column(name = "dimension", nullable = false, length = 20)
+    private String dimension;
+
+    @Column(name = "name", nullable = false, length = 255)
+    private String name;
+
+    @Column(name = "regulation_count", nullable = false)
+    private long regulationCount;
+
+    @Column(name = "total_word_count", nullable = false)
+    private long totalWordCount;
+
+    // Regulations with a positive word count; null on rows written before it was tracked
+    @Column(name = "with_words_count")
+    private Long withWordsCount;
+
+    @Column(name = "last_updated")
+    private LocalDateTime lastUpdated;
+
+    // Constructors
+    protected AnalyticsAggregate() {}
+
+    public static String key(String dimension, String name) {
+        return dimension + ":" + name;
+    }
+
+    // Getters
+    public String getAggregateKey() { return aggregateKey; }
+
+    public String getDimension() { return dimension; }
+
+    public String getName() { return name; }
+
+    public long getRegulationCount() { return regulationCount; }
+
+    public long getTotalWordCount() { return totalWordCount; }
+
+    public Long getWithWordsCount() { return withWordsCount; }
+
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+}
@@ -0,0 +1,23 @@
+package com.usds.regulations.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import com.usds.regulations.util.ContentCodec;
+
+/**
+ * Stores text as {@link ContentCodec} bytes: dictionary-compressed, prefixed with a format byte
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        return ContentCodec.encode(text);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        return ContentCodec.decode(stored);
+    }
+}
@@ -0,0 +1,70 @@
+package com.usds.regulations.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A unit of work an ingestion job has durably finished: one saved part, or
+ * (with no part number) a whole title
+ */
+@Entity
+@Table(name = "ingestion_checkpoints",
+    indexes = {
+        @Index(name = "idx_checkpoint_job", columnList = "job_id")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_checkpoint_job_title_part", columnNames = {"job_id", "cfr_title", "part_number"})
+    }
+)
+public class IngestionCheckpoint {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    
+    @Column(name = "cfr_title", nullable = false)
+    private Integer cfrTitle;
+    
+    // Null marks the whole title as completed
+    @Column(name = "part_number", length = 50)
+    private String partNumber;
+    
+    @CreationTimestamp
+    @Column(name = "completed_at", nullable = false, updatable = false)
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public IngestionCheckpoint() {}
+    
+    public IngestionCheckpoint(Long jobId, Integer cfrTitle, String partNumber) {
+        this.jobId = jobId;
+        this.cfrTitle = cfrTitle;
+        this.partNumber = partNumber;
+    }
+    
+    public boolean isTitleCheckpoint() {
+        return partNumber == null;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+    
+    public Integer getCfrTitle() { return cfrTitle; }
+    public void setCfrTitle(Integer cfrTitle) { this.cfrTitle = cfrTitle; }
+    
+    public String getPartNumber() { return partNumber; }
+    public void setPartNumber(String partNumber) { this.partNumber = partNumber; }
+    
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
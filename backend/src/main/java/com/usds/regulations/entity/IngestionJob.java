@@ -0,0 +1,134 @@
+package com.usds.regulations.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ingestion_jobs",
+    indexes = {
+        @Index(name = "idx_ingestion_job_status", columnList = "status"),
+        @Index(name = "idx_ingestion_job_created_at", columnList = "created_at")
+    }
+)
+public class IngestionJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    // Max parts per title; null means all parts
+    @Column(name = "sample_size")
+    private Integer sampleSize;
+    
+    @Column(name = "replay", nullable = false)
+    private Boolean replay = false;
+    
+    // Incremental sync of titles changed upstream instead of a full download; null on older jobs
+    @Column(name = "incremental")
+    private Boolean incremental = false;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private IngestionJobStatus status = IngestionJobStatus.QUEUED;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+    
+    // Progress totals, cumulative across resumed attempts
+    @Column(name = "titles_completed", nullable = false)
+    private Integer titlesCompleted = 0;
+    
+    @Column(name = "parts_completed", nullable = false)
+    private Integer partsCompleted = 0;
+    
+    @Column(name = "parts_created", nullable = false)
+    private Integer partsCreated = 0;
+    
+    @Column(name = "parts_updated", nullable = false)
+    private Integer partsUpdated = 0;
+    
+    @Column(name = "errors", nullable = false)
+    private Integer errors = 0;
+    
+    @Column(name = "total_word_count", nullable = false)
+    private Long totalWordCount = 0L;
+    
+    @Column(name = "message", length = 1000)
+    private String message;
+    
+    // Constructors
+    public IngestionJob() {}
+    
+    public IngestionJob(Integer sampleSize, boolean replay) {
+        this.sampleSize = sampleSize;
+        this.replay = replay;
+    }
+    
+    public boolean isResumable() {
+        return status == IngestionJobStatus.CANCELLED
+            || status == IngestionJobStatus.FAILED
+            || status == IngestionJobStatus.INTERRUPTED;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Integer getSampleSize() { return sampleSize; }
+    public void setSampleSize(Integer sampleSize) { this.sampleSize = sampleSize; }
+    
+    public Boolean getReplay() { return replay; }
+    public void setReplay(Boolean replay) { this.replay = replay; }
+    
+    public Boolean getIncremental() { return incremental; }
+    public void setIncremental(Boolean incremental) { this.incremental = incremental; }
+    
+    public IngestionJobStatus getStatus() { return status; }
+    public void setStatus(IngestionJobStatus status) { this.status = status; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+    
+    public Integer getTitlesCompleted() { return titlesCompleted; }
+    public void setTitlesCompleted(Integer titlesCompleted) { this.titlesCompleted = titlesCompleted; }
+    
+    public Integer getPartsCompleted() { return partsCompleted; }
+    public void setPartsCompleted(Integer partsCompleted) { this.partsCompleted = partsCompleted; }
+    
+    public Integer getPartsCreated() { return partsCreated; }
+    public void setPartsCreated(Integer partsCreated) { this.partsCreated = partsCreated; }
+    
+    public Integer getPartsUpdated() { return partsUpdated; }
+    public void setPartsUpdated(Integer partsUpdated) { this.partsUpdated = partsUpdated; }
+    
+    public Integer getErrors() { return errors; }
+    public void setErrors(Integer errors) { this.errors = errors; }
+    
+    public Long getTotalWordCount() { return totalWordCount; }
+    public void setTotalWordCount(Long totalWordCount) { this.totalWordCount = totalWordCount; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,10 @@
+package com.usds.regulations.entity;
+
+public enum IngestionJobStatus {
+    QUEUED,          // Submitted, waiting for the job executor
+    RUNNING,         // Titles are being ingested
+    COMPLETED,       // Every title finished
+    CANCELLED,       // Stopped on request; resumable from its checkpoints
+    FAILED,          // Stopped by an error; resumable from its checkpoints
+    INTERRUPTED      // Was running when the application stopped; resumable from its checkpoints
+}
@@ -3,28 +3,51 @@ package com.usds.regulations.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.usds.regulations.util.ContentFingerprint;
+import com.usds.regulations.util.MinHash;
+
 @Entity
 @Table(name = "regulations", indexes = {
     @Index(name = "idx_cfr_title", columnList = "cfr_title"),
     @Index(name = "idx_part_number", columnList = "part_number"),
-    @Index(name = "idx_cfr_title_part", columnList = "cfr_title,part_number")
+    @Index(name = "idx_cfr_title_part", columnList = "cfr_title,part_number"),
+    // Keyset pagination: title listing by (word_count, id), recent changes by (updated_at, id)
+    @Index(name = "idx_cfr_title_word_count_id", columnList = "cfr_title,word_count,id"),
+    @Index(name = "idx_updated_at_id", columnList = "updated_at,id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_regulations_title_part", columnNames = {"cfr_title", "part_number"})
 })
 public class Regulation {
     
+    /**
+     * Ids are handed out from regulations_seq in blocks of this size so inserts can be batched
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String ID_SEQUENCE = "regulations_seq";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "regulations_id")
+    @SequenceGenerator(name = "regulations_id", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotNull
@@ -41,20 +64,28 @@ public class Regulation {
     @Column(name = "title", nullable = false, length = 1000)
     private String title;
     
-    @Column(name = "content", columnDefinition = "TEXT")
-    private String content;
+    // Full text lives in regulation_contents and is only read when getContent() is called
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id", unique = true)
+    private RegulationContent body;
     
     @Size(max = 255)
     @Column(name = "agency_name", length = 255)
     private String agencyName;
     
-    @Column(name = "word_count")
+    // Never null, so title pages can be read straight off idx_cfr_title_word_count_id
+    @Column(name = "word_count", nullable = false)
     private Integer wordCount;
     
     @Size(max = 64)
     @Column(name = "content_checksum", length = 64)
     private String contentChecksum;
     
+    // MinHash of the content's word set (util.MinHash); cleared when the content changes and
+    // recomputed on write, so rows whose checksum did not change never pay for it
+    @Column(name = "minhash_signature", columnDefinition = "BYTEA")
+    private byte[] minhashSignature;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -81,6 +112,14 @@ public class Regulation {
     @Column(name = "source_url", length = 500)
     private String sourceUrl;
     
+    // Analysis of the current content; wordCount and contentChecksum are only recomputed when it changes
+    @Transient
+    private ContentFingerprint fingerprint;
+    
+    // Stand-in built when no source had the part's text; never written over a stored part
+    @Transient
+    private boolean placeholder;
+    
     // Constructors
     public Regulation() {
     }
@@ -89,10 +128,9 @@ public class Regulation {
         this.cfrTitle = cfrTitle;
         this.partNumber = partNumber;
         this.title = title;
-        this.content = content;
+        this.body = new RegulationContent(content);
         this.agencyName = agencyName;
-        this.wordCount = calculateWordCount(content);
-        this.contentChecksum = generateChecksum(content);
+        applyFingerprint(ContentFingerprint.of(content));
     }
     
     @PrePersist
@@ -100,53 +138,82 @@ public class Regulation {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         if (wordCount == null) {
-            wordCount = calculateWordCount(content);
+            wordCount = contentFingerprint().getWordCount();
         }
+        refreshMinhashSignature();
         if (contentChecksum == null) {
-            contentChecksum = generateChecksum(content);
+            contentChecksum = contentFingerprint().getSha256();
         }
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
-        wordCount = calculateWordCount(content);
-        contentChecksum = generateChecksum(content);
+        refreshMinhashSignature();
+    }
+    
+    /**
+     * Word count, stats and hashes of the current content, computed once per content value
+     */
+    public ContentFingerprint contentFingerprint() {
+        ContentFingerprint current = fingerprint;
+        if (current == null) {
+            current = ContentFingerprint.of(getContent());
+            fingerprint = current;
+        }
+        return current;
+    }
+    
+    /**
+     * Take over another regulation's content together with its already computed counts and checksum;
+     * the stored MinHash signature is kept when the text is the same
+     */
+    public void copyContentFrom(Regulation other) {
+        boolean sameContent = contentChecksum != null && contentChecksum.equals(other.contentChecksum);
+        writeBody(other.getContent());
+        this.wordCount = other.wordCount;
+        this.contentChecksum = other.contentChecksum;
+        if (!sameContent) {
+            this.minhashSignature = other.minhashSignature;
+        }
+        this.fingerprint = other.fingerprint;
     }
     
-    private Integer calculateWordCount(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return 0;
+    /**
+     * Compute the MinHash signature if the content changed since it was last stored. Rows stored
+     * before signatures existed are left to the backfill unless their content was read anyway.
+     */
+    public void refreshMinhashSignature() {
+        if (minhashSignature == null && (fingerprint != null || id == null)) {
+            minhashSignature = MinHash.encode(MinHash.signature(contentFingerprint().getText()));
         }
-        String[] words = text.trim().split("\\s+");
-        return words.length;
     }
     
     /**
-     * Generate SHA-256 checksum for content change detection
+     * Forget ids assigned by a rolled-back persist so the regulation can be inserted again
      */
-    private String generateChecksum(String text) {
-        if (text == null) {
-            text = "";
+    public void clearIds() {
+        id = null;
+        if (body != null) {
+            body.clearId();
         }
-        try {
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(text.getBytes("UTF-8"));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            // Fallback to simple hash if SHA-256 fails
-            return String.valueOf(text.hashCode());
+    }
+    
+    private void writeBody(String text) {
+        if (body == null) {
+            body = new RegulationContent(text);
+        } else {
+            body.setText(text);
         }
     }
     
+    private void applyFingerprint(ContentFingerprint analyzed) {
+        fingerprint = analyzed;
+        wordCount = analyzed.getWordCount();
+        contentChecksum = analyzed.getSha256();
+        minhashSignature = null;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -181,13 +248,23 @@ public class Regulation {
     }
     
     public String getContent() {
-        return content;
+        return body != null ? body.getText() : null;
     }
     
     public void setContent(String content) {
-        this.content = content;
-        this.wordCount = calculateWordCount(content);
-        this.contentChecksum = generateChecksum(content);
+        ContentFingerprint incoming = ContentFingerprint.of(content);
+        ContentFingerprint current = fingerprint;
+        // A loaded row is compared by checksum so its lazy content is not read just to be replaced
+        boolean unchanged = body != null && (current != null
+                ? current.sameContentAs(incoming)
+                : contentChecksum != null && contentChecksum.equals(incoming.getSha256()));
+        if (unchanged) {
+            // Same text: keep the stored word count and checksum
+            fingerprint = incoming;
+            return;
+        }
+        writeBody(content);
+        applyFingerprint(incoming);
     }
     
     public String getAgencyName() {
@@ -214,6 +291,14 @@ public class Regulation {
         this.contentChecksum = contentChecksum;
     }
     
+    /**
+     * Stored MinHash signature; null until {@link #refreshMinhashSignature()} ran for the current content
+     */
+    @JsonIgnore
+    public byte[] getMinhashSignature() {
+        return minhashSignature;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -278,6 +363,14 @@ public class Regulation {
         this.sourceUrl = sourceUrl;
     }
     
+    public boolean isPlaceholder() {
+        return placeholder;
+    }
+    
+    public void setPlaceholder(boolean placeholder) {
+        this.placeholder = placeholder;
+    }
+    
     @Override
     public String toString() {
         return "Regulation{" +
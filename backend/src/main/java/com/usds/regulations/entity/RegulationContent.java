@@ -0,0 +1,61 @@
+package com.usds.regulations.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Full text of a regulation, kept out of the regulations table so that listing
+ * and analytics queries never read it. Loaded lazily through {@link Regulation#getContent()}.
+ * The text is stored dictionary-compressed in content_data; rows written before
+ * compression keep plain text in content until RegulationContentMigration re-encodes them.
+ */
+@Entity
+@Table(name = "regulation_contents")
+public class RegulationContent {
+
+    public static final String ID_SEQUENCE = "regulation_contents_seq";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "regulation_contents_id")
+    @SequenceGenerator(name = "regulation_contents_id", sequenceName = ID_SEQUENCE,
+                       allocationSize = Regulation.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content_data", columnDefinition = "BYTEA")
+    private String text;
+
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String legacyText;
+
+    protected RegulationContent() {
+    }
+
+    RegulationContent(String text) {
+        this.text = text;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    void clearId() {
+        id = null;
+    }
+
+    public String getText() {
+        return text != null ? text : legacyText;
+    }
+
+    // Only Regulation changes the text, so its word count and checksum stay in step
+    void setText(String text) {
+        this.text = text;
+        this.legacyText = null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.usds.regulations.repository;
+
+import com.usds.regulations.entity.AnalyticsAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnalyticsAggregateRepository extends JpaRepository<AnalyticsAggregate, String> {
+}
@@ -0,0 +1,14 @@
+package com.usds.regulations.repository;
+
+import com.usds.regulations.entity.IngestionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpoint, Long> {
+    
+    // Everything a job has already finished, loaded once when it (re)starts
+    List<IngestionCheckpoint> findByJobId(Long jobId);
+}
@@ -0,0 +1,19 @@
+package com.usds.regulations.repository;
+
+import com.usds.regulations.entity.IngestionJob;
+import com.usds.regulations.entity.IngestionJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, Long> {
+    
+    // Most recent jobs first, for the job list endpoint
+    List<IngestionJob> findTop20ByOrderByCreatedAtDesc();
+    
+    // Jobs in any of the given states (e.g. left RUNNING by a crash)
+    List<IngestionJob> findByStatusIn(Collection<IngestionJobStatus> statuses);
+}
@@ -47,6 +47,12 @@ public interface RegulationRelationshipRepository extends JpaRepository<Regulati
     Optional<RegulationRelationship> findExistingRelationship(@Param("sourceId") Long sourceId, 
                                                              @Param("targetId") Long targetId);
     
+    // Endpoints (sourceId, targetId) of every relationship between two regulations of a title
+    @Query("SELECT rr.sourceRegulationId, rr.targetRegulationId FROM RegulationRelationship rr, " +
+           "Regulation source, Regulation target WHERE source.id = rr.sourceRegulationId " +
+           "AND target.id = rr.targetRegulationId AND source.cfrTitle = :title AND target.cfrTitle = :title")
+    List<Object[]> findEndpointsWithinTitle(@Param("title") Integer title);
+    
     // Count conflicts by severity
     @Query("SELECT rr.conflictSeverity, COUNT(rr) FROM RegulationRelationship rr WHERE " +
            "rr.relationshipType = 'CONFLICTING' GROUP BY rr.conflictSeverity")
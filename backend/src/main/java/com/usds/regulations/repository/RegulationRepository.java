@@ -4,7 +4,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,11 +16,44 @@ import com.usds.regulations.entity.Regulation;
 @Repository
 public interface RegulationRepository extends JpaRepository<Regulation, Long> {
     
+    /**
+     * Select list for {@link RegulationSummary} queries
+     */
+    String SUMMARY_COLUMNS = "r.id AS id, r.cfrTitle AS cfrTitle, r.partNumber AS partNumber, r.title AS title, " +
+            "r.agencyName AS agencyName, r.wordCount AS wordCount, r.contentChecksum AS contentChecksum, " +
+            "r.createdAt AS createdAt, r.updatedAt AS updatedAt, r.latestAmendedOn AS latestAmendedOn, " +
+            "r.sourceUrl AS sourceUrl";
+    
     /**
      * Find all regulations for a specific CFR title
      */
     List<Regulation> findByCfrTitle(Integer cfrTitle);
     
+    /**
+     * Regulations of a CFR title with their content loaded in the same query
+     */
+    @Query("SELECT r FROM Regulation r LEFT JOIN FETCH r.body WHERE r.cfrTitle = :title")
+    List<Regulation> findWithContentByCfrTitle(@Param("title") Integer title);
+    
+    /**
+     * Regulations by id with their content loaded, for updates that replace the text
+     */
+    @Query("SELECT r FROM Regulation r LEFT JOIN FETCH r.body WHERE r.id IN :ids")
+    List<Regulation> findAllWithContentByIdIn(@Param("ids") List<Long> ids);
+    
+    /**
+     * Stored MinHash signature of every regulation (id, minhashSignature), null where not computed yet
+     */
+    @Query("SELECT r.id, r.minhashSignature FROM Regulation r")
+    List<Object[]> getMinHashSignatures();
+    
+    /**
+     * Store a backfilled MinHash signature without touching updatedAt
+     */
+    @Modifying
+    @Query("UPDATE Regulation r SET r.minhashSignature = :signature WHERE r.id = :id")
+    int storeMinHashSignature(@Param("id") Long id, @Param("signature") byte[] signature);
+    
     /**
      * Find a specific regulation by CFR title and part number
      */
@@ -32,7 +67,7 @@ public interface RegulationRepository extends JpaRepository<Regulation, Long> {
     /**
      * Find regulations by agency name
      */
-    List<Regulation> findByAgencyNameContainingIgnoreCase(String agencyName);
+    List<RegulationSummary> findByAgencyNameContainingIgnoreCase(String agencyName);
     
     /**
      * Count regulations by CFR title
@@ -60,7 +95,23 @@ public interface RegulationRepository extends JpaRepository<Regulation, Long> {
     /**
      * Find regulations ordered by word count descending
      */
-    List<Regulation> findByCfrTitleOrderByWordCountDesc(Integer cfrTitle);
+    List<RegulationSummary> findByCfrTitleOrderByWordCountDesc(Integer cfrTitle);
+    
+    /**
+     * First page of a title's regulations, largest first; served from idx_cfr_title_word_count_id
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Regulation r WHERE r.cfrTitle = :title " +
+           "ORDER BY r.wordCount DESC, r.id DESC")
+    List<RegulationSummary> findTitlePage(@Param("title") Integer title, Pageable page);
+    
+    /**
+     * Next page of a title's regulations, after the (wordCount, id) position of the previous page's last row
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Regulation r WHERE r.cfrTitle = :title " +
+           "AND (r.wordCount < :wordCount OR (r.wordCount = :wordCount AND r.id < :id)) " +
+           "ORDER BY r.wordCount DESC, r.id DESC")
+    List<RegulationSummary> findTitlePageAfter(@Param("title") Integer title, @Param("wordCount") Integer wordCount,
+                                               @Param("id") Long id, Pageable page);
     
     /**
      * Get agency statistics for analytics
@@ -81,6 +132,16 @@ public interface RegulationRepository extends JpaRepository<Regulation, Long> {
            "ORDER BY r.cfrTitle")
     List<Object[]> getTitleStatistics();
     
+    /**
+     * Totals per title and agency for rebuilding the analytics aggregates (cfrTitle, agencyName, COUNT,
+     * SUM(wordCount), number with a positive word count, MAX(updatedAt))
+     */
+    @Query("SELECT r.cfrTitle, r.agencyName, COUNT(r), COALESCE(SUM(r.wordCount), 0), " +
+           "SUM(CASE WHEN r.wordCount > 0 THEN 1 ELSE 0 END), MAX(r.updatedAt) " +
+           "FROM Regulation r " +
+           "GROUP BY r.cfrTitle, r.agencyName")
+    List<Object[]> getTitleAgencyTotals();
+    
     /**
      * Get overall statistics
      */
@@ -90,10 +151,67 @@ public interface RegulationRepository extends JpaRepository<Regulation, Long> {
     Object[] getOverallStatistics();
     
     /**
-     * Find regulations that have been updated recently
+     * Existing rows of a title for bulk upserts
+     * (partNumber, id, contentChecksum, latestAmendedOn, latestIssueDate, lastUpdatedOn, content id,
+     * agencyName, wordCount)
+     */
+    @Query("SELECT r.partNumber, r.id, r.contentChecksum, r.latestAmendedOn, r.latestIssueDate, r.lastUpdatedOn, b.id, " +
+           "r.agencyName, r.wordCount " +
+           "FROM Regulation r LEFT JOIN r.body b WHERE r.cfrTitle = :title")
+    List<Object[]> getExistingPartState(@Param("title") Integer title);
+    
+    /**
+     * Stored amendment dates for each part of a title (partNumber, latestAmendedOn, lastUpdatedOn)
+     */
+    @Query("SELECT r.partNumber, r.latestAmendedOn, r.lastUpdatedOn FROM Regulation r WHERE r.cfrTitle = :title")
+    List<Object[]> getPartAmendmentDates(@Param("title") Integer title);
+    
+    /**
+     * Newest stored amendment date per title (cfrTitle, MAX(latestAmendedOn), COUNT)
+     */
+    @Query("SELECT r.cfrTitle, MAX(r.latestAmendedOn), COUNT(r) " +
+           "FROM Regulation r " +
+           "GROUP BY r.cfrTitle")
+    List<Object[]> getTitleAmendmentDates();
+    
+    /**
+     * First page of regulations updated since a point in time, newest first
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Regulation r WHERE r.updatedAt > :since " +
+           "ORDER BY r.updatedAt DESC, r.id DESC")
+    List<RegulationSummary> findRecentlyUpdated(@Param("since") LocalDateTime since, Pageable page);
+    
+    /**
+     * Next page of recently updated regulations, after the (updatedAt, id) position of the previous page's last row
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Regulation r WHERE r.updatedAt > :since " +
+           "AND (r.updatedAt, r.id) < (:updatedAt, :id) " +
+           "ORDER BY r.updatedAt DESC, r.id DESC")
+    List<RegulationSummary> findRecentlyUpdatedAfter(@Param("since") LocalDateTime since,
+                                                     @Param("updatedAt") LocalDateTime updatedAt,
+                                                     @Param("id") Long id, Pageable page);
+    
+    /**
+     * Number of regulations updated since a point in time, per agency (agencyName, COUNT)
+     */
+    @Query("SELECT r.agencyName, COUNT(r) FROM Regulation r WHERE r.updatedAt > :since GROUP BY r.agencyName")
+    List<Object[]> countRecentlyUpdatedByAgency(@Param("since") LocalDateTime since);
+    
+    /**
+     * Number of regulations updated since a point in time, per CFR title (cfrTitle, COUNT)
+     */
+    @Query("SELECT r.cfrTitle, COUNT(r) FROM Regulation r WHERE r.updatedAt > :since GROUP BY r.cfrTitle")
+    List<Object[]> countRecentlyUpdatedByTitle(@Param("since") LocalDateTime since);
+    
+    /**
+     * Updates of one part since a point in time
      */
-    @Query("SELECT r FROM Regulation r WHERE r.updatedAt > :since ORDER BY r.updatedAt DESC")
-    List<Regulation> findRecentlyUpdated(@Param("since") LocalDateTime since);
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Regulation r " +
+           "WHERE r.cfrTitle = :title AND r.partNumber = :partNumber AND r.updatedAt > :since " +
+           "ORDER BY r.updatedAt DESC")
+    List<RegulationSummary> findRecentlyUpdatedPart(@Param("title") Integer title,
+                                                    @Param("partNumber") String partNumber,
+                                                    @Param("since") LocalDateTime since);
     
     /**
      * Find regulations by checksum (for change detection)
@@ -125,6 +243,6 @@ public interface RegulationRepository extends JpaRepository<Regulation, Long> {
     /**
      * Find top N regulations by word count
      */
-    @Query("SELECT r FROM Regulation r WHERE r.wordCount IS NOT NULL ORDER BY r.wordCount DESC")
-    List<Regulation> findTopByWordCount(org.springframework.data.domain.Pageable pageable);
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Regulation r WHERE r.wordCount IS NOT NULL ORDER BY r.wordCount DESC")
+    List<RegulationSummary> findTopByWordCount(Pageable pageable);
 }
\ No newline at end of file
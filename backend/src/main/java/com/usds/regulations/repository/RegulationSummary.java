@@ -0,0 +1,32 @@
+package com.usds.regulations.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Regulation columns for listing and analytics queries, without the content text
+ */
+public interface RegulationSummary {
+
+    Long getId();
+
+    Integer getCfrTitle();
+
+    String getPartNumber();
+
+    String getTitle();
+
+    String getAgencyName();
+
+    Integer getWordCount();
+
+    String getContentChecksum();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDate getLatestAmendedOn();
+
+    String getSourceUrl();
+}
@@ -17,17 +17,22 @@ import com.usds.regulations.dto.AnalyticsResponse.AgencyStats;
 import com.usds.regulations.dto.AnalyticsResponse.OverallStats;
 import com.usds.regulations.dto.AnalyticsResponse.RecentChange;
 import com.usds.regulations.dto.AnalyticsResponse.TitleStats;
-import com.usds.regulations.entity.Regulation;
 import com.usds.regulations.repository.RegulationRepository;
+import com.usds.regulations.repository.RegulationSummary;
 
 @Service
 public class AnalyticsService {
     
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
     
+    private static final int RECENT_CHANGES_LIMIT = 50;
+    
     @Autowired
     private RegulationRepository regulationRepository;
     
+    @Autowired
+    private AnalyticsSnapshotService analyticsSnapshot;
+    
     /**
      * Generate comprehensive analytics report
      */
@@ -38,10 +43,11 @@ public class AnalyticsService {
         
         try {
             // Generate overall statistics
-            response.setOverallStats(generateOverallStats());
+            OverallStats overallStats = generateOverallStats();
+            response.setOverallStats(overallStats);
             
             // Generate agency statistics
-            response.setAgencyStats(generateAgencyStats());
+            response.setAgencyStats(generateAgencyStats(overallStats.getTotalWordCount()));
             
             // Generate title statistics
             response.setTitleStats(generateTitleStats());
@@ -59,51 +65,38 @@ public class AnalyticsService {
     }
     
     /**
-     * Generate overall statistics
+     * Generate overall statistics, summed from the per-title aggregates
      */
     private OverallStats generateOverallStats() {
-        Object[] stats = regulationRepository.getOverallStatistics();
-        
-        if (stats != null && stats.length >= 6) {
-            long totalRegulations = stats[0] != null ? ((Number) stats[0]).longValue() : 0;
-            long totalWordCount = stats[1] != null ? ((Number) stats[1]).longValue() : 0;
-            double averageWordCount = stats[2] != null ? ((Number) stats[2]).doubleValue() : 0.0;
-            int totalAgencies = stats[3] != null ? ((Number) stats[3]).intValue() : 0;
-            int totalTitles = stats[4] != null ? ((Number) stats[4]).intValue() : 0;
-            LocalDateTime lastUpdate = (LocalDateTime) stats[5];
-            
-            return new OverallStats(totalRegulations, totalWordCount, averageWordCount, 
-                                   totalAgencies, totalTitles, lastUpdate);
+        long totalRegulations = 0;
+        long totalWordCount = 0;
+        LocalDateTime lastUpdate = null;
+        List<AnalyticsSnapshotService.Aggregate> titles = analyticsSnapshot.getTitles();
+        for (AnalyticsSnapshotService.Aggregate title : titles) {
+            totalRegulations += title.getRegulationCount();
+            totalWordCount += title.getTotalWordCount();
+            if (lastUpdate == null || (title.getLastUpdated() != null && title.getLastUpdated().isAfter(lastUpdate))) {
+                lastUpdate = title.getLastUpdated();
+            }
         }
+        double averageWordCount = totalRegulations > 0 ? (double) totalWordCount / totalRegulations : 0.0;
         
-        return new OverallStats(0, 0, 0.0, 0, 0, null);
+        return new OverallStats(totalRegulations, totalWordCount, averageWordCount,
+                               analyticsSnapshot.getAgencies().size(), titles.size(), lastUpdate);
     }
     
     /**
      * Generate agency statistics with word counts per agency
      */
-    private List<AgencyStats> generateAgencyStats() {
-        List<Object[]> agencyData = regulationRepository.getAgencyStatistics();
+    private List<AgencyStats> generateAgencyStats(long totalWordCount) {
         List<AgencyStats> agencyStats = new ArrayList<>();
         
-        // Calculate total word count for percentage calculations
-        long totalWordCount = regulationRepository.getOverallStatistics()[1] != null ? 
-            ((Number) regulationRepository.getOverallStatistics()[1]).longValue() : 0;
-        
-        for (Object[] data : agencyData) {
-            if (data.length >= 5) {
-                String agencyName = (String) data[0];
-                long regulationCount = data[1] != null ? ((Number) data[1]).longValue() : 0;
-                long agencyWordCount = data[2] != null ? ((Number) data[2]).longValue() : 0;
-                double averageWordCount = data[3] != null ? ((Number) data[3]).doubleValue() : 0.0;
-                LocalDateTime lastUpdate = (LocalDateTime) data[4];
-                
-                double percentageOfTotal = totalWordCount > 0 ? 
-                    (double) agencyWordCount / totalWordCount * 100 : 0.0;
-                
-                agencyStats.add(new AgencyStats(agencyName, regulationCount, agencyWordCount, 
-                                              averageWordCount, percentageOfTotal, lastUpdate));
-            }
+        for (AnalyticsSnapshotService.Aggregate agency : analyticsSnapshot.getAgencies()) {
+            double percentageOfTotal = totalWordCount > 0 ? 
+                (double) agency.getTotalWordCount() / totalWordCount * 100 : 0.0;
+            
+            agencyStats.add(new AgencyStats(agency.getName(), agency.getRegulationCount(), agency.getTotalWordCount(), 
+                                          agency.getAverageWordCount(), percentageOfTotal, agency.getLastUpdated()));
         }
         
         return agencyStats;
@@ -113,42 +106,36 @@ public class AnalyticsService {
      * Generate title statistics
      */
     private List<TitleStats> generateTitleStats() {
-        List<Object[]> titleData = regulationRepository.getTitleStatistics();
         List<TitleStats> titleStats = new ArrayList<>();
         
         // Map of CFR title numbers to names
         Map<Integer, String> titleNames = getTitleNames();
         
-        for (Object[] data : titleData) {
-            if (data.length >= 5) {
-                int titleNumber = data[0] != null ? ((Number) data[0]).intValue() : 0;
-                long regulationCount = data[1] != null ? ((Number) data[1]).longValue() : 0;
-                long totalWordCount = data[2] != null ? ((Number) data[2]).longValue() : 0;
-                double averageWordCount = data[3] != null ? ((Number) data[3]).doubleValue() : 0.0;
-                LocalDateTime lastUpdate = (LocalDateTime) data[4];
-                
-                String titleName = titleNames.getOrDefault(titleNumber, "Unknown Title");
-                
-                titleStats.add(new TitleStats(titleNumber, titleName, regulationCount, 
-                                            totalWordCount, averageWordCount, lastUpdate));
-            }
+        for (AnalyticsSnapshotService.Aggregate title : analyticsSnapshot.getTitles()) {
+            int titleNumber = Integer.parseInt(title.getName());
+            String titleName = titleNames.getOrDefault(titleNumber, "Unknown Title");
+            
+            titleStats.add(new TitleStats(titleNumber, titleName, title.getRegulationCount(), 
+                                        title.getTotalWordCount(), title.getAverageWordCount(), title.getLastUpdated()));
         }
         
         return titleStats;
     }
     
     /**
-     * Generate recent changes list
+     * Generate recent changes list (newest first, capped at RECENT_CHANGES_LIMIT; the full
+     * list is paged through /api/analytics/recent-changes)
      */
     private List<RecentChange> generateRecentChanges() {
         // Get regulations updated in the last 7 days
         try {
             LocalDateTime since = LocalDateTime.now().minusDays(7);
-            List<Regulation> recentlyUpdated = regulationRepository.findRecentlyUpdated(since);
+            List<RegulationSummary> recentlyUpdated =
+                regulationRepository.findRecentlyUpdated(since, PageRequest.of(0, RECENT_CHANGES_LIMIT));
             
             List<RecentChange> recentChanges = new ArrayList<>();
             
-            for (Regulation regulation : recentlyUpdated) {
+            for (RegulationSummary regulation : recentlyUpdated) {
                 String changeType = determineChangeType(regulation);
                 
                 recentChanges.add(new RecentChange(
@@ -172,7 +159,7 @@ public class AnalyticsService {
     /**
      * Determine change type for a regulation
      */
-    private String determineChangeType(Regulation regulation) {
+    private String determineChangeType(RegulationSummary regulation) {
         // If created and updated times are very close, it's likely a new creation
         if (regulation.getCreatedAt() != null && regulation.getUpdatedAt() != null) {
             long diffSeconds = java.time.Duration.between(regulation.getCreatedAt(), regulation.getUpdatedAt()).getSeconds();
@@ -189,7 +176,7 @@ public class AnalyticsService {
     public AnalyticsResponse getAgencyAnalytics(String agencyName) {
         logger.info("Generating analytics for agency: {}", agencyName);
         
-        List<Regulation> agencyRegulations = regulationRepository.findByAgencyNameContainingIgnoreCase(agencyName);
+        List<RegulationSummary> agencyRegulations = regulationRepository.findByAgencyNameContainingIgnoreCase(agencyName);
         
         AnalyticsResponse response = new AnalyticsResponse();
         
@@ -201,7 +188,7 @@ public class AnalyticsService {
         double averageWordCount = regulationCount > 0 ? (double) totalWordCount / regulationCount : 0.0;
         
         LocalDateTime lastUpdate = agencyRegulations.stream()
-            .map(Regulation::getUpdatedAt)
+            .map(RegulationSummary::getUpdatedAt)
             .max(LocalDateTime::compareTo)
             .orElse(null);
         
@@ -241,7 +228,7 @@ public class AnalyticsService {
     /**
      * Get top regulations by word count
      */
-    public List<Regulation> getTopRegulationsByWordCount(int limit) {
+    public List<RegulationSummary> getTopRegulationsByWordCount(int limit) {
         logger.info("Getting top {} regulations by word count", limit);
         return regulationRepository.findTopByWordCount(PageRequest.of(0, limit));
     }
@@ -0,0 +1,475 @@
+package com.usds.regulations.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.usds.regulations.entity.AnalyticsAggregate;
+import com.usds.regulations.repository.AnalyticsAggregateRepository;
+import com.usds.regulations.repository.RegulationRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-agency and per-title regulation counts, word totals and last updates, kept
+ * in memory and in the analytics_aggregates table so analytics reports and the
+ * dashboard's title statistics cost O(agencies + titles) instead of a scan of the corpus.
+ * <p>
+ * Every {@link RegulationChangeEvent} is turned into count/word deltas that are applied
+ * once the writing transaction committed, in a transaction of their own and in key order,
+ * so a failed aggregate update never rolls back the regulations and concurrent writers
+ * lock the aggregate rows in the same order. Memory follows the table only after that
+ * succeeded; a failed update marks the snapshot stale and the next read rebuilds it.
+ * <p>
+ * A writer holds the shared side of a read/write lock from just before its commit until
+ * its deltas are applied, and rebuilds and loads take the exclusive side. A rebuild
+ * therefore sees each write either with its deltas already applied or not committed yet,
+ * so none is dropped or counted twice.
+ * <p>
+ * At startup the table is checked against the regulation count and rebuilt from the
+ * regulations if they disagree (first run, writes from an older version); {@link #rebuild()}
+ * does the same on demand. Last updates only move forward, so deleting the newest
+ * regulation of an agency leaves its last update at the delete-time value until the next
+ * rebuild.
+ */
+@Service
+public class AnalyticsSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsSnapshotService.class);
+
+    private static final String POSTGRES_UPSERT_SQL =
+        "INSERT INTO analytics_aggregates (aggregate_key, dimension, name, regulation_count, total_word_count, " +
+        "with_words_count, last_updated) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (aggregate_key) DO UPDATE SET " +
+        "regulation_count = analytics_aggregates.regulation_count + EXCLUDED.regulation_count, " +
+        "total_word_count = analytics_aggregates.total_word_count + EXCLUDED.total_word_count, " +
+        "with_words_count = COALESCE(analytics_aggregates.with_words_count, 0) + EXCLUDED.with_words_count, " +
+        "last_updated = GREATEST(COALESCE(analytics_aggregates.last_updated, EXCLUDED.last_updated), " +
+        "COALESCE(EXCLUDED.last_updated, analytics_aggregates.last_updated))";
+
+    private static final String UPDATE_SQL =
+        "UPDATE analytics_aggregates SET regulation_count = regulation_count + ?, " +
+        "total_word_count = total_word_count + ?, " +
+        "with_words_count = COALESCE(with_words_count, 0) + ?, " +
+        "last_updated = GREATEST(COALESCE(last_updated, ?), COALESCE(?, last_updated)) " +
+        "WHERE aggregate_key = ?";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO analytics_aggregates (aggregate_key, dimension, name, regulation_count, total_word_count, " +
+        "with_words_count, last_updated) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private RegulationRepository regulationRepository;
+
+    @Autowired
+    private AnalyticsAggregateRepository aggregateRepository;
+
+    @Autowired
+    private RegulationBulkUpsertService bulkUpsertService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    private volatile boolean stale;
+
+    @PostConstruct
+    void init() {
+        // Deltas are written after the regulation transaction committed, so always in a new one
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Check the table against the regulations before ingestion jobs resume, then load it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void initialize() {
+        try {
+            List<AnalyticsAggregate> rows = aggregateRepository.findAll();
+            long stored = rows.stream()
+                    .filter(aggregate -> AnalyticsAggregate.TITLE.equals(aggregate.getDimension()))
+                    .mapToLong(AnalyticsAggregate::getRegulationCount)
+                    .sum();
+            long actual = regulationRepository.count();
+            if (stored != actual) {
+                logger.info("Analytics aggregates cover {} of {} regulations, rebuilding", stored, actual);
+                rebuild();
+            } else if (rows.stream().anyMatch(aggregate -> aggregate.getWithWordsCount() == null)) {
+                logger.info("Analytics aggregates predate the with-words count, rebuilding");
+                rebuild();
+            } else {
+                load();
+            }
+        } catch (DataAccessException e) {
+            logger.error("Could not initialize analytics snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recompute every aggregate from the regulations table
+     */
+    public void rebuild() {
+        snapshotLock.writeLock().lock();
+        try {
+            stale = false;
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM analytics_aggregates");
+                // One grouped query; title and agency rows are summed from its title/agency groups
+                SortedMap<String, Delta> totals = new TreeMap<>();
+                for (Object[] data : regulationRepository.getTitleAgencyTotals()) {
+                    long count = ((Number) data[2]).longValue();
+                    long words = data[3] != null ? ((Number) data[3]).longValue() : 0;
+                    long withWords = data[4] != null ? ((Number) data[4]).longValue() : 0;
+                    LocalDateTime lastUpdated = (LocalDateTime) data[5];
+                    delta(totals, AnalyticsAggregate.TITLE, String.valueOf(data[0]))
+                        .add(count, words, withWords, lastUpdated);
+                    if (data[1] != null) {
+                        delta(totals, AnalyticsAggregate.AGENCY, (String) data[1])
+                            .add(count, words, withWords, lastUpdated);
+                    }
+                }
+                List<Object[]> rows = new ArrayList<>();
+                for (Map.Entry<String, Delta> entry : totals.entrySet()) {
+                    Delta total = entry.getValue();
+                    rows.add(new Object[] { entry.getKey(), total.dimension, total.name, total.regulationCount,
+                            total.totalWordCount, total.withWordsCount, total.lastUpdated });
+                }
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            });
+            loadLocked();
+        } catch (RuntimeException e) {
+            stale = true;
+            throw e;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        logger.info("Rebuilt analytics aggregates: {} titles, {} agencies",
+                getTitles().size(), getAgencies().size());
+    }
+
+    /**
+     * Titles with at least one regulation, ordered by title number
+     */
+    public List<Aggregate> getTitles() {
+        List<Aggregate> titles = current(AnalyticsAggregate.TITLE);
+        titles.sort(Comparator.comparingInt(aggregate -> Integer.parseInt(aggregate.getName())));
+        return titles;
+    }
+
+    /**
+     * One title's totals, empty if it has no regulations
+     */
+    public Aggregate getTitle(int cfrTitle) {
+        String name = String.valueOf(cfrTitle);
+        ensureCurrent();
+        Aggregate title = aggregates.get(AnalyticsAggregate.key(AnalyticsAggregate.TITLE, name));
+        return title != null ? title : new Aggregate(AnalyticsAggregate.TITLE, name, 0, 0, 0, null);
+    }
+
+    /**
+     * Totals over all regulations, summed from the titles; dimension and name are null
+     */
+    public Aggregate getTotal() {
+        Aggregate total = new Aggregate(null, null, 0, 0, 0, null);
+        for (Aggregate title : current(AnalyticsAggregate.TITLE)) {
+            total = total.plus(title);
+        }
+        return total;
+    }
+
+    /**
+     * Agencies with at least one regulation, largest word total first
+     */
+    public List<Aggregate> getAgencies() {
+        List<Aggregate> agencies = current(AnalyticsAggregate.AGENCY);
+        agencies.sort(Comparator.comparingLong(Aggregate::getTotalWordCount).reversed());
+        return agencies;
+    }
+
+    /**
+     * Queue a change's deltas to be applied once the transaction that published it
+     * committed; a change published outside a transaction is applied right away
+     */
+    @EventListener
+    public void onRegulationChange(RegulationChangeEvent event) {
+        SortedMap<String, Delta> deltas = deltas(event.getChanges());
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new PendingDeltas(deltas));
+            return;
+        }
+        snapshotLock.readLock().lock();
+        try {
+            apply(deltas);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write deltas to the table in key order, then to memory. Called with the shared lock held.
+     */
+    private void apply(SortedMap<String, Delta> deltas) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map.Entry<String, Delta> entry : deltas.entrySet()) {
+                    writeRow(entry.getKey(), entry.getValue());
+                }
+            });
+        } catch (RuntimeException e) {
+            stale = true;
+            logger.error("Could not update analytics aggregates, rebuilding on next read: {}", e.getMessage(), e);
+            return;
+        }
+        if (!loaded) {
+            return;
+        }
+        for (Map.Entry<String, Delta> entry : deltas.entrySet()) {
+            Delta delta = entry.getValue();
+            aggregates.merge(entry.getKey(),
+                    new Aggregate(delta.dimension, delta.name, delta.regulationCount, delta.totalWordCount,
+                            delta.withWordsCount, delta.lastUpdated),
+                    Aggregate::plus);
+        }
+    }
+
+    private void writeRow(String key, Delta delta) {
+        if (bulkUpsertService.isPostgres()) {
+            jdbcTemplate.update(POSTGRES_UPSERT_SQL, key, delta.dimension, delta.name,
+                    delta.regulationCount, delta.totalWordCount, delta.withWordsCount, delta.lastUpdated);
+        } else if (!updateRow(key, delta)) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, key, delta.dimension, delta.name,
+                        delta.regulationCount, delta.totalWordCount, delta.withWordsCount, delta.lastUpdated);
+            } catch (DuplicateKeyException e) {
+                // Another writer created the row first
+                updateRow(key, delta);
+            }
+        }
+    }
+
+    /**
+     * Net change per aggregate key, sorted by key; an agency change moves the regulation
+     * between agencies
+     */
+    static SortedMap<String, Delta> deltas(List<RegulationChangeEvent.Change> changes) {
+        SortedMap<String, Delta> deltas = new TreeMap<>();
+        for (RegulationChangeEvent.Change change : changes) {
+            Delta title = delta(deltas, AnalyticsAggregate.TITLE, String.valueOf(change.getCfrTitle()));
+            if (change.isExistedBefore()) {
+                long words = change.getPreviousWordCount();
+                title.add(-1, -words, words > 0 ? -1 : 0, null);
+                if (change.getPreviousAgencyName() != null) {
+                    delta(deltas, AnalyticsAggregate.AGENCY, change.getPreviousAgencyName())
+                        .add(-1, -words, words > 0 ? -1 : 0, null);
+                }
+            }
+            if (change.isExistsAfter()) {
+                long words = change.getWordCount();
+                title.add(1, words, words > 0 ? 1 : 0, change.getChangedAt());
+                if (change.getAgencyName() != null) {
+                    delta(deltas, AnalyticsAggregate.AGENCY, change.getAgencyName())
+                        .add(1, words, words > 0 ? 1 : 0, change.getChangedAt());
+                }
+            }
+        }
+        return deltas;
+    }
+
+    private static Delta delta(Map<String, Delta> deltas, String dimension, String name) {
+        return deltas.computeIfAbsent(AnalyticsAggregate.key(dimension, name), key -> new Delta(dimension, name));
+    }
+
+    private boolean updateRow(String key, Delta delta) {
+        return jdbcTemplate.update(UPDATE_SQL, delta.regulationCount, delta.totalWordCount, delta.withWordsCount,
+                delta.lastUpdated, delta.lastUpdated, key) > 0;
+    }
+
+    private void load() {
+        snapshotLock.writeLock().lock();
+        try {
+            if (!loaded) {
+                loadLocked();
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    private void loadLocked() {
+        aggregates.clear();
+        for (AnalyticsAggregate row : aggregateRepository.findAll()) {
+            aggregates.put(row.getAggregateKey(), new Aggregate(row.getDimension(), row.getName(),
+                    row.getRegulationCount(), row.getTotalWordCount(),
+                    row.getWithWordsCount() != null ? row.getWithWordsCount() : 0, row.getLastUpdated()));
+        }
+        loaded = true;
+    }
+
+    private void ensureCurrent() {
+        if (stale) {
+            rebuild();
+        } else if (!loaded) {
+            load();
+        }
+    }
+
+    private List<Aggregate> current(String dimension) {
+        ensureCurrent();
+        List<Aggregate> current = new ArrayList<>();
+        for (Aggregate aggregate : aggregates.values()) {
+            if (aggregate.getDimension().equals(dimension) && aggregate.getRegulationCount() > 0) {
+                current.add(aggregate);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Deltas of one transaction: the shared lock is taken before the commit and released
+     * once the deltas are applied, so a rebuild never runs between the two
+     */
+    private class PendingDeltas implements TransactionSynchronization {
+        private final SortedMap<String, Delta> deltas;
+        private boolean locked;
+
+        PendingDeltas(SortedMap<String, Delta> deltas) {
+            this.deltas = deltas;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            snapshotLock.readLock().lock();
+            locked = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            apply(deltas);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (locked) {
+                locked = false;
+                snapshotLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Accumulated change to one aggregate
+     */
+    static class Delta {
+        private final String dimension;
+        private final String name;
+        private long regulationCount;
+        private long totalWordCount;
+        private long withWordsCount;
+        private LocalDateTime lastUpdated;
+
+        Delta(String dimension, String name) {
+            this.dimension = dimension;
+            this.name = name;
+        }
+
+        void add(long count, long words, long withWords, LocalDateTime updated) {
+            regulationCount += count;
+            totalWordCount += words;
+            withWordsCount += withWords;
+            lastUpdated = later(lastUpdated, updated);
+        }
+
+        long getRegulationCount() { return regulationCount; }
+        long getTotalWordCount() { return totalWordCount; }
+        long getWithWordsCount() { return withWordsCount; }
+        LocalDateTime getLastUpdated() { return lastUpdated; }
+    }
+
+    /**
+     * Totals of one agency or title at one point in time
+     */
+    public static class Aggregate {
+        private final String dimension;
+        private final String name;
+        private final long regulationCount;
+        private final long totalWordCount;
+        // Regulations with a positive word count
+        private final long withWordsCount;
+        private final LocalDateTime lastUpdated;
+
+        Aggregate(String dimension, String name, long regulationCount, long totalWordCount,
+                  long withWordsCount, LocalDateTime lastUpdated) {
+            this.dimension = dimension;
+            this.name = name;
+            this.regulationCount = regulationCount;
+            this.totalWordCount = totalWordCount;
+            this.withWordsCount = withWordsCount;
+            this.lastUpdated = lastUpdated;
+        }
+
+        Aggregate plus(Aggregate delta) {
+            return new Aggregate(dimension, name, regulationCount + delta.regulationCount,
+                    totalWordCount + delta.totalWordCount, withWordsCount + delta.withWordsCount,
+                    later(lastUpdated, delta.lastUpdated));
+        }
+
+        public String getDimension() { return dimension; }
+        /** Agency name, or the CFR title number as text */
+        public String getName() { return name; }
+        public long getRegulationCount() { return regulationCount; }
+        public long getTotalWordCount() { return totalWordCount; }
+        public double getAverageWordCount() {
+            return regulationCount > 0 ? (double) totalWordCount / regulationCount : 0.0;
+        }
+        /** Average over regulations with a positive word count, as the dashboard reports it */
+        public double getAverageNonEmptyWordCount() {
+            return withWordsCount > 0 ? (double) totalWordCount / withWordsCount : 0.0;
+        }
+        public LocalDateTime getLastUpdated() { return lastUpdated; }
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+}
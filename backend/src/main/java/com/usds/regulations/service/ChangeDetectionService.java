@@ -2,30 +2,56 @@ package com.usds.regulations.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.usds.regulations.entity.Regulation;
 import com.usds.regulations.repository.RegulationRepository;
+import com.usds.regulations.repository.RegulationSummary;
+import com.usds.regulations.util.ContentFingerprint;
+import com.usds.regulations.util.MinHash;
+import com.usds.regulations.util.MinHashLshIndex;
+import com.usds.regulations.util.PageCursor;
 
 @Service
 public class ChangeDetectionService {
     
     private static final Logger logger = LoggerFactory.getLogger(ChangeDetectionService.class);
     
+    private static final String RECENT_CHANGES_LISTING = "recent-";
+    
+    private static final int CONTENT_CHUNK_SIZE = 500;
+    
     @Autowired
     private RegulationRepository regulationRepository;
     
+    @Autowired
+    private PairwiseSimilarityEngine similarityEngine;
+    
+    @Value("${regulations.api.page-size:100}")
+    private int defaultPageSize;
+    
+    @Value("${regulations.api.max-page-size:500}")
+    private int maxPageSize;
+    
     /**
      * Detect changes between existing and new regulation content
      */
+    @Transactional(readOnly = true)
     public ChangeDetectionResult detectChanges(Integer cfrTitle, String partNumber, 
                                              String newTitle, String newContent, String newAgencyName) {
         logger.debug("Detecting changes for CFR Title {} Part {}", cfrTitle, partNumber);
@@ -39,7 +65,11 @@ public class ChangeDetectionService {
         }
         
         Regulation existing = existingOpt.get();
-        String newChecksum = generateChecksum(newContent);
+        ContentFingerprint incoming = ContentFingerprint.of(newContent);
+        // Identical text (length and fast hash first) reuses the stored checksum instead of hashing again
+        String newChecksum = existing.getContentChecksum() != null && existing.contentFingerprint().sameContentAs(incoming)
+                ? existing.getContentChecksum()
+                : incoming.getSha256();
         
         ChangeDetectionResult result = new ChangeDetectionResult();
         result.setExistingChecksum(existing.getContentChecksum());
@@ -51,7 +81,7 @@ public class ChangeDetectionService {
             result.setDescription("Content checksum changed");
             
             // Analyze specific changes
-            result.setDetailedChanges(analyzeDetailedChanges(existing, newTitle, newContent, newAgencyName));
+            result.setDetailedChanges(analyzeDetailedChanges(existing, newTitle, incoming, newAgencyName));
         } else if (!existing.getTitle().equals(newTitle)) {
             result.setChangeType(ChangeType.METADATA_CHANGED);
             result.setDescription("Title changed but content remained the same");
@@ -70,7 +100,7 @@ public class ChangeDetectionService {
      * Analyze detailed changes between old and new regulation
      */
     private Map<String, Object> analyzeDetailedChanges(Regulation existing, String newTitle, 
-                                                      String newContent, String newAgencyName) {
+                                                      ContentFingerprint incoming, String newAgencyName) {
         Map<String, Object> changes = new HashMap<>();
         
         // Title changes
@@ -90,12 +120,13 @@ public class ChangeDetectionService {
         }
         
         // Content changes
-        if (!existing.getContent().equals(newContent)) {
+        if (!existing.contentFingerprint().sameContentAs(incoming)) {
+            String newContent = incoming.getText();
             Map<String, Object> contentChange = new HashMap<>();
             contentChange.put("oldLength", existing.getContent() != null ? existing.getContent().length() : 0);
-            contentChange.put("newLength", newContent != null ? newContent.length() : 0);
+            contentChange.put("newLength", incoming.getLength());
             contentChange.put("oldWordCount", existing.getWordCount());
-            contentChange.put("newWordCount", calculateWordCount(newContent));
+            contentChange.put("newWordCount", incoming.getWordCount());
             
             // Calculate similarity percentage
             double similarity = calculateSimilarity(existing.getContent(), newContent);
@@ -114,115 +145,189 @@ public class ChangeDetectionService {
         logger.info("Getting change history for CFR Title {} Part {} over {} days", cfrTitle, partNumber, days);
         
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<Regulation> recentUpdates = regulationRepository.findRecentlyUpdated(since);
+        List<RegulationSummary> recentUpdates = regulationRepository.findRecentlyUpdatedPart(cfrTitle, partNumber, since);
         
         List<ChangeHistoryEntry> history = new ArrayList<>();
         
-        for (Regulation regulation : recentUpdates) {
-            if (regulation.getCfrTitle().equals(cfrTitle) && regulation.getPartNumber().equals(partNumber)) {
-                ChangeHistoryEntry entry = new ChangeHistoryEntry();
-                entry.setRegulationId(regulation.getId());
-                entry.setChangeDate(regulation.getUpdatedAt());
-                entry.setChecksum(regulation.getContentChecksum());
-                entry.setWordCount(regulation.getWordCount());
-                entry.setChangeType(determineChangeType(regulation));
-                history.add(entry);
-            }
+        for (RegulationSummary regulation : recentUpdates) {
+            ChangeHistoryEntry entry = new ChangeHistoryEntry();
+            entry.setRegulationId(regulation.getId());
+            entry.setChangeDate(regulation.getUpdatedAt());
+            entry.setChecksum(regulation.getContentChecksum());
+            entry.setWordCount(regulation.getWordCount());
+            entry.setChangeType(determineChangeType(regulation));
+            history.add(entry);
         }
         
         return history;
     }
     
     /**
-     * Detect potential duplicates based on content similarity
+     * Detect potential duplicates based on content similarity (Jaccard similarity of the word sets).
+     * Candidate pairs come from an LSH index over the stored MinHash signatures, and only those
+     * candidates are compared exactly, so the cost grows with the number of similar pairs rather
+     * than quadratically. Signatures missing from rows stored before they existed are computed and saved.
+     * @param similarityThreshold minimum similarity, as a fraction (0.8) or a percentage (80)
      */
+    @Transactional
     public List<DuplicateDetectionResult> detectPotentialDuplicates(double similarityThreshold) {
         logger.info("Detecting potential duplicates with similarity threshold: {}", similarityThreshold);
         
-        List<Regulation> allRegulations = regulationRepository.findAll();
-        List<DuplicateDetectionResult> duplicates = new ArrayList<>();
-        
-        for (int i = 0; i < allRegulations.size(); i++) {
-            for (int j = i + 1; j < allRegulations.size(); j++) {
-                Regulation reg1 = allRegulations.get(i);
-                Regulation reg2 = allRegulations.get(j);
-                
-                double similarity = calculateSimilarity(reg1.getContent(), reg2.getContent());
-                
-                if (similarity >= similarityThreshold) {
-                    DuplicateDetectionResult duplicate = new DuplicateDetectionResult();
-                    duplicate.setRegulation1(reg1);
-                    duplicate.setRegulation2(reg2);
-                    duplicate.setSimilarityScore(similarity);
-                    duplicate.setReason(determineDuplicateReason(reg1, reg2, similarity));
-                    duplicates.add(duplicate);
-                }
+        double thresholdPercent = similarityThreshold <= 1.0 ? similarityThreshold * 100.0 : similarityThreshold;
+        
+        List<Object[]> rows = regulationRepository.getMinHashSignatures();
+        List<Long> ids = new ArrayList<>(rows.size());
+        int[][] signatures = new int[rows.size()][];
+        Map<Long, Integer> unsigned = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ids.add((Long) rows.get(i)[0]);
+            signatures[i] = MinHash.decode((byte[]) rows.get(i)[1]);
+            if (signatures[i] == null) {
+                unsigned.put(ids.get(i), i);
             }
         }
+        if (!unsigned.isEmpty()) {
+            logger.info("Computing MinHash signatures for {} regulations", unsigned.size());
+            forEachWithContent(new ArrayList<>(unsigned.keySet()), regulation -> {
+                int[] signature = MinHash.signature(regulation.getContent());
+                regulationRepository.storeMinHashSignature(regulation.getId(), MinHash.encode(signature));
+                signatures[unsigned.get(regulation.getId())] = signature;
+            });
+        }
         
+        MinHashLshIndex index = new MinHashLshIndex();
+        for (int i = 0; i < signatures.length; i++) {
+            if (signatures[i] != null) {
+                index.add(i, signatures[i]);
+            }
+        }
+        long[] candidates = index.candidatePairs().toArray();
+        
+        // Load and tokenize only regulations that are part of a candidate pair, once each
+        Set<Long> candidateIds = new HashSet<>();
+        for (long pair : candidates) {
+            candidateIds.add(ids.get(MinHashLshIndex.first(pair)));
+            candidateIds.add(ids.get(MinHashLshIndex.second(pair)));
+        }
+        Regulation[] regulations = new Regulation[ids.size()];
+        long[][] words = new long[ids.size()][];
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        forEachWithContent(new ArrayList<>(candidateIds), regulation -> {
+            int position = positions.get(regulation.getId());
+            regulations[position] = regulation;
+            words[position] = MinHash.distinctWordHashes(regulation.getContent());
+        });
+        
+        List<DuplicateDetectionResult> duplicates = new ArrayList<>(similarityEngine.compareCandidates(candidates, (i, j) -> {
+            if (words[i] == null || words[j] == null) {
+                return null;
+            }
+            double similarity = MinHash.jaccard(words[i], words[j]) * 100.0;
+            if (similarity < thresholdPercent) {
+                return null;
+            }
+            DuplicateDetectionResult duplicate = new DuplicateDetectionResult();
+            duplicate.setRegulation1(regulations[i]);
+            duplicate.setRegulation2(regulations[j]);
+            duplicate.setSimilarityScore(similarity);
+            duplicate.setReason(determineDuplicateReason(regulations[i], regulations[j], similarity));
+            return duplicate;
+        }));
+        duplicates.sort(Comparator.comparingDouble(DuplicateDetectionResult::getSimilarityScore).reversed());
+        
+        logger.info("Found {} duplicates among {} LSH candidate pairs of {} regulations",
+                duplicates.size(), candidates.length, ids.size());
         return duplicates;
     }
     
     /**
-     * Generate bulk change report for all regulations
+     * Load regulations with their content in chunks and hand each to the consumer
+     */
+    private void forEachWithContent(List<Long> ids, Consumer<Regulation> consumer) {
+        for (int start = 0; start < ids.size(); start += CONTENT_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(ids.size(), start + CONTENT_CHUNK_SIZE));
+            regulationRepository.findAllWithContentByIdIn(chunk).forEach(consumer);
+        }
+    }
+    
+    /**
+     * Generate bulk change report for all regulations. Totals are counted in the database;
+     * recentChanges holds the first page, continued through getRecentChangesPage with nextCursor.
      */
     public Map<String, Object> generateBulkChangeReport(LocalDateTime since) {
         logger.info("Generating bulk change report since: {}", since);
         
-        List<Regulation> recentlyUpdated = regulationRepository.findRecentlyUpdated(since);
-        
         Map<String, Object> report = new HashMap<>();
         report.put("reportGeneratedAt", LocalDateTime.now());
         report.put("analysisPeriodStart", since);
-        report.put("totalChanges", recentlyUpdated.size());
         
         // Group changes by agency
         Map<String, Integer> changesByAgency = new HashMap<>();
         Map<String, Integer> changesByTitle = new HashMap<>();
+        long totalChanges = 0;
         
-        for (Regulation regulation : recentlyUpdated) {
-            String agency = regulation.getAgencyName();
-            changesByAgency.put(agency, changesByAgency.getOrDefault(agency, 0) + 1);
-            
-            String title = "CFR Title " + regulation.getCfrTitle();
-            changesByTitle.put(title, changesByTitle.getOrDefault(title, 0) + 1);
+        for (Object[] row : regulationRepository.countRecentlyUpdatedByAgency(since)) {
+            long count = ((Number) row[1]).longValue();
+            changesByAgency.put((String) row[0], (int) count);
+            totalChanges += count;
+        }
+        for (Object[] row : regulationRepository.countRecentlyUpdatedByTitle(since)) {
+            changesByTitle.put("CFR Title " + row[0], ((Number) row[1]).intValue());
         }
         
+        report.put("totalChanges", totalChanges);
         report.put("changesByAgency", changesByAgency);
         report.put("changesByTitle", changesByTitle);
-        report.put("recentChanges", recentlyUpdated);
+        
+        Map<String, Object> firstPage = getRecentChangesPage(since, null, null);
+        report.put("recentChanges", firstPage.get("changes"));
+        report.put("hasMore", firstPage.get("hasMore"));
+        report.put("nextCursor", firstPage.get("nextCursor"));
         
         return report;
     }
     
-    // Helper methods and classes
-    
-    private String generateChecksum(String content) {
-        if (content == null) content = "";
-        try {
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(content.getBytes("UTF-8"));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            return String.valueOf(content.hashCode());
+    /**
+     * One page of regulations updated since a point in time, newest first.
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit page size, or null for the configured default
+     * @throws IllegalArgumentException if the cursor is invalid or was issued for another since
+     */
+    public Map<String, Object> getRecentChangesPage(LocalDateTime since, String cursor, Integer limit) {
+        int pageSize = PageCursor.clampPageSize(limit != null ? limit : defaultPageSize, maxPageSize);
+        String listing = RECENT_CHANGES_LISTING + since;
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        
+        List<RegulationSummary> changes;
+        if (cursor == null || cursor.isEmpty()) {
+            changes = regulationRepository.findRecentlyUpdated(since, page);
+        } else {
+            PageCursor after = PageCursor.decode(cursor, listing);
+            changes = regulationRepository.findRecentlyUpdatedAfter(since, after.getDateTimeKey(), after.getId(), page);
         }
-    }
-    
-    private Integer calculateWordCount(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return 0;
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
         }
-        return text.trim().split("\\s+").length;
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("changes", changes);
+        result.put("count", changes.size());
+        result.put("pageSize", pageSize);
+        result.put("hasMore", hasMore);
+        if (hasMore) {
+            RegulationSummary last = changes.get(changes.size() - 1);
+            result.put("nextCursor", PageCursor.encode(listing, last.getUpdatedAt(), last.getId()));
+        }
+        return result;
     }
     
+    // Helper methods and classes
+    
     private double calculateSimilarity(String text1, String text2) {
         if (text1 == null) text1 = "";
         if (text2 == null) text2 = "";
@@ -247,7 +352,7 @@ public class ChangeDetectionService {
         return union.size() > 0 ? (double) intersection.size() / union.size() * 100.0 : 0.0;
     }
     
-    private String determineChangeType(Regulation regulation) {
+    private String determineChangeType(RegulationSummary regulation) {
         if (regulation.getCreatedAt() != null && regulation.getUpdatedAt() != null) {
             long diffSeconds = java.time.Duration.between(regulation.getCreatedAt(), regulation.getUpdatedAt()).getSeconds();
             if (diffSeconds < 60) {
@@ -1,20 +1,26 @@
 package com.usds.regulations.service;
 
-import java.security.MessageDigest;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,17 +31,45 @@ import com.usds.regulations.repository.RegulationRepository;
 public class EcfrApiService {
     
     private static final Logger logger = LoggerFactory.getLogger(EcfrApiService.class);
-    private static final String ECFR_BASE_URL = "https://ecfr.federalregister.gov/api";
+    static final String ECFR_BASE_URL = "https://ecfr.federalregister.gov/api";
     
     @Autowired
     private RegulationRepository regulationRepository;
     
-    private final RestTemplate restTemplate;
+    @Autowired
+    private EcfrDateResolver dateResolver;
+    
+    @Autowired
+    private EcfrHttpClient httpClient;
+    
+    @Autowired
+    private EcfrCorrectionsIndex correctionsIndex;
+    
+    @Autowired
+    private RawPayloadArchive payloadArchive;
+    
+    @Autowired
+    private RegulationBulkUpsertService bulkUpsertService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    @Qualifier("ecfrPartExecutor")
+    private ThreadPoolTaskExecutor partExecutor;
+    
+    // Build part content from the title's full-text XML, falling back to structure/search per part
+    @Value("${ecfr.ingest.full-text.enabled:true}")
+    private boolean fullTextEnabled;
+    
     private final ObjectMapper objectMapper;
+    private final TitleStructureParser structureParser;
+    private final TitleFullTextParser fullTextParser;
     
     public EcfrApiService() {
-        this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
+        this.structureParser = new TitleStructureParser(objectMapper);
+        this.fullTextParser = new TitleFullTextParser();
     }
     
     // ================================
@@ -56,130 +90,205 @@ public class EcfrApiService {
      * CRUD: CREATE + UPDATE operations
      */
     public Map<String, Object> downloadAndSaveTitle(Integer titleNumber, Integer maxParts) {
+        return downloadAndSaveTitle(titleNumber, maxParts, IngestionContext.NONE);
+    }
+    
+    /**
+     * Download and SAVE a title in checkpoint-sized groups of parts, skipping parts the context
+     * has already completed and stopping between groups once the context is cancelled
+     * CRUD: CREATE + UPDATE operations
+     */
+    public Map<String, Object> downloadAndSaveTitle(Integer titleNumber, Integer maxParts, IngestionContext context) {
         logger.info("Downloading and saving CFR Title {} to database (max {} parts)", titleNumber, maxParts);
         
+        TitleStructureSnapshot snapshot = fetchTitleStructure(titleNumber, dateResolver.getDateForTitle(titleNumber));
+        try (snapshot) {
+            List<String> partNumbers = getPartNumbersForTitle(snapshot);
+            if (partNumbers.size() > maxParts) {
+                logger.info("Reached maximum parts limit ({})", maxParts);
+                partNumbers = partNumbers.subList(0, maxParts);
+            }
+            
+            List<String> pendingParts = new ArrayList<>();
+            for (String partNumber : partNumbers) {
+                if (!context.isPartCompleted(titleNumber, partNumber)) {
+                    pendingParts.add(partNumber);
+                }
+            }
+            if (pendingParts.size() < partNumbers.size()) {
+                logger.info("Title {}: resuming with {} of {} parts left", titleNumber, pendingParts.size(), partNumbers.size());
+            }
+            context.onTitleStarted(titleNumber, pendingParts.size());
+            
+            TitleTotals totals = new TitleTotals();
+            List<String> remainingParts = pendingParts;
+            if (fullTextEnabled && !pendingParts.isEmpty()) {
+                remainingParts = saveFromFullText(titleNumber, snapshot, pendingParts, context, totals);
+            }
+            
+            boolean cancelled = false;
+            int interval = Math.max(1, context.getCheckpointInterval());
+            for (int start = 0; start < remainingParts.size(); start += interval) {
+                if (context.isCancelled()) {
+                    cancelled = true;
+                    logger.info("Title {} stopped with {} parts left: ingestion cancelled", titleNumber, remainingParts.size() - start);
+                    break;
+                }
+                List<String> group = remainingParts.subList(start, Math.min(remainingParts.size(), start + interval));
+                List<Regulation> downloadedRegulations = downloadParts(titleNumber, group, snapshot);
+                Map<String, Object> saved = saveDownloadedRegulations(titleNumber, downloadedRegulations);
+                totals.add(saved, downloadedRegulations.size());
+                context.onPartsCompleted(titleNumber, savedParts(saved), saved);
+            }
+            
+            Map<String, Object> result = totals.toMap();
+            result.put("cancelled", cancelled);
+            
+            return result;
+        }
+    }
+    
+    /**
+     * Incremental sync of one title driven by upstream amendment dates.
+     * The title is skipped outright when its latest_amended_on is not newer than the newest
+     * amendment we hold; otherwise the structure is fetched (dated up_to_date_as_of) and only
+     * parts whose last_amended / last_updated moved past the stored dates are re-ingested.
+     */
+    public Map<String, Object> syncTitle(Integer titleNumber) {
+        return syncTitle(titleNumber, IngestionContext.NONE);
+    }
+    
+    /**
+     * Incremental sync of one title, saving changed parts in checkpoint-sized groups, skipping
+     * parts the context has already completed and stopping between groups once it is cancelled
+     */
+    public Map<String, Object> syncTitle(Integer titleNumber, IngestionContext context) {
+        logger.info("Incremental sync of CFR Title {}", titleNumber);
+        
+        Map<String, LocalDate[]> storedParts = new HashMap<>();
+        LocalDate storedLatestAmended = null;
+        for (Object[] row : regulationRepository.getPartAmendmentDates(titleNumber)) {
+            LocalDate amended = (LocalDate) row[1];
+            storedParts.put((String) row[0], new LocalDate[] { amended, (LocalDate) row[2] });
+            if (amended != null && (storedLatestAmended == null || amended.isAfter(storedLatestAmended))) {
+                storedLatestAmended = amended;
+            }
+        }
+        
         Map<String, Object> result = new HashMap<>();
-        List<Regulation> downloadedRegulations = downloadTitleFromAPI(titleNumber, maxParts);
+        result.put("titleNumber", titleNumber);
         
-        int created = 0, updated = 0, errors = 0;
-        List<Regulation> savedRegulations = new ArrayList<>();
+        String apiDate = dateResolver.getDateForTitle(titleNumber);
+        if (!titleNeedsSync(titleNumber, storedLatestAmended, storedParts.size())) {
+            logger.info("Title {} unchanged upstream since {}, skipping", titleNumber, storedLatestAmended);
+            result.put("titleChanged", false);
+            result.put("partsChanged", 0);
+            result.put("downloaded", 0);
+            result.put("created", 0);
+            result.put("updated", 0);
+            result.put("errors", 0);
+            result.put("totalWordCount", 0);
+            return result;
+        }
         
-        for (Regulation regulation : downloadedRegulations) {
-            try {
-                // CHECK if exists in database
-                Optional<Regulation> existing = regulationRepository
-                        .findByCfrTitleAndPartNumber(regulation.getCfrTitle(), regulation.getPartNumber());
-                
-                if (existing.isPresent()) {
-                    // UPDATE operation
-                    Regulation existingReg = existing.get();
-                    if (!existingReg.getContentChecksum().equals(regulation.getContentChecksum())) {
-                        existingReg.setTitle(regulation.getTitle());
-                        existingReg.setContent(regulation.getContent());
-                        existingReg.setAgencyName(regulation.getAgencyName());
-                        existingReg.setWordCount(regulation.getWordCount());
-                        existingReg.setContentChecksum(regulation.getContentChecksum());
-                        
-                        savedRegulations.add(regulationRepository.save(existingReg)); // DATABASE HIT
-                        updated++;
-                        logger.info("UPDATED Title {} Part {} in database", titleNumber, regulation.getPartNumber());
-                    } else {
-                        logger.debug("No changes for Title {} Part {}, skipping", titleNumber, regulation.getPartNumber());
-                    }
-                } else {
-                    // CREATE operation
-                    savedRegulations.add(regulationRepository.save(regulation)); // DATABASE HIT
-                    created++;
-                    logger.info("CREATED Title {} Part {} in database", titleNumber, regulation.getPartNumber());
+        TitleStructureSnapshot snapshot = fetchTitleStructure(titleNumber, apiDate);
+        try (snapshot) {
+            List<String> changedParts = new ArrayList<>();
+            for (TitleStructureSnapshot.StructurePart part : snapshot.getParts().values()) {
+                LocalDate[] stored = storedParts.get(part.getPartNumber());
+                if ((stored == null
+                        || isNewer(parseDate(part.getLastAmended()), stored[0])
+                        || isNewer(parseDate(part.getLastUpdated()), stored[1]))
+                        && !context.isPartCompleted(titleNumber, part.getPartNumber())) {
+                    changedParts.add(part.getPartNumber());
                 }
-            } catch (Exception e) {
-                logger.error("Error saving Title {} Part {}: {}", titleNumber, regulation.getPartNumber(), e.getMessage());
-                errors++;
             }
+            logger.info("Title {}: {} of {} parts changed upstream", titleNumber, changedParts.size(), snapshot.size());
+            context.onTitleStarted(titleNumber, changedParts.size());
+            
+            TitleTotals totals = new TitleTotals();
+            boolean cancelled = false;
+            int interval = Math.max(1, context.getCheckpointInterval());
+            for (int start = 0; start < changedParts.size(); start += interval) {
+                if (context.isCancelled()) {
+                    cancelled = true;
+                    logger.info("Title {} sync stopped with {} parts left: ingestion cancelled", titleNumber, changedParts.size() - start);
+                    break;
+                }
+                List<String> group = changedParts.subList(start, Math.min(changedParts.size(), start + interval));
+                List<Regulation> downloadedRegulations = downloadParts(titleNumber, group, snapshot);
+                Map<String, Object> saved = saveDownloadedRegulations(titleNumber, downloadedRegulations);
+                totals.add(saved, downloadedRegulations.size());
+                context.onPartsCompleted(titleNumber, savedParts(saved), saved);
+            }
+            
+            result.putAll(totals.toMap());
+            result.put("cancelled", cancelled);
+            result.put("titleChanged", true);
+            result.put("structureAvailable", !snapshot.isEmpty());
+            result.put("partsInStructure", snapshot.size());
+            result.put("partsChanged", changedParts.size());
+            result.put("changedParts", changedParts);
+            
+            return result;
         }
-        
-        result.put("downloaded", downloadedRegulations.size());
-        result.put("created", created);
-        result.put("updated", updated);
-        result.put("errors", errors);
-        result.put("totalWordCount", savedRegulations.stream().mapToInt(r -> r.getWordCount() != null ? r.getWordCount() : 0).sum());
-        
-        return result;
     }
     
     /**
-     * Download ALL CFR titles (1-50) and save to database (all available parts)
-     * CRUD: Bulk CREATE + UPDATE operations across all titles
+     * Whether a title's upstream latest_amended_on is newer than the newest amendment stored for it.
+     * Titles the versioner does not list have nothing to sync. Without current title dates there is
+     * no telling, so that is an error rather than "unchanged".
      */
-    public Map<String, Object> downloadAllTitles() {
-        logger.info("Downloading ALL available parts for ALL CFR titles (1-50)");
-        return downloadAllTitles(Integer.MAX_VALUE); // Get all parts for all titles
+    boolean titleNeedsSync(Integer titleNumber, LocalDate storedLatestAmended, long storedCount) {
+        if (!dateResolver.hasCurrentDates()) {
+            throw new IllegalStateException("eCFR title dates could not be fetched, cannot tell whether Title "
+                    + titleNumber + " changed upstream");
+        }
+        EcfrDateResolver.TitleDate upstream = dateResolver.getCachedDates().get(titleNumber);
+        if (upstream == null) {
+            return false;
+        }
+        LocalDate upstreamLatestAmended = parseDate(upstream.getLatestAmendedOn());
+        if (storedCount == 0 || upstreamLatestAmended == null || storedLatestAmended == null) {
+            return true;
+        }
+        return upstreamLatestAmended.isAfter(storedLatestAmended);
     }
     
     /**
-     * Download ALL CFR titles (1-50) with sample size limit and save to database
-     * CRUD: Bulk CREATE + UPDATE operations across all titles
+     * CREATE or UPDATE downloaded regulations in bulk, skipping rows whose content and amendment dates are unchanged.
+     * "savedParts" lists the parts that were written or found unchanged, i.e. everything but the failures
+     * and the placeholders that left a stored part as it was.
      */
-    public Map<String, Object> downloadAllTitles(Integer sampleSize) {
-        logger.info("Starting download of ALL CFR titles (1-50) with max {} parts each", sampleSize);
+    private Map<String, Object> saveDownloadedRegulations(Integer titleNumber, List<Regulation> downloadedRegulations) {
+        RegulationBulkUpsertService.UpsertResult upsert = bulkUpsertService.upsert(downloadedRegulations);
+        logger.info("Saved Title {}: {}", titleNumber, upsert);
         
-        Map<String, Object> overallResult = new HashMap<>();
-        List<Map<String, Object>> titleResults = new ArrayList<>();
-        int totalCreated = 0, totalUpdated = 0, totalErrors = 0, totalDownloaded = 0;
-        long totalWordCount = 0;
-        long startTime = System.currentTimeMillis();
+        Map<String, Object> result = new HashMap<>();
+        result.put("created", upsert.getCreated());
+        result.put("updated", upsert.getUpdated());
+        result.put("errors", upsert.getErrors());
+        result.put("totalWordCount", (int) upsert.getTotalWordCount());
         
-        for (int titleNumber = 1; titleNumber <= 50; titleNumber++) {
-            try {
-                logger.info("Processing CFR Title {} - {} ({}/50)", titleNumber, getTitleName(titleNumber), titleNumber);
-                
-                // Use the existing downloadAndSaveTitle method with sampleSize
-                Map<String, Object> titleResult = downloadAndSaveTitle(titleNumber, sampleSize);
-                titleResult.put("titleNumber", titleNumber);
-                titleResult.put("titleName", getTitleName(titleNumber));
-                titleResult.put("agency", getAgencyForTitle(titleNumber));
-                
-                titleResults.add(titleResult);
-                
-                // Accumulate totals
-                totalCreated += (Integer) titleResult.get("created");
-                totalUpdated += (Integer) titleResult.get("updated");
-                totalErrors += (Integer) titleResult.get("errors");
-                totalDownloaded += (Integer) titleResult.get("downloaded");
-                totalWordCount += (Integer) titleResult.get("totalWordCount");
-                
-                logger.info("Title {} complete: Created {}, Updated {}, Errors {}", 
-                        titleNumber, titleResult.get("created"), titleResult.get("updated"), titleResult.get("errors"));
-                
-                // Be respectful to the API - wait between titles
-                Thread.sleep(2000);
-                
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.error("Bulk download interrupted at Title {}: {}", titleNumber, e.getMessage());
-                break;
-            } catch (Exception e) {
-                logger.error("Error processing Title {}: {}", titleNumber, e.getMessage());
-                totalErrors++;
+        List<String> savedParts = new ArrayList<>(downloadedRegulations.size());
+        for (Regulation regulation : downloadedRegulations) {
+            if (!upsert.getFailedParts().contains(regulation.getPartNumber())
+                    && !upsert.getKeptParts().contains(regulation.getPartNumber())) {
+                savedParts.add(regulation.getPartNumber());
             }
         }
+        result.put("savedParts", savedParts);
         
-        long endTime = System.currentTimeMillis();
-        long durationMinutes = (endTime - startTime) / 60000;
-        
-        overallResult.put("titleResults", titleResults);
-        overallResult.put("totalTitlesProcessed", titleResults.size());
-        overallResult.put("totalCreated", totalCreated);
-        overallResult.put("totalUpdated", totalUpdated);
-        overallResult.put("totalErrors", totalErrors);
-        overallResult.put("totalDownloaded", totalDownloaded);
-        overallResult.put("totalWordCount", totalWordCount);
-        overallResult.put("durationMinutes", durationMinutes);
-        
-        logger.info("Bulk download complete! Processed {} titles in {} minutes. Total: Created {}, Updated {}, Errors {}, Word Count: {}", 
-                titleResults.size(), durationMinutes, totalCreated, totalUpdated, totalErrors, totalWordCount);
-        
-        return overallResult;
+        return result;
+    }
+    
+    /**
+     * Parts a save result reports as saved; only these are checkpointed, so failed and
+     * undownloaded parts of a group are retried when the run is resumed
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> savedParts(Map<String, Object> saveResult) {
+        return (List<String>) saveResult.get("savedParts");
     }
     
     /**
@@ -189,44 +298,142 @@ public class EcfrApiService {
     public List<Regulation> downloadTitleFromAPI(Integer titleNumber, Integer maxParts) {
         logger.info("Downloading CFR Title {} from API only (no database save)", titleNumber);
         
-        try {
-            String latestDate = getLatestAvailableDate();
-            List<String> partNumbers = getPartNumbersForTitle(titleNumber, latestDate);
-            
-            List<Regulation> regulations = new ArrayList<>();
-            int processedCount = 0;
+        String latestDate = dateResolver.getDateForTitle(titleNumber);
+        
+        // Fetch and index the title structure ONCE for the whole run
+        try (TitleStructureSnapshot snapshot = fetchTitleStructure(titleNumber, latestDate)) {
+            List<String> partNumbers = getPartNumbersForTitle(snapshot);
             
-            for (String partNumber : partNumbers) {
-                if (processedCount >= maxParts) {
-                    logger.info("Reached maximum parts limit ({})", maxParts);
-                    break;
-                }
-                
-                try {
-                    Regulation regulation = downloadPartContentFromAPI(titleNumber, partNumber);
-                    if (regulation != null) {
-                        regulations.add(regulation);
-                        processedCount++;
-                    }
-                } catch (Exception e) {
-                    logger.error("Error downloading Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
-                }
-                
-                Thread.sleep(200); // Be respectful to API
+            if (partNumbers.size() > maxParts) {
+                logger.info("Reached maximum parts limit ({})", maxParts);
+                partNumbers = partNumbers.subList(0, maxParts);
             }
             
-            return regulations;
+            return downloadParts(titleNumber, partNumbers, snapshot);
             
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("Download interrupted for Title {}: {}", titleNumber, e.getMessage());
-            throw new RuntimeException("Download interrupted: " + e.getMessage());
         } catch (Exception e) {
             logger.error("Error downloading Title {} from API: {}", titleNumber, e.getMessage());
             throw new RuntimeException("Failed to download from API: " + e.getMessage());
         }
     }
     
+    /**
+     * Single streaming pass over the title's full-text XML: wanted parts are built from their
+     * real section text and saved in checkpoint-sized groups as the document is read, so only
+     * one group is ever held in memory. The document is read from disk once its download has
+     * finished, so database writes never hold the HTTP connection or count against the circuit.
+     * Returns the pending parts the XML did not provide (or all of them if it could not be
+     * fetched), for the per-part path to handle.
+     */
+    private List<String> saveFromFullText(Integer titleNumber, TitleStructureSnapshot snapshot, List<String> pendingParts,
+                                          IngestionContext context, TitleTotals totals) {
+        String fullTextUrl = ECFR_BASE_URL + "/versioner/v1/full/" + snapshot.getApiDate() + "/title-" + titleNumber + ".xml";
+        logger.info("Fetching Title {} full text from: {}", titleNumber, fullTextUrl);
+        
+        Set<String> remaining = new HashSet<>(pendingParts);
+        int interval = Math.max(1, context.getCheckpointInterval());
+        List<Regulation> group = new ArrayList<>();
+        
+        try (EcfrHttpClient.StoredBody stored = httpClient.fetch(fullTextUrl); InputStream body = stored.open()) {
+            String sourceUrl = payloadArchive.sourceUrlFor(fullTextUrl);
+            int parsed = fullTextParser.parseParts(body, remaining::contains, part -> {
+                if (remaining.remove(part.getPartNumber())) {
+                    group.add(buildFullTextRegulation(titleNumber, part, snapshot, sourceUrl));
+                    if (group.size() >= interval) {
+                        saveFullTextGroup(titleNumber, group, context, totals);
+                    }
+                }
+                return !remaining.isEmpty() && !context.isCancelled();
+            });
+            saveFullTextGroup(titleNumber, group, context, totals);
+            logger.info("Title {}: built {} parts from full-text XML, {} left for the per-part path",
+                    titleNumber, parsed, remaining.size());
+        } catch (Exception e) {
+            // Parts read but not saved yet go back to the per-part path
+            for (Regulation regulation : group) {
+                remaining.add(regulation.getPartNumber());
+            }
+            logger.warn("Could not ingest Title {} from full-text XML, using structure content: {}", titleNumber, e.getMessage());
+        }
+        
+        List<String> leftOver = new ArrayList<>();
+        for (String partNumber : pendingParts) {
+            if (remaining.contains(partNumber)) {
+                leftOver.add(partNumber);
+            }
+        }
+        return leftOver;
+    }
+    
+    private void saveFullTextGroup(Integer titleNumber, List<Regulation> group, IngestionContext context, TitleTotals totals) {
+        if (group.isEmpty()) {
+            return;
+        }
+        Map<String, Object> saved = saveDownloadedRegulations(titleNumber, group);
+        totals.add(saved, group.size());
+        context.onPartsCompleted(titleNumber, savedParts(saved), saved);
+        group.clear();
+    }
+    
+    /**
+     * Regulation from a part's full text, with dates and label from the structure snapshot when indexed there
+     */
+    private Regulation buildFullTextRegulation(Integer titleNumber, TitleFullTextParser.FullTextPart part,
+                                               TitleStructureSnapshot snapshot, String sourceUrl) {
+        String partNumber = part.getPartNumber();
+        TitleStructureSnapshot.StructurePart structurePart = snapshot.getPart(partNumber);
+        String content = part.getContent().isEmpty() ? "Content not available" : part.getContent();
+        
+        String title;
+        if (structurePart != null && !structurePart.getLabel().isEmpty()) {
+            title = structurePart.getLabel();
+        } else if (!part.getHeading().isEmpty()) {
+            title = part.getHeading();
+        } else {
+            title = "CFR Title " + titleNumber + " Part " + partNumber;
+        }
+        
+        Regulation regulation = new Regulation();
+        regulation.setCfrTitle(titleNumber);
+        regulation.setPartNumber(partNumber);
+        regulation.setTitle(title);
+        regulation.setContent(content);
+        regulation.setAgencyName(getAgencyForTitle(titleNumber));
+        regulation.setSourceUrl(sourceUrl);
+        applyStructureDates(regulation, structurePart);
+        return regulation;
+    }
+    
+    /**
+     * Build the given parts from the structure snapshot (search API fallback), in order
+     */
+    private List<Regulation> downloadParts(Integer titleNumber, List<String> partNumbers, TitleStructureSnapshot snapshot) {
+        Map<String, String> contents = fetchStructureContent(snapshot, partNumbers);
+        
+        // Parts run concurrently on the bounded part executor; politeness is
+        // enforced by the shared outbound throttle rather than sleeps
+        List<CompletableFuture<Regulation>> partDownloads = new ArrayList<>();
+        for (String partNumber : partNumbers) {
+            String content = contents.get(partNumber);
+            partDownloads.add(CompletableFuture.supplyAsync(
+                () -> downloadPartContentFromAPI(titleNumber, partNumber, snapshot, content), partExecutor));
+        }
+        
+        List<Regulation> regulations = new ArrayList<>();
+        for (int i = 0; i < partDownloads.size(); i++) {
+            try {
+                Regulation regulation = partDownloads.get(i).join();
+                if (regulation != null) {
+                    regulations.add(regulation);
+                }
+            } catch (Exception e) {
+                logger.error("Error downloading Title {} Part {}: {}", titleNumber, partNumbers.get(i), e.getMessage());
+            }
+        }
+        
+        return regulations;
+    }
+    
     /**
      * Download and save SPECIFIC parts only
      * CRUD: Selective CREATE/UPDATE
@@ -234,49 +441,29 @@ public class EcfrApiService {
     public Map<String, Object> downloadAndSaveSpecificParts(Integer titleNumber, List<String> partNumbers) {
         logger.info("Downloading and saving specific parts {} for Title {}", partNumbers, titleNumber);
         
-        Map<String, Object> result = new HashMap<>();
-        int created = 0, updated = 0, errors = 0;
-        List<Regulation> savedRegulations = new ArrayList<>();
+        int errors = 0;
+        List<Regulation> downloadedRegulations = new ArrayList<>();
+        TitleStructureSnapshot snapshot = fetchTitleStructure(titleNumber, dateResolver.getDateForTitle(titleNumber));
+        Map<String, String> contents;
+        try (snapshot) {
+            // One pass reads all the text needed; the stored document can go after that
+            contents = fetchStructureContent(snapshot, partNumbers);
+        }
         
         for (String partNumber : partNumbers) {
             try {
-                Regulation regulation = downloadPartContentFromAPI(titleNumber, partNumber);
+                Regulation regulation = downloadPartContentFromAPI(titleNumber, partNumber, snapshot, contents.get(partNumber));
                 if (regulation != null) {
-                    Optional<Regulation> existing = regulationRepository
-                            .findByCfrTitleAndPartNumber(titleNumber, partNumber);
-                    
-                    if (existing.isPresent()) {
-                        // UPDATE
-                        Regulation existingReg = existing.get();
-                        existingReg.setTitle(regulation.getTitle());
-                        existingReg.setContent(regulation.getContent());
-                        existingReg.setAgencyName(regulation.getAgencyName());
-                        existingReg.setWordCount(regulation.getWordCount());
-                        existingReg.setContentChecksum(regulation.getContentChecksum());
-                        
-                        savedRegulations.add(regulationRepository.save(existingReg)); // DATABASE HIT
-                        updated++;
-                    } else {
-                        // CREATE
-                        savedRegulations.add(regulationRepository.save(regulation)); // DATABASE HIT
-                        created++;
-                    }
+                    downloadedRegulations.add(regulation);
                 }
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.error("Download interrupted for Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
-                break;
             } catch (Exception e) {
                 logger.error("Error with Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
                 errors++;
             }
         }
         
-        result.put("created", created);
-        result.put("updated", updated);
-        result.put("errors", errors);
-        result.put("totalWordCount", savedRegulations.stream().mapToInt(r -> r.getWordCount() != null ? r.getWordCount() : 0).sum());
+        Map<String, Object> result = saveDownloadedRegulations(titleNumber, downloadedRegulations);
+        result.put("errors", (Integer) result.get("errors") + errors);
         
         return result;
     }
@@ -292,6 +479,12 @@ public class EcfrApiService {
         List<String> changedParts = new ArrayList<>();
         List<String> newParts = new ArrayList<>();
         List<String> unchangedParts = new ArrayList<>();
+        TitleStructureSnapshot snapshot = fetchTitleStructure(titleNumber, dateResolver.getDateForTitle(titleNumber));
+        Map<String, String> contents;
+        try (snapshot) {
+            // One pass reads all the text needed; the stored document can go after that
+            contents = fetchStructureContent(snapshot, partNumbers);
+        }
         
         for (String partNumber : partNumbers) {
             try {
@@ -299,9 +492,11 @@ public class EcfrApiService {
                 Optional<Regulation> existingReg = regulationRepository.findByCfrTitleAndPartNumber(titleNumber, partNumber);
                 
                 // Download current version from API
-                Regulation apiRegulation = downloadPartContentFromAPI(titleNumber, partNumber);
+                Regulation apiRegulation = downloadPartContentFromAPI(titleNumber, partNumber, snapshot, contents.get(partNumber));
                 
-                if (existingReg.isPresent() && apiRegulation != null) {
+                if (apiRegulation != null && apiRegulation.isPlaceholder()) {
+                    logger.warn("Could not download Title {} Part {}, not compared", titleNumber, partNumber);
+                } else if (existingReg.isPresent() && apiRegulation != null) {
                     if (!existingReg.get().getContentChecksum().equals(apiRegulation.getContentChecksum())) {
                         changedParts.add(partNumber);
                         logger.info("CHANGE DETECTED in Title {} Part {}", titleNumber, partNumber);
@@ -312,12 +507,6 @@ public class EcfrApiService {
                     newParts.add(partNumber);
                     logger.info("NEW PART detected: Title {} Part {}", titleNumber, partNumber);
                 }
-                
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.error("Change check interrupted for Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
-                break;
             } catch (Exception e) {
                 logger.error("Error checking Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
             }
@@ -346,6 +535,8 @@ public class EcfrApiService {
                 Optional<Regulation> existing = regulationRepository.findByCfrTitleAndPartNumber(titleNumber, partNumber);
                 if (existing.isPresent()) {
                     regulationRepository.delete(existing.get()); // DATABASE HIT - DELETE
+                    eventPublisher.publishEvent(new RegulationChangeEvent(
+                        List.of(RegulationChangeEvent.Change.deleted(existing.get()))));
                     deleted++;
                     logger.info("DELETED Title {} Part {} from database", titleNumber, partNumber);
                 } else {
@@ -365,36 +556,11 @@ public class EcfrApiService {
     
     /**
      * Get recent changes/amendments from eCFR API for a specific title
-     * This uses the corrections/amendments endpoint to track changes over time
+     * Served from the corrections index, which downloads the feed once per TTL
      */
     public List<Map<String, Object>> getRecentChangesFromECFR(Integer titleNumber) {
         try {
-            String changesUrl = ECFR_BASE_URL + "/admin/v1/corrections.json";
-            logger.info("Checking recent changes from eCFR API: {}", changesUrl);
-            
-            String changesResponse = restTemplate.getForObject(changesUrl, String.class);
-            JsonNode changesJson = objectMapper.readTree(changesResponse);
-            
-            List<Map<String, Object>> recentChanges = new ArrayList<>();
-            JsonNode correctionsNode = changesJson.get("corrections");
-            
-            if (correctionsNode != null && correctionsNode.isArray()) {
-                for (JsonNode correction : correctionsNode) {
-                    int correctionTitle = correction.path("title").asInt(-1);
-                    if (correctionTitle == titleNumber) {
-                        Map<String, Object> change = new HashMap<>();
-                        change.put("title", correctionTitle);
-                        change.put("part", correction.path("part").asText());
-                        change.put("correctionDate", correction.path("correction_date").asText());
-                        change.put("effectiveDate", correction.path("effective_date").asText());
-                        change.put("description", correction.path("description").asText());
-                        change.put("amendmentType", correction.path("amendment_type").asText());
-                        change.put("documentNumber", correction.path("document_number").asText());
-                        recentChanges.add(change);
-                    }
-                }
-            }
-            
+            List<Map<String, Object>> recentChanges = correctionsIndex.getChangesForTitle(titleNumber);
             logger.info("Found {} recent changes for Title {}", recentChanges.size(), titleNumber);
             return recentChanges;
             
@@ -413,30 +579,28 @@ public class EcfrApiService {
         int totalChanges = 0;
         
         try {
-            for (int titleNumber = 1; titleNumber <= 50; titleNumber++) {
-                List<Map<String, Object>> titleChanges = getRecentChangesFromECFR(titleNumber);
-                if (!titleChanges.isEmpty()) {
-                    Map<String, Object> titleSummary = new HashMap<>();
-                    titleSummary.put("titleNumber", titleNumber);
-                    titleSummary.put("titleName", getTitleName(titleNumber));
-                    titleSummary.put("changesCount", titleChanges.size());
-                    titleSummary.put("changes", titleChanges);
-                    allChanges.add(titleSummary);
-                    totalChanges += titleChanges.size();
+            // One pass over the indexed feed instead of one feed download per title
+            for (Map.Entry<Integer, List<Map<String, Object>>> entry : correctionsIndex.getChangesByTitle().entrySet()) {
+                Integer titleNumber = entry.getKey();
+                if (titleNumber < 1 || titleNumber > 50) {
+                    continue;
                 }
-                
-                // Be respectful to API
-                Thread.sleep(500);
+                List<Map<String, Object>> titleChanges = entry.getValue();
+                Map<String, Object> titleSummary = new HashMap<>();
+                titleSummary.put("titleNumber", titleNumber);
+                titleSummary.put("titleName", getTitleName(titleNumber));
+                titleSummary.put("changesCount", titleChanges.size());
+                titleSummary.put("changes", titleChanges);
+                allChanges.add(titleSummary);
+                totalChanges += titleChanges.size();
             }
             
             summary.put("totalChanges", totalChanges);
             summary.put("titlesWithChanges", allChanges.size());
             summary.put("titleChanges", allChanges);
             summary.put("checkedAt", LocalDateTime.now());
+            summary.put("correctionsIndex", correctionsIndex.getFreshness());
             
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("Changes summary interrupted: {}", e.getMessage());
         } catch (Exception e) {
             logger.error("Error getting overall changes summary: {}", e.getMessage());
         }
@@ -463,63 +627,94 @@ public class EcfrApiService {
     // ================================
     
     /**
-     * Get the most recent available date for eCFR API calls
+     * Fetch the versioner structure for a title ONCE and index its parts by part number.
+     * Every part of the title is then built from this snapshot instead of re-downloading
+     * the (multi-megabyte) structure document per part.
      */
-    private String getLatestAvailableDate() {
+    TitleStructureSnapshot fetchTitleStructure(Integer titleNumber, String apiDate) {
+        String structureUrl = structureUrl(titleNumber, apiDate);
+        logger.info("Fetching Title {} structure from: {}", titleNumber, structureUrl);
+        
+        EcfrHttpClient.StoredBody stored = null;
         try {
-            String titlesUrl = ECFR_BASE_URL + "/versioner/v1/titles";
-            String titlesResponse = restTemplate.getForObject(titlesUrl, String.class);
-            if (titlesResponse != null) {
-                JsonNode titlesJson = objectMapper.readTree(titlesResponse);
-                JsonNode titlesArray = titlesJson.get("titles");
-                if (titlesArray != null && titlesArray.isArray() && titlesArray.size() > 0) {
-                    // Get the up_to_date_as_of from the first title (should be consistent across all titles)
-                    String upToDateAsOf = titlesArray.get(0).path("up_to_date_as_of").asText("");
-                    if (!upToDateAsOf.isEmpty()) {
-                        logger.debug("Using latest available date: {}", upToDateAsOf);
-                        return upToDateAsOf;
-                    }
-                }
+            // The document is kept on disk for the run: parts are indexed now, their text is read per group later
+            stored = httpClient.fetch(structureUrl);
+            // The payload is archived once stored, so its hash is known here
+            TitleStructureSnapshot snapshot = new TitleStructureSnapshot(titleNumber, apiDate,
+                    payloadArchive.sourceUrlFor(structureUrl));
+            try (InputStream body = stored.open()) {
+                structureParser.parseParts(body, snapshot::addPart);
             }
+            snapshot.attachDocument(stored);
+            logger.info("Indexed {} parts from Title {} structure", snapshot.size(), titleNumber);
+            return snapshot;
         } catch (Exception e) {
-            logger.warn("Could not get latest available date, falling back to current date: {}", e.getMessage());
+            if (stored != null) {
+                stored.close();
+            }
+            logger.warn("Could not fetch structure for Title {} from API: {}", titleNumber, e.getMessage());
         }
         
-        // Fallback to current date
-        return LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        return TitleStructureSnapshot.empty(titleNumber, apiDate, structureUrl);
     }
-
+    
+    /**
+     * Structure text of the given parts, read in one streaming pass over the copy of the title's
+     * structure document the snapshot stored when it was fetched; nothing is downloaded again.
+     * Only these parts' text is held, so callers ask for one checkpoint group at a time.
+     * Parts missing from the result fall back to the search API.
+     */
+    private Map<String, String> fetchStructureContent(TitleStructureSnapshot snapshot, List<String> partNumbers) {
+        Map<String, String> contents = new HashMap<>();
+        Set<String> wanted = new HashSet<>();
+        for (String partNumber : partNumbers) {
+            if (snapshot.getPart(partNumber) != null) {
+                wanted.add(partNumber);
+            }
+        }
+        if (wanted.isEmpty()) {
+            return contents;
+        }
+        
+        try (InputStream body = snapshot.openDocument()) {
+            if (body != null) {
+                structureParser.parseContent(body, wanted::contains, contents::putIfAbsent);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read structure text for Title {}: {}", snapshot.getTitleNumber(), e.getMessage());
+        }
+        return contents;
+    }
+    
+    private static String structureUrl(Integer titleNumber, String apiDate) {
+        return ECFR_BASE_URL + "/versioner/v1/structure/" + apiDate + "/title-" + titleNumber + ".json";
+    }
+    
     /**
-     * Download single part content from API (no database save)
-     * Now uses versioner API for better content retrieval
+     * Download single part content (no database save), using the title's structure snapshot and
+     * the part's structure text, falling back to the search API when the structure has no text for it.
+     * Only structure-built parts carry the structure's amendment dates; search results and placeholders
+     * stay dateless, so the next incremental sync fetches them again.
      */
-    private Regulation downloadPartContentFromAPI(Integer titleNumber, String partNumber) {
+    private Regulation downloadPartContentFromAPI(Integer titleNumber, String partNumber, TitleStructureSnapshot snapshot,
+                                                  String structureContent) {
         try {
-            String latestDate = getLatestAvailableDate();
-            
-            // First try the versioner API for better content
-            String versionerUrl = ECFR_BASE_URL + "/versioner/v1/structure/" + latestDate + "/title-" + titleNumber + ".json";
-            logger.debug("Trying versioner API: {}", versionerUrl);
-            
-            try {
-                String versionerResponse = restTemplate.getForObject(versionerUrl, String.class);
-                if (versionerResponse != null) {
-                    JsonNode versionerJson = objectMapper.readTree(versionerResponse);
-                    Regulation regulation = extractFromVersionerAPI(versionerJson, titleNumber, partNumber, latestDate);
-                    if (regulation != null) {
-                        logger.info("Successfully retrieved content from versioner API for Title {} Part {}", titleNumber, partNumber);
-                        return regulation;
-                    }
+            // First try the versioner structure for better content
+            TitleStructureSnapshot.StructurePart part = snapshot.getPart(partNumber);
+            if (part != null && structureContent != null) {
+                Regulation regulation = extractFromVersionerAPI(part, structureContent, titleNumber, snapshot);
+                if (regulation != null) {
+                    applyStructureDates(regulation, part);
+                    logger.debug("Built Title {} Part {} from versioner structure snapshot", titleNumber, partNumber);
+                    return regulation;
                 }
-            } catch (Exception e) {
-                logger.debug("Versioner API failed for Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
             }
             
             // Fallback to search API
             String searchUrl = ECFR_BASE_URL + "/search/v1/results?query=title:" + titleNumber + " part:" + partNumber + "&per_page=5";
             logger.debug("Fallback to search API: {}", searchUrl);
             
-            String searchResponse = restTemplate.getForObject(searchUrl, String.class);
+            String searchResponse = httpClient.getForString(searchUrl);
             if (searchResponse != null) {
                 JsonNode searchJson = objectMapper.readTree(searchResponse);
                 JsonNode resultsNode = searchJson.get("results");
@@ -530,8 +725,6 @@ public class EcfrApiService {
                     String title = extractSearchTitle(firstResult, partNumber);
                     String content = extractSearchContent(firstResult);
                     String agencyName = getAgencyForTitle(titleNumber);
-                    String checksum = generateChecksum(content);
-                    Integer wordCount = calculateWordCount(content);
                     
                     Regulation regulation = new Regulation();
                     regulation.setCfrTitle(titleNumber);
@@ -539,9 +732,7 @@ public class EcfrApiService {
                     regulation.setTitle(title);
                     regulation.setContent(content);
                     regulation.setAgencyName(agencyName);
-                    regulation.setWordCount(wordCount);
-                    regulation.setContentChecksum(checksum);
-                    regulation.setSourceUrl(searchUrl);
+                    regulation.setSourceUrl(payloadArchive.sourceUrlFor(searchUrl));
                     
                     return regulation;
                 }
@@ -549,6 +740,10 @@ public class EcfrApiService {
             
             return createBasicRegulation(titleNumber, partNumber);
             
+        } catch (EcfrCircuitBreaker.OpenException e) {
+            // Search is known to be down; go straight to the placeholder
+            logger.debug("Placeholder for Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
+            return createBasicRegulation(titleNumber, partNumber);
         } catch (Exception e) {
             logger.error("Error downloading Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
             return createBasicRegulation(titleNumber, partNumber);
@@ -556,69 +751,27 @@ public class EcfrApiService {
     }
     
     /**
-     * Extract regulation from versioner API response for better content
+     * Build a regulation from an indexed versioner structure part
      */
-    private Regulation extractFromVersionerAPI(JsonNode versionerJson, Integer titleNumber, String partNumber, String apiDate) {
+    private Regulation extractFromVersionerAPI(TitleStructureSnapshot.StructurePart part, String content,
+                                               Integer titleNumber, TitleStructureSnapshot snapshot) {
+        String partNumber = part.getPartNumber();
+        
+        if (content.isEmpty() || content.equals("Content not available")) {
+            return null;
+        }
+        
         try {
-            // Navigate the versioner JSON structure to find the specific part
-            JsonNode titleNode = versionerJson.get("title");
-            if (titleNode != null) {
-                // Look for the specific part in the structure
-                JsonNode chaptersNode = titleNode.get("children");
-                if (chaptersNode != null && chaptersNode.isArray()) {
-                    for (JsonNode chapter : chaptersNode) {
-                        JsonNode partsNode = chapter.get("children");
-                        if (partsNode != null && partsNode.isArray()) {
-                            for (JsonNode part : partsNode) {
-                                // Check if this is the part we're looking for
-                                String partId = part.path("identifier").asText("");
-                                if (partId.contains("CFR " + partNumber) || partId.endsWith(" " + partNumber)) {
-                                    
-                                    String title = part.path("label").asText("CFR Title " + titleNumber + " Part " + partNumber);
-                                    String content = extractContentFromVersionerPart(part);
-                                    
-                                    // Look for amendment information
-                                    String lastAmended = part.path("last_amended").asText("");
-                                    String lastIssued = part.path("last_issued").asText("");
-                                    String lastUpdated = part.path("last_updated").asText("");
-                                    
-                                    if (!content.isEmpty() && !content.equals("Content not available")) {
-                                        Regulation regulation = new Regulation();
-                                        regulation.setCfrTitle(titleNumber);
-                                        regulation.setPartNumber(partNumber);
-                                        regulation.setTitle(title);
-                                        regulation.setContent(content);
-                                        regulation.setAgencyName(getAgencyForTitle(titleNumber));
-                                        regulation.setWordCount(calculateWordCount(content));
-                                        regulation.setContentChecksum(generateChecksum(content));
-                                        
-                                        // Set government amendment dates
-                                        try {
-                                            if (!lastAmended.isEmpty()) {
-                                                regulation.setLatestAmendedOn(LocalDate.parse(lastAmended));
-                                            }
-                                            if (!lastIssued.isEmpty()) {
-                                                regulation.setLatestIssueDate(LocalDate.parse(lastIssued));
-                                            }
-                                            if (!lastUpdated.isEmpty()) {
-                                                regulation.setLastUpdatedOn(LocalDate.parse(lastUpdated));
-                                            }
-                                        } catch (Exception dateParseException) {
-                                            logger.warn("Error parsing dates for Title {} Part {}: {}", titleNumber, partNumber, dateParseException.getMessage());
-                                        }
-                                        
-                                        regulation.setSourceUrl(ECFR_BASE_URL + "/versioner/v1/structure/" + 
-                                            apiDate + "/title-" + titleNumber + ".json");
-                                        
-                                        logger.debug("Extracted content from versioner API: {} words", regulation.getWordCount());
-                                        return regulation;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            Regulation regulation = new Regulation();
+            regulation.setCfrTitle(titleNumber);
+            regulation.setPartNumber(partNumber);
+            regulation.setTitle(part.getLabel().isEmpty() ? "CFR Title " + titleNumber + " Part " + partNumber : part.getLabel());
+            regulation.setContent(content);
+            regulation.setAgencyName(getAgencyForTitle(titleNumber));
+            regulation.setSourceUrl(snapshot.getSourceUrl());
+            
+            logger.debug("Extracted content from versioner API: {} words", regulation.getWordCount());
+            return regulation;
         } catch (Exception e) {
             logger.warn("Error extracting from versioner API for Title {} Part {}: {}", titleNumber, partNumber, e.getMessage());
         }
@@ -626,85 +779,36 @@ public class EcfrApiService {
     }
     
     /**
-     * Extract content text from a versioner API part node
+     * Set a part's government amendment dates from its structure entry, if it has one
      */
-    private String extractContentFromVersionerPart(JsonNode partNode) {
-        StringBuilder content = new StringBuilder();
-        
-        try {
-            // Try different fields that might contain content
-            String text = partNode.path("text").asText("");
-            if (!text.isEmpty()) {
-                content.append(text);
-            }
-            
-            String fullText = partNode.path("full_text").asText("");
-            if (!fullText.isEmpty()) {
-                if (content.length() > 0) content.append(" ");
-                content.append(fullText);
-            }
-            
-            String description = partNode.path("description").asText("");
-            if (!description.isEmpty()) {
-                if (content.length() > 0) content.append(" ");
-                content.append(description);
-            }
-            
-            // Try to extract from children nodes
-            JsonNode childrenNode = partNode.get("children");
-            if (childrenNode != null && childrenNode.isArray()) {
-                for (JsonNode child : childrenNode) {
-                    String childText = child.path("text").asText("");
-                    if (!childText.isEmpty()) {
-                        if (content.length() > 0) content.append(" ");
-                        content.append(childText);
-                    }
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.warn("Error extracting content from versioner part: {}", e.getMessage());
+    private static void applyStructureDates(Regulation regulation, TitleStructureSnapshot.StructurePart part) {
+        if (regulation == null || part == null) {
+            return;
         }
-        
-        String result = content.toString().trim();
-        return result.isEmpty() ? "Content not available" : result;
+        regulation.setLatestAmendedOn(parseDate(part.getLastAmended()));
+        regulation.setLatestIssueDate(parseDate(part.getLastIssued()));
+        regulation.setLastUpdatedOn(parseDate(part.getLastUpdated()));
     }
     
-    /**
-     * Generate SHA-256 checksum for change detection
-     */
-    private String generateChecksum(String content) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(content.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            return "checksum-error-" + System.currentTimeMillis();
-        }
+    private static boolean isNewer(LocalDate upstream, LocalDate stored) {
+        return upstream != null && (stored == null || upstream.isAfter(stored));
     }
     
-    /**
-     * Calculate word count
-     */
-    private Integer calculateWordCount(String content) {
-        if (content == null || content.trim().isEmpty()) {
-            return 0;
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (Exception e) {
+            return null;
         }
-        return content.trim().split("\\s+").length;
     }
     
     /**
      * Get agency name for CFR title (all 50 titles mapped)
      */
-    private String getAgencyForTitle(Integer titleNumber) {
+    String getAgencyForTitle(Integer titleNumber) {
         return switch (titleNumber) {
             case 1 -> "General Services Administration";
             case 2 -> "Office of Management and Budget";
@@ -761,24 +865,11 @@ public class EcfrApiService {
     }
     
     /**
-     * Get part numbers for any CFR title using the correct date
+     * Get part numbers for any CFR title from its structure snapshot
      */
-    private List<String> getPartNumbersForTitle(Integer titleNumber, String apiDate) {
-        List<String> partNumbers = new ArrayList<>();
-        
-        try {
-            // Try structure API first
-            String structureUrl = ECFR_BASE_URL + "/versioner/v1/structure/" + apiDate + "/title-" + titleNumber + ".json";
-            logger.info("Fetching Title {} structure from: {}", titleNumber, structureUrl);
-            
-            String structureResponse = restTemplate.getForObject(structureUrl, String.class);
-            if (structureResponse != null) {
-                JsonNode structureJson = objectMapper.readTree(structureResponse);
-                partNumbers = extractPartNumbersFromStructure(structureJson);
-            }
-        } catch (Exception e) {
-            logger.warn("Could not fetch structure for Title {} from API: {}", titleNumber, e.getMessage());
-        }
+    private List<String> getPartNumbersForTitle(TitleStructureSnapshot snapshot) {
+        Integer titleNumber = snapshot.getTitleNumber();
+        List<String> partNumbers = snapshot.getPartNumbers();
         
         // If structure API failed, use search API
         if (partNumbers.isEmpty()) {
@@ -808,7 +899,7 @@ public class EcfrApiService {
             String searchUrl = ECFR_BASE_URL + "/search/v1/results?query=title:" + titleNumber + "&per_page=50";
             logger.info("Searching for Title {} parts: {}", titleNumber, searchUrl);
             
-            String searchResponse = restTemplate.getForObject(searchUrl, String.class);
+            String searchResponse = httpClient.getForString(searchUrl);
             if (searchResponse != null) {
                 JsonNode searchJson = objectMapper.readTree(searchResponse);
                 JsonNode resultsNode = searchJson.get("results");
@@ -847,54 +938,17 @@ public class EcfrApiService {
     
     
     /**
-     * Extract part numbers from structure JSON
-     */
-    private List<String> extractPartNumbersFromStructure(JsonNode structureJson) {
-        List<String> partNumbers = new ArrayList<>();
-        
-        try {
-            // Navigate through the JSON structure to find parts
-            JsonNode titleNode = structureJson.get("title");
-            if (titleNode != null) {
-                JsonNode chaptersNode = titleNode.get("children");
-                if (chaptersNode != null && chaptersNode.isArray()) {
-                    for (JsonNode chapter : chaptersNode) {
-                        JsonNode partsNode = chapter.get("children");
-                        if (partsNode != null && partsNode.isArray()) {
-                            for (JsonNode part : partsNode) {
-                                JsonNode identifierNode = part.get("identifier");
-                                if (identifierNode != null) {
-                                    String identifier = identifierNode.asText();
-                                    // Extract part number from identifier like "7 CFR 1"
-                                    String[] parts = identifier.split(" ");
-                                    if (parts.length >= 3) {
-                                        partNumbers.add(parts[2]); // The part number
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.warn("Error parsing structure JSON: {}", e.getMessage());
-        }
-        
-        return partNumbers;
-    }
-    
-    /**
-     * Create a basic regulation entry when API data is not available
+     * Create a basic regulation entry when API data is not available.
+     * It is marked as a placeholder, so it never replaces a part that is already stored.
      */
     private Regulation createBasicRegulation(Integer titleNumber, String partNumber) {
         Regulation regulation = new Regulation();
+        regulation.setPlaceholder(true);
         regulation.setCfrTitle(titleNumber);
         regulation.setPartNumber(partNumber);
         regulation.setTitle("CFR Title " + titleNumber + " Part " + partNumber);
         regulation.setContent("Content retrieval from eCFR API was not successful. This is a placeholder entry.");
         regulation.setAgencyName(getAgencyForTitle(titleNumber));
-        regulation.setWordCount(calculateWordCount(regulation.getContent()));
-        regulation.setContentChecksum(generateChecksum(regulation.getContent()));
         return regulation;
     }
     
@@ -957,7 +1011,7 @@ public class EcfrApiService {
     /**
      * Get human-readable title names for all 50 CFR titles
      */
-    private String getTitleName(Integer titleNumber) {
+    String getTitleName(Integer titleNumber) {
         return switch (titleNumber) {
             case 1 -> "General Provisions";
             case 2 -> "Federal Financial Assistance";
@@ -1012,4 +1066,29 @@ public class EcfrApiService {
             default -> "Unknown Title " + titleNumber;
         };
     }
-}
\ No newline at end of file
+    
+    /**
+     * Running per-title counts; groups may be saved from more than one thread
+     */
+    private static class TitleTotals {
+        private int created, updated, errors, downloaded, totalWordCount;
+        
+        synchronized void add(Map<String, Object> saved, int downloadedCount) {
+            created += (Integer) saved.get("created");
+            updated += (Integer) saved.get("updated");
+            errors += (Integer) saved.get("errors");
+            totalWordCount += (Integer) saved.get("totalWordCount");
+            downloaded += downloadedCount;
+        }
+        
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("downloaded", downloaded);
+            result.put("created", created);
+            result.put("updated", updated);
+            result.put("errors", errors);
+            result.put("totalWordCount", totalWordCount);
+            return result;
+        }
+    }
+}
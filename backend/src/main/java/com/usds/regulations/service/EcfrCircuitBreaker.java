@@ -0,0 +1,173 @@
+package com.usds.regulations.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Failure-rate circuit breaker for one eCFR endpoint family (versioner, search, admin).
+ * Outcomes of the last windowSize calls are kept in a ring; once at least minimumCalls
+ * are recorded and the failure rate reaches the threshold the circuit opens and calls
+ * are rejected immediately. After openMillis a few trial calls are let through
+ * (half-open): if they all succeed the circuit closes, any failure re-opens it.
+ */
+public class EcfrCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenTrialCalls;
+    private final LongSupplier clock;
+
+    // Ring of recent outcomes, true = failure
+    private final boolean[] outcomes;
+    private int nextSlot;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+    private int trialsInFlight;
+    private int trialSuccesses;
+
+    private long timesOpened;
+    private long rejectedCalls;
+
+    public EcfrCircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                              long openMillis, int halfOpenTrialCalls) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openMillis, halfOpenTrialCalls, System::currentTimeMillis);
+    }
+
+    EcfrCircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                       long openMillis, int halfOpenTrialCalls, LongSupplier clock) {
+        this.name = name;
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenTrialCalls = Math.max(1, halfOpenTrialCalls);
+        this.clock = clock;
+    }
+
+    /**
+     * Whether a call may go out now; every permitted call must end in onSuccess, onFailure or release
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAtMillis < openMillis) {
+                rejectedCalls++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsInFlight = 0;
+            trialSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsInFlight >= halfOpenTrialCalls) {
+                rejectedCalls++;
+                return false;
+            }
+            trialsInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialSuccesses >= halfOpenTrialCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100.0 / recorded >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Give back a permitted call whose outcome says nothing about the endpoint's health
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && trialsInFlight > 0) {
+            trialsInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        // Report an expired open circuit as half-open even before the next call arrives
+        if (state == State.OPEN && clock.getAsLong() - openedAtMillis >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Breaker state for monitoring
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("state", getState());
+        metrics.put("failureRatePercent", recorded > 0 ? failures * 100.0 / recorded : 0.0);
+        metrics.put("callsInWindow", recorded);
+        metrics.put("failuresInWindow", failures);
+        metrics.put("timesOpened", timesOpened);
+        metrics.put("rejectedCalls", rejectedCalls);
+        if (state == State.OPEN) {
+            metrics.put("retryAfterMillis", Math.max(0, openMillis - (clock.getAsLong() - openedAtMillis)));
+        }
+        return metrics;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[nextSlot]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[nextSlot] = failure;
+        if (failure) {
+            failures++;
+        }
+        nextSlot = (nextSlot + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtMillis = clock.getAsLong();
+        timesOpened++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        nextSlot = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    /**
+     * Thrown instead of calling an endpoint whose circuit is open
+     */
+    public static class OpenException extends RuntimeException {
+        public OpenException(String breakerName) {
+            super("eCFR " + breakerName + " circuit is open");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.usds.regulations.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * In-memory index of the eCFR corrections feed (/admin/v1/corrections.json),
+ * grouped by title. The feed is downloaded once per TTL and shared by
+ * the single-title and all-title change endpoints; concurrent refreshes share
+ * a single in-flight fetch, the same way {@link EcfrDateResolver} does.
+ */
+@Service
+public class EcfrCorrectionsIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EcfrCorrectionsIndex.class);
+    private static final String CORRECTIONS_URL = EcfrApiService.ECFR_BASE_URL + "/admin/v1/corrections.json";
+
+    @Autowired
+    private EcfrHttpClient httpClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${ecfr.api.corrections.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    // How long a failed fetch is remembered before the next attempt
+    @Value("${ecfr.api.corrections.failure-retry-seconds:60}")
+    private long failureRetrySeconds;
+
+    private volatile Corrections current;
+    private final AtomicReference<CompletableFuture<Corrections>> inFlight = new AtomicReference<>();
+
+    /**
+     * Corrections for one title, in feed order
+     */
+    public List<Map<String, Object>> getChangesForTitle(Integer titleNumber) {
+        List<Map<String, Object>> changes = resolve().byTitle.get(titleNumber);
+        return changes != null ? new ArrayList<>(changes) : new ArrayList<>();
+    }
+
+    /**
+     * Corrections for every title that has any, ordered by title number
+     */
+    public Map<Integer, List<Map<String, Object>>> getChangesByTitle() {
+        return resolve().byTitle;
+    }
+
+    /**
+     * Freshness summary for the controllers
+     */
+    public Map<String, Object> getFreshness() {
+        Corrections corrections = current;
+        Map<String, Object> freshness = new HashMap<>();
+        freshness.put("lastRefreshedAt", corrections != null ? corrections.fetchedAt : null);
+        freshness.put("refreshFailed", corrections != null && corrections.failed);
+        freshness.put("totalCorrections", corrections != null ? corrections.total : 0);
+        freshness.put("titlesWithCorrections", corrections != null ? corrections.byTitle.size() : 0);
+        freshness.put("ttlMinutes", ttlMinutes);
+        return freshness;
+    }
+
+    private Corrections resolve() {
+        Corrections corrections = current;
+        if (corrections != null && !corrections.isExpired(ttlMinutes * 60, failureRetrySeconds)) {
+            return corrections;
+        }
+        return fetchShared();
+    }
+
+    /**
+     * Run one fetch; callers arriving while it is in flight wait for its result
+     */
+    private Corrections fetchShared() {
+        CompletableFuture<Corrections> mine = new CompletableFuture<>();
+        CompletableFuture<Corrections> existing = inFlight.compareAndExchange(null, mine);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        try {
+            Corrections fetched = fetchCorrections();
+            current = fetched;
+            mine.complete(fetched);
+            return fetched;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private Corrections fetchCorrections() {
+        try {
+            logger.info("Refreshing eCFR corrections index from: {}", CORRECTIONS_URL);
+            Corrections corrections = httpClient.getForStream(CORRECTIONS_URL, this::parseCorrections);
+            logger.info("Indexed {} eCFR corrections across {} titles", corrections.total, corrections.byTitle.size());
+            return corrections;
+        } catch (Exception e) {
+            logger.warn("Could not refresh eCFR corrections: {}", e.getMessage());
+        }
+
+        // Keep serving the last good index however many refreshes fail, but retry sooner
+        Corrections previous = current;
+        if (previous != null) {
+            return previous.failedRefresh();
+        }
+        return new Corrections(Collections.emptyMap(), 0, true, null);
+    }
+
+    /**
+     * Stream the feed, materializing one correction at a time
+     */
+    private Corrections parseCorrections(InputStream body) throws IOException {
+        Map<Integer, List<Map<String, Object>>> byTitle = new TreeMap<>();
+        int total = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Corrections feed is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!"corrections".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode correction = objectMapper.readTree(parser);
+                    int title = correction.path("title").asInt(-1);
+                    if (title < 0) {
+                        continue;
+                    }
+                    Map<String, Object> change = toChange(title, correction);
+                    byTitle.computeIfAbsent(title, t -> new ArrayList<>()).add(change);
+                    total++;
+                }
+            }
+        }
+
+        return new Corrections(Collections.unmodifiableMap(byTitle), total, false, LocalDateTime.now());
+    }
+
+    private static Map<String, Object> toChange(int title, JsonNode correction) {
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("title", title);
+        change.put("part", correction.path("part").asText());
+        change.put("correctionDate", correction.path("correction_date").asText());
+        change.put("effectiveDate", correction.path("effective_date").asText());
+        change.put("description", correction.path("description").asText());
+        change.put("amendmentType", correction.path("amendment_type").asText());
+        change.put("documentNumber", correction.path("document_number").asText());
+        // Shared by every caller until the next refresh
+        return Collections.unmodifiableMap(change);
+    }
+
+    private static class Corrections {
+        private final Map<Integer, List<Map<String, Object>>> byTitle;
+        private final int total;
+        // Whether the latest refresh failed; the index is then the last good one, if any
+        private final boolean failed;
+        // When the index was fetched successfully (null if never)
+        private final LocalDateTime fetchedAt;
+        private final long attemptedAtMillis = System.currentTimeMillis();
+
+        Corrections(Map<Integer, List<Map<String, Object>>> byTitle, int total, boolean failed, LocalDateTime fetchedAt) {
+            this.byTitle = byTitle;
+            this.total = total;
+            this.failed = failed;
+            this.fetchedAt = fetchedAt;
+        }
+
+        Corrections failedRefresh() {
+            return new Corrections(byTitle, total, true, fetchedAt);
+        }
+
+        boolean isExpired(long ttlSeconds, long failureRetrySeconds) {
+            long ageSeconds = (System.currentTimeMillis() - attemptedAtMillis) / 1000;
+            return ageSeconds >= (failed ? failureRetrySeconds : ttlSeconds);
+        }
+    }
+}
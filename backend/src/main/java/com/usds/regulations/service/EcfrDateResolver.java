@@ -0,0 +1,294 @@
+package com.usds.regulations.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Caches the per-title "up to date as of" dates from /versioner/v1/titles.
+ * One fetch serves the whole ingest pipeline until the TTL expires or a refresh
+ * is requested; concurrent refreshes share a single in-flight fetch.
+ */
+@Service
+public class EcfrDateResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(EcfrDateResolver.class);
+    private static final String TITLES_URL = EcfrApiService.ECFR_BASE_URL + "/versioner/v1/titles";
+
+    @Autowired
+    private EcfrHttpClient httpClient;
+
+    @Autowired
+    private RawPayloadArchive payloadArchive;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${ecfr.api.dates.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    // How long a failed fetch is remembered before the next attempt
+    @Value("${ecfr.api.dates.failure-retry-seconds:60}")
+    private long failureRetrySeconds;
+
+    private volatile TitleDates current;
+    // Dates parsed from the archived titles payload, kept while that payload stays the same
+    private volatile ReplayDates replayDates;
+    private final AtomicReference<CompletableFuture<TitleDates>> inFlight = new AtomicReference<>();
+
+    /**
+     * Most recent date for which the eCFR has data (from the first listed title)
+     */
+    public String getLatestAvailableDate() {
+        TitleDates dates = resolve();
+        return dates.latestDate != null ? dates.latestDate : today();
+    }
+
+    /**
+     * "up_to_date_as_of" for a specific title, falling back to the latest available date
+     */
+    public String getDateForTitle(Integer titleNumber) {
+        TitleDates dates = resolve();
+        TitleDate titleDate = dates.byTitle.get(titleNumber);
+        if (titleDate != null && !titleDate.getUpToDateAsOf().isEmpty()) {
+            return titleDate.getUpToDateAsOf();
+        }
+        return dates.latestDate != null ? dates.latestDate : today();
+    }
+
+    /**
+     * Cached dates for every title, without triggering a network call
+     */
+    public Map<Integer, TitleDate> getCachedDates() {
+        TitleDates dates = current;
+        return dates != null ? dates.byTitle : Collections.emptyMap();
+    }
+
+    /**
+     * Whether the latest fetch of the title dates succeeded, so the cached dates are current
+     */
+    public boolean hasCurrentDates() {
+        TitleDates dates = current;
+        return dates != null && !dates.failed;
+    }
+
+    /**
+     * When the cached dates were last fetched successfully (null if never)
+     */
+    public LocalDateTime getLastRefreshedAt() {
+        TitleDates dates = current;
+        return dates != null ? dates.fetchedAt : null;
+    }
+
+    /**
+     * Freshness summary for the controllers
+     */
+    public Map<String, Object> getFreshness() {
+        TitleDates dates = current;
+        Map<String, Object> freshness = new HashMap<>();
+        freshness.put("latestAvailableDate", dates != null ? dates.latestDate : null);
+        freshness.put("lastRefreshedAt", dates != null ? dates.fetchedAt : null);
+        freshness.put("refreshFailed", dates != null && dates.failed);
+        freshness.put("ttlMinutes", ttlMinutes);
+        freshness.put("titles", dates != null ? dates.byTitle : Collections.emptyMap());
+        return freshness;
+    }
+
+    /**
+     * Force a refresh, ignoring the TTL
+     */
+    public Map<String, Object> refresh() {
+        fetchShared();
+        return getFreshness();
+    }
+
+    private TitleDates resolve() {
+        if (payloadArchive.isReplayActive()) {
+            // Replayed runs must use the dates from the archived titles payload so the
+            // structure URLs they build match the ones that were archived
+            return resolveReplay();
+        }
+        TitleDates dates = current;
+        if (dates != null && !dates.isExpired(ttlMinutes * 60, failureRetrySeconds)) {
+            return dates;
+        }
+        return fetchShared();
+    }
+
+    /**
+     * Run one fetch; callers arriving while it is in flight wait for its result
+     */
+    private TitleDates fetchShared() {
+        CompletableFuture<TitleDates> mine = new CompletableFuture<>();
+        CompletableFuture<TitleDates> existing = inFlight.compareAndExchange(null, mine);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        try {
+            TitleDates fetched = fetchTitleDates();
+            current = fetched;
+            mine.complete(fetched);
+            return fetched;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    /**
+     * Dates of the archived titles payload, parsed once per archived version of it.
+     * A replay without that payload cannot rebuild the archived URLs, so it fails
+     * instead of guessing a date.
+     */
+    private TitleDates resolveReplay() {
+        String payloadHash = payloadArchive.getPayloadHash(TITLES_URL);
+        if (payloadHash == null) {
+            throw new IllegalStateException("No archived titles payload to replay from: " + TITLES_URL);
+        }
+        ReplayDates cached = replayDates;
+        if (cached != null && cached.payloadHash.equals(payloadHash)) {
+            return cached.dates;
+        }
+
+        TitleDates dates;
+        try {
+            dates = parseTitleDates(httpClient.getForString(TITLES_URL));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Archived titles payload is not valid JSON: " + TITLES_URL, e);
+        }
+        if (dates == null) {
+            throw new IllegalStateException("Archived titles payload lists no titles: " + TITLES_URL);
+        }
+        replayDates = new ReplayDates(payloadHash, dates);
+        return dates;
+    }
+
+    private TitleDates fetchTitleDates() {
+        try {
+            logger.info("Refreshing eCFR title dates from: {}", TITLES_URL);
+            TitleDates fetched = parseTitleDates(httpClient.getForString(TITLES_URL));
+            if (fetched != null) {
+                return fetched;
+            }
+        } catch (Exception e) {
+            logger.warn("Could not get latest available dates, falling back to current date: {}", e.getMessage());
+        }
+
+        // Keep serving the last good dates however many refreshes fail, but retry sooner
+        TitleDates previous = current;
+        if (previous != null) {
+            return previous.failedRefresh();
+        }
+        return new TitleDates(null, Collections.emptyMap(), true, null);
+    }
+
+    /**
+     * Dates from a /versioner/v1/titles response, or null if it lists no titles
+     */
+    private TitleDates parseTitleDates(String titlesResponse) throws JsonProcessingException {
+        if (titlesResponse == null) {
+            return null;
+        }
+        JsonNode titlesArray = objectMapper.readTree(titlesResponse).get("titles");
+        if (titlesArray == null || !titlesArray.isArray() || titlesArray.size() == 0) {
+            return null;
+        }
+        Map<Integer, TitleDate> byTitle = new LinkedHashMap<>();
+        for (JsonNode titleNode : titlesArray) {
+            int number = titleNode.path("number").asInt(-1);
+            if (number > 0) {
+                byTitle.put(number, new TitleDate(
+                    number,
+                    titleNode.path("up_to_date_as_of").asText(""),
+                    titleNode.path("latest_amended_on").asText(""),
+                    titleNode.path("latest_issue_date").asText("")));
+            }
+        }
+
+        // The first title's up_to_date_as_of is the date used for all API calls
+        String latest = titlesArray.get(0).path("up_to_date_as_of").asText("");
+        logger.debug("Using latest available date: {}", latest);
+        return new TitleDates(latest.isEmpty() ? null : latest,
+                Collections.unmodifiableMap(byTitle), false, LocalDateTime.now());
+    }
+
+    private static String today() {
+        return LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    }
+
+    private static class TitleDates {
+        private final String latestDate;
+        private final Map<Integer, TitleDate> byTitle;
+        // Whether the latest refresh failed; the dates are then the last good ones, if any
+        private final boolean failed;
+        // When the dates were fetched successfully (null if never)
+        private final LocalDateTime fetchedAt;
+        private final long attemptedAtMillis = System.currentTimeMillis();
+
+        TitleDates(String latestDate, Map<Integer, TitleDate> byTitle, boolean failed, LocalDateTime fetchedAt) {
+            this.latestDate = latestDate;
+            this.byTitle = byTitle;
+            this.failed = failed;
+            this.fetchedAt = fetchedAt;
+        }
+
+        TitleDates failedRefresh() {
+            return new TitleDates(latestDate, byTitle, true, fetchedAt);
+        }
+
+        boolean isExpired(long ttlSeconds, long failureRetrySeconds) {
+            long ageSeconds = (System.currentTimeMillis() - attemptedAtMillis) / 1000;
+            return ageSeconds >= (failed ? failureRetrySeconds : ttlSeconds);
+        }
+    }
+
+    private static class ReplayDates {
+        private final String payloadHash;
+        private final TitleDates dates;
+
+        ReplayDates(String payloadHash, TitleDates dates) {
+            this.payloadHash = payloadHash;
+            this.dates = dates;
+        }
+    }
+
+    /**
+     * Dates published by the versioner for one title
+     */
+    public static class TitleDate {
+        private final Integer titleNumber;
+        private final String upToDateAsOf;
+        private final String latestAmendedOn;
+        private final String latestIssueDate;
+
+        public TitleDate(Integer titleNumber, String upToDateAsOf, String latestAmendedOn, String latestIssueDate) {
+            this.titleNumber = titleNumber;
+            this.upToDateAsOf = upToDateAsOf;
+            this.latestAmendedOn = latestAmendedOn;
+            this.latestIssueDate = latestIssueDate;
+        }
+
+        public Integer getTitleNumber() { return titleNumber; }
+        public String getUpToDateAsOf() { return upToDateAsOf; }
+        public String getLatestAmendedOn() { return latestAmendedOn; }
+        public String getLatestIssueDate() { return latestIssueDate; }
+    }
+}
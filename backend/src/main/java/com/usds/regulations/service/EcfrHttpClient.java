@@ -0,0 +1,459 @@
+package com.usds.regulations.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Single entry point for outbound eCFR calls so every request goes through
+ * the shared adaptive throttle. 429 and 503 responses slow the throttle down
+ * and are retried after any Retry-After; other 5xx responses are retried with
+ * a short backoff before the error reaches the caller's fallback.
+ *
+ * Each endpoint family (versioner, search, admin) has its own circuit breaker,
+ * so while one is failing its calls are rejected at once and callers move on
+ * to their next fallback instead of waiting out timeouts and retries.
+ * Optionally a slow request is hedged with a second identical request and
+ * the first successful response wins.
+ */
+@Component
+public class EcfrHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(EcfrHttpClient.class);
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private EcfrRequestThrottle throttle;
+
+    @Autowired
+    private EcfrResponseCache responseCache;
+
+    @Autowired
+    private RawPayloadArchive payloadArchive;
+
+    @Value("${ecfr.api.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${ecfr.api.retry-backoff-millis:500}")
+    private long retryBackoffMillis;
+
+    @Value("${ecfr.api.circuit.window-size:20}")
+    private int circuitWindowSize;
+
+    @Value("${ecfr.api.circuit.minimum-calls:10}")
+    private int circuitMinimumCalls;
+
+    @Value("${ecfr.api.circuit.failure-rate-threshold:50}")
+    private double circuitFailureRateThreshold;
+
+    @Value("${ecfr.api.circuit.open-seconds:30}")
+    private long circuitOpenSeconds;
+
+    @Value("${ecfr.api.circuit.half-open-calls:2}")
+    private int circuitHalfOpenCalls;
+
+    @Value("${ecfr.api.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    // How long the first request may take before an identical second one is sent
+    @Value("${ecfr.api.hedge.delay-millis:3000}")
+    private long hedgeDelayMillis;
+
+    @Autowired
+    @Qualifier("ecfrHedgeExecutor")
+    private ThreadPoolTaskExecutor hedgeExecutor;
+
+    private final Map<String, EcfrCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    /**
+     * GET a URL and return the response body as a String (null if empty)
+     */
+    public String getForString(String url) {
+        if (!isCached(url) && !payloadArchive.isEnabled() && !payloadArchive.isReplayActive()) {
+            return execute(url, () -> restTemplate.getForObject(url, String.class));
+        }
+        return getForStream(url, body -> {
+            byte[] bytes = body.readAllBytes();
+            return bytes.length > 0 ? new String(bytes, StandardCharsets.UTF_8) : null;
+        });
+    }
+
+    /**
+     * GET a URL and hand the response body stream to the reader without buffering it.
+     * For URLs the response cache keeps, the request is conditional when the cache
+     * is enabled, and the reader is fed from the cached copy, whether it was just
+     * downloaded or confirmed by a 304. Fetched payloads are also written to the raw
+     * payload archive, and in replay mode the archive answers instead of the network.
+     * Without cache or archive the reader runs on the live response: it is called again on
+     * a retry, and its failures count against the endpoint, so it should only parse.
+     */
+    public <T> T getForStream(String url, BodyReader<T> reader) {
+        if (!payloadArchive.isReplayActive() && !isCached(url) && !payloadArchive.isEnabled()) {
+            return execute(url, () -> restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> reader.read(response.getBody())));
+        }
+        try (StoredBody stored = fetch(url); InputStream body = stored.open()) {
+            return reader.read(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read stored eCFR response for " + url, e);
+        }
+    }
+
+    /**
+     * GET a URL and keep the whole body on disk (response cache, payload archive or a spool
+     * file) before returning, so the HTTP exchange, its throttle permit and its circuit breaker
+     * outcome are settled before the caller does any slow work with the body
+     */
+    public StoredBody fetch(String url) {
+        try {
+            if (payloadArchive.isReplayActive()) {
+                if (payloadArchive.getPayloadHash(url) == null) {
+                    throw new IOException("No archived payload for " + url);
+                }
+                return new StoredBody(() -> payloadArchive.openForReplay(url), List.of());
+            }
+
+            if (isCached(url)) {
+                EcfrResponseCache.CachedBody cachedBody = fetchThroughCache(url);
+                if (payloadArchive.isEnabled()
+                        && (!cachedBody.isNotModified() || payloadArchive.getPayloadHash(url) == null)) {
+                    try (InputStream body = responseCache.openBody(cachedBody)) {
+                        payloadArchive.store(url, body);
+                    }
+                }
+                return new StoredBody(() -> responseCache.openBody(cachedBody), List.of());
+            }
+
+            if (payloadArchive.isEnabled()) {
+                String hash = execute(url, () -> restTemplate.execute(url, HttpMethod.GET, null,
+                        response -> payloadArchive.store(url, response.getBody())));
+                return new StoredBody(() -> payloadArchive.open(hash), List.of());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store eCFR response for " + url, e);
+        }
+
+        // Every attempt (a retry, or a hedge racing the first request) spools to its own file
+        List<Path> spoolFiles = new CopyOnWriteArrayList<>();
+        try {
+            Path spooled = execute(url, () -> restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                Path spoolFile = Files.createTempFile("ecfr-", ".body");
+                spoolFiles.add(spoolFile);
+                Files.copy(response.getBody(), spoolFile, StandardCopyOption.REPLACE_EXISTING);
+                return spoolFile;
+            }));
+            return new StoredBody(() -> Files.newInputStream(spooled), spoolFiles);
+        } catch (RuntimeException e) {
+            new StoredBody(null, spoolFiles).close();
+            throw e;
+        }
+    }
+
+    private boolean isCached(String url) {
+        return responseCache.isEnabled() && responseCache.isCacheable(url);
+    }
+
+    private EcfrResponseCache.CachedBody fetchThroughCache(String url) {
+        EcfrResponseCache.CachedBody cachedBody = execute(url, () -> restTemplate.execute(url, HttpMethod.GET,
+                responseCache.conditionalRequest(url), response -> responseCache.storeResponse(url, response)));
+        if (cachedBody == null) {
+            // 304 for a body we no longer hold: fetch it again unconditionally
+            cachedBody = execute(url, () -> restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> responseCache.storeResponse(url, response)));
+        }
+        return cachedBody;
+    }
+
+    /**
+     * A response body held on disk after its HTTP exchange finished; close it to delete any spool file
+     */
+    public static class StoredBody implements Closeable {
+        private final BodySource source;
+        private final List<Path> spoolFiles;
+
+        StoredBody(BodySource source, List<Path> spoolFiles) {
+            this.source = source;
+            this.spoolFiles = spoolFiles;
+        }
+
+        /** Open the body for reading; may be called more than once */
+        public InputStream open() throws IOException {
+            return source.open();
+        }
+
+        @Override
+        public void close() {
+            for (Path spoolFile : spoolFiles) {
+                try {
+                    Files.deleteIfExists(spoolFile);
+                } catch (IOException e) {
+                    logger.debug("Could not delete eCFR spool file {}: {}", spoolFile, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface BodySource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Consumes a response body stream
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    /**
+     * Circuit breaker state per endpoint family plus hedging counters, for monitoring
+     */
+    public Map<String, Object> getCircuitMetrics() {
+        Map<String, Object> circuits = new TreeMap<>();
+        breakers.forEach((endpoint, breaker) -> circuits.put(endpoint, breaker.getMetrics()));
+
+        Map<String, Object> hedging = new HashMap<>();
+        hedging.put("enabled", hedgeEnabled);
+        hedging.put("delayMillis", hedgeDelayMillis);
+        hedging.put("hedgesSent", hedgesSent.get());
+        hedging.put("hedgesWon", hedgesWon.get());
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("circuitBreakers", circuits);
+        metrics.put("hedging", hedging);
+        return metrics;
+    }
+
+    private <T> T execute(String url, Supplier<T> call) {
+        EcfrCircuitBreaker breaker = breakerFor(url);
+        Supplier<T> guarded = () -> executeWithRetry(url, breaker, call);
+        return hedgeEnabled ? executeHedged(guarded) : guarded.get();
+    }
+
+    private EcfrCircuitBreaker breakerFor(String url) {
+        return breakers.computeIfAbsent(endpointOf(url), endpoint -> new EcfrCircuitBreaker(endpoint,
+                circuitWindowSize, circuitMinimumCalls, circuitFailureRateThreshold,
+                circuitOpenSeconds * 1000, circuitHalfOpenCalls));
+    }
+
+    /**
+     * Endpoint family of an eCFR URL: the first path segment after /api/ (versioner, search, admin)
+     */
+    static String endpointOf(String url) {
+        int api = url.indexOf("/api/");
+        if (api < 0) {
+            return "other";
+        }
+        int start = api + "/api/".length();
+        int end = url.indexOf('/', start);
+        return end > start ? url.substring(start, end) : "other";
+    }
+
+    private <T> T executeWithRetry(String url, EcfrCircuitBreaker breaker, Supplier<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                logger.debug("Skipping {}: {} circuit is open", url, breaker.getName());
+                throw new EcfrCircuitBreaker.OpenException(breaker.getName());
+            }
+            try {
+                T result = throttle.execute(call);
+                throttle.onSuccess();
+                breaker.onSuccess();
+                return result;
+            } catch (HttpStatusCodeException e) {
+                int status = e.getStatusCode().value();
+                boolean slowDown = status == HttpStatus.TOO_MANY_REQUESTS.value()
+                        || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+
+                if (!slowDown && !e.getStatusCode().is5xxServerError()) {
+                    // A 4xx answer still means the endpoint is up
+                    breaker.onSuccess();
+                    throw e;
+                }
+
+                // 429 is our own pace, which the throttle handles; it says nothing about endpoint health
+                if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    breaker.release();
+                } else {
+                    breaker.onFailure();
+                }
+
+                Duration retryAfter = parseRetryAfter(e.getResponseHeaders());
+                if (slowDown) {
+                    throttle.onThrottled(retryAfter);
+                }
+
+                if (attempt >= maxRetries) {
+                    logger.warn("Giving up on {} after {} attempts (HTTP {})", url, attempt + 1, status);
+                    throw e;
+                }
+
+                logger.debug("HTTP {} from {}, retrying (attempt {}/{})", status, url, attempt + 1, maxRetries);
+                if (!slowDown || retryAfter == null) {
+                    backoff(attempt);
+                }
+            } catch (RuntimeException e) {
+                // Timeouts, refused connections and unreadable bodies
+                breaker.onFailure();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Run the request on the hedge executor; if it has not answered within the hedge delay,
+     * send an identical second request and take whichever succeeds first. Without a free
+     * hedge thread the request simply runs on the calling thread.
+     */
+    private <T> T executeHedged(Supplier<T> call) {
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(call, hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            return call.get();
+        }
+
+        try {
+            return primary.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            // Fall through and hedge
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for eCFR", e);
+        }
+
+        CompletableFuture<T> hedge;
+        try {
+            hedge = CompletableFuture.supplyAsync(call, hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            return join(primary);
+        }
+        hedgesSent.incrementAndGet();
+
+        // First success wins; the call only fails once both requests have failed
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicBoolean hedgeWon = new AtomicBoolean();
+        primary.whenComplete((result, error) -> {
+            if (error == null) {
+                first.complete(result);
+            } else if (failed.incrementAndGet() == 2) {
+                first.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((result, error) -> {
+            if (error == null) {
+                if (first.complete(result)) {
+                    hedgeWon.set(true);
+                }
+            } else if (failed.incrementAndGet() == 2) {
+                first.completeExceptionally(error);
+            }
+        });
+
+        T result = join(first);
+        if (hedgeWon.get()) {
+            hedgesWon.incrementAndGet();
+        }
+        return result;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException("eCFR request failed", cause);
+    }
+
+    /**
+     * Exponential backoff between retries that were not given a Retry-After
+     */
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis * (1L << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off from eCFR", e);
+        }
+    }
+
+    /**
+     * Retry-After is either a number of seconds or an HTTP date
+     */
+    static Duration parseRetryAfter(HttpHeaders headers) {
+        if (headers == null) {
+            return null;
+        }
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration untilRetry = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+                return untilRetry.isNegative() ? Duration.ZERO : untilRetry;
+            } catch (Exception notDate) {
+                return null;
+            }
+        }
+    }
+}
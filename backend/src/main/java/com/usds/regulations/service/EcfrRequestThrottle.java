@@ -0,0 +1,190 @@
+package com.usds.regulations.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.TokensInheritanceStrategy;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Adaptive outbound politeness for the eCFR host, shared by every ingest thread.
+ * A token bucket caps the request rate and a semaphore caps how many requests
+ * are in flight at once. The permitted rate is halved when the upstream answers
+ * 429/503 (and paused for any Retry-After), then ramped back up step by step
+ * after a run of successful calls.
+ */
+@Component
+public class EcfrRequestThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(EcfrRequestThrottle.class);
+
+    // Ignore further slow-down signals for this long after reducing the rate,
+    // so a burst of 429s from requests already in flight only halves it once
+    private static final long DECREASE_COOLDOWN_MILLIS = 1000;
+
+    @Value("${ecfr.api.requests-per-second:5}")
+    private int initialRequestsPerSecond;
+
+    @Value("${ecfr.api.min-requests-per-second:1}")
+    private int minRequestsPerSecond;
+
+    @Value("${ecfr.api.max-requests-per-second:20}")
+    private int maxRequestsPerSecond;
+
+    // Successful calls required before the rate is raised by one step
+    @Value("${ecfr.api.ramp-up-after-successes:50}")
+    private int rampUpAfterSuccesses;
+
+    @Value("${ecfr.api.max-concurrent-requests:4}")
+    private int maxConcurrentRequests;
+
+    private Bucket bucket;
+    private Semaphore inFlight;
+
+    private volatile int currentRequestsPerSecond;
+    private volatile long pausedUntilMillis;
+    private volatile long lastDecreaseMillis;
+    private final AtomicInteger consecutiveSuccesses = new AtomicInteger();
+    private final AtomicLong throttledResponses = new AtomicLong();
+    private final AtomicLong totalRequests = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        currentRequestsPerSecond = clamp(initialRequestsPerSecond);
+        bucket = Bucket.builder()
+            .addLimit(bandwidth(currentRequestsPerSecond))
+            .build();
+        inFlight = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    /**
+     * Run an outbound call once any Retry-After pause has passed and a rate permit
+     * and a concurrency slot are available
+     */
+    public <T> T execute(Supplier<T> call) {
+        try {
+            awaitPause();
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for an eCFR request slot", e);
+        }
+
+        try {
+            bucket.asBlocking().consume(1);
+            totalRequests.incrementAndGet();
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for an eCFR rate permit", e);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Record a successful call; raises the rate one step after enough successes in a row
+     */
+    public void onSuccess() {
+        if (consecutiveSuccesses.incrementAndGet() >= rampUpAfterSuccesses) {
+            consecutiveSuccesses.set(0);
+            if (currentRequestsPerSecond < maxRequestsPerSecond) {
+                applyRate(currentRequestsPerSecond + 1, "sustained success");
+            }
+        }
+    }
+
+    /**
+     * Record a 429/503 from the upstream: halve the rate and honor Retry-After if given
+     */
+    public void onThrottled(Duration retryAfter) {
+        throttledResponses.incrementAndGet();
+        consecutiveSuccesses.set(0);
+
+        if (retryAfter != null && !retryAfter.isNegative() && !retryAfter.isZero()) {
+            long resumeAt = System.currentTimeMillis() + retryAfter.toMillis();
+            synchronized (this) {
+                if (resumeAt > pausedUntilMillis) {
+                    pausedUntilMillis = resumeAt;
+                }
+            }
+            logger.warn("eCFR asked us to retry after {} seconds; pausing outbound requests", retryAfter.toSeconds());
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastDecreaseMillis >= DECREASE_COOLDOWN_MILLIS) {
+            lastDecreaseMillis = now;
+            applyRate(Math.max(minRequestsPerSecond, currentRequestsPerSecond / 2), "upstream throttling");
+        }
+    }
+
+    /**
+     * Current permit rate and counters, for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("currentRequestsPerSecond", currentRequestsPerSecond);
+        metrics.put("minRequestsPerSecond", minRequestsPerSecond);
+        metrics.put("maxRequestsPerSecond", maxRequestsPerSecond);
+        metrics.put("maxConcurrentRequests", maxConcurrentRequests);
+        metrics.put("requestsInFlight", getRequestsInFlight());
+        metrics.put("availablePermits", bucket.getAvailableTokens());
+        metrics.put("totalRequests", totalRequests.get());
+        metrics.put("throttledResponses", throttledResponses.get());
+        metrics.put("pausedForMillis", Math.max(0, pausedUntilMillis - System.currentTimeMillis()));
+        return metrics;
+    }
+
+    public int getCurrentRequestsPerSecond() {
+        return currentRequestsPerSecond;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public int getRequestsInFlight() {
+        return maxConcurrentRequests - inFlight.availablePermits();
+    }
+
+    private void awaitPause() throws InterruptedException {
+        long waitMillis;
+        while ((waitMillis = pausedUntilMillis - System.currentTimeMillis()) > 0) {
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    private synchronized void applyRate(int requestsPerSecond, String reason) {
+        int newRate = clamp(requestsPerSecond);
+        if (newRate == currentRequestsPerSecond) {
+            return;
+        }
+        logger.info("Adjusting eCFR request rate from {}/s to {}/s ({})", currentRequestsPerSecond, newRate, reason);
+        currentRequestsPerSecond = newRate;
+        bucket.replaceConfiguration(
+            BucketConfiguration.builder().addLimit(bandwidth(newRate)).build(),
+            TokensInheritanceStrategy.PROPORTIONALLY);
+    }
+
+    private int clamp(int requestsPerSecond) {
+        return Math.max(minRequestsPerSecond, Math.min(maxRequestsPerSecond, requestsPerSecond));
+    }
+
+    private static Bandwidth bandwidth(int requestsPerSecond) {
+        return Bandwidth.classic(requestsPerSecond, Refill.greedy(requestsPerSecond, Duration.ofSeconds(1)));
+    }
+}
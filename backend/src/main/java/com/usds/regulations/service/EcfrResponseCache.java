@@ -0,0 +1,346 @@
+package com.usds.regulations.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RequestCallback;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * On-disk HTTP cache for the eCFR payloads re-read on every run: versioner structure
+ * and full-text documents, the title list and the corrections feed. Each URL keeps one entry file holding the ETag / Last-Modified validators
+ * followed by the gzip-compressed body, written to a temp file and renamed into place,
+ * so a reader never sees a body next to another response's validators.
+ * Requests are sent as conditional GETs and a 304 reuses the stored body, so
+ * an unchanged upstream costs a header exchange instead of a full download.
+ * <p>
+ * Entries unused for longer than the maximum age are swept, and when the directory
+ * grows past its size limit the least recently used entries go first.
+ */
+@Component
+public class EcfrResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EcfrResponseCache.class);
+
+    private static final String META_URL = "url";
+    private static final String META_ETAG = "etag";
+    private static final String META_LAST_MODIFIED = "lastModified";
+    private static final String META_STORED_AT = "storedAt";
+
+    private static final String ENTRY_SUFFIX = ".entry";
+
+    // Entries used this recently are never swept, so a body handed to a reader stays in place
+    private static final long IN_USE_MILLIS = 10 * 60 * 1000L;
+    private static final long SWEEP_INTERVAL_MILLIS = 5 * 60 * 1000L;
+
+    @Value("${ecfr.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ecfr.cache.dir:./data/ecfr-cache}")
+    private String cacheDir;
+
+    @Value("${ecfr.cache.max-size-mb:2048}")
+    private long maxSizeMb;
+
+    @Value("${ecfr.cache.max-age-days:30}")
+    private long maxAgeDays;
+
+    private Path root;
+
+    private final AtomicLong notModifiedResponses = new AtomicLong();
+    private final AtomicLong fullResponses = new AtomicLong();
+    private final AtomicLong bytesStored = new AtomicLong();
+    private final AtomicLong entriesEvicted = new AtomicLong();
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long lastSweepMillis;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(cacheDir).toAbsolutePath();
+        try {
+            Files.createDirectories(root);
+            logger.info("eCFR response cache at {}", root);
+        } catch (IOException e) {
+            logger.warn("Could not create eCFR response cache directory {}, caching disabled: {}", root, e.getMessage());
+            enabled = false;
+            return;
+        }
+        sweep();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether responses for a URL are kept: structure and full-text documents, which are
+     * large, plus the title list and corrections feed, which are small but revalidated on
+     * every run; per-part search responses are not
+     */
+    public boolean isCacheable(String url) {
+        return url.contains("/versioner/v1/structure/") || url.contains("/versioner/v1/full/")
+                || url.endsWith("/versioner/v1/titles") || url.endsWith("/admin/v1/corrections.json");
+    }
+
+    /**
+     * Adds If-None-Match / If-Modified-Since for a URL we already hold a body for
+     */
+    public RequestCallback conditionalRequest(String url) {
+        Properties meta = readMeta(url);
+        return request -> {
+            if (meta == null) {
+                return;
+            }
+            HttpHeaders headers = request.getHeaders();
+            String etag = meta.getProperty(META_ETAG);
+            if (etag != null && !etag.isEmpty()) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, etag);
+            }
+            String lastModified = meta.getProperty(META_LAST_MODIFIED);
+            if (lastModified != null && !lastModified.isEmpty()) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        };
+    }
+
+    /**
+     * Store a full response, or recognize a 304, and return the cached body.
+     * Returns null on a 304 for which no body is held any more.
+     */
+    public CachedBody storeResponse(String url, ClientHttpResponse response) throws IOException {
+        Path entry = entryPath(url);
+
+        if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            try {
+                // Marks the entry as recently used for the sweep
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+            notModifiedResponses.incrementAndGet();
+            logger.debug("eCFR response not modified, reusing cached body for {}", url);
+            return new CachedBody(entry, true);
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        Properties meta = new Properties();
+        meta.setProperty(META_URL, url);
+        meta.setProperty(META_STORED_AT, String.valueOf(System.currentTimeMillis()));
+        if (headers.getETag() != null) {
+            meta.setProperty(META_ETAG, headers.getETag());
+        }
+        if (headers.getFirst(HttpHeaders.LAST_MODIFIED) != null) {
+            meta.setProperty(META_LAST_MODIFIED, headers.getFirst(HttpHeaders.LAST_MODIFIED));
+        }
+        ByteArrayOutputStream metaBytes = new ByteArrayOutputStream();
+        meta.store(metaBytes, null);
+
+        // Validators and body go into one temp file renamed into place, so they are replaced together
+        Path temp = Files.createTempFile(root, "entry-", ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                DataOutputStream header = new DataOutputStream(file);
+                header.writeInt(metaBytes.size());
+                metaBytes.writeTo(header);
+                header.flush();
+                try (InputStream in = response.getBody();
+                     OutputStream out = new GZIPOutputStream(file, 64 * 1024)) {
+                    if (in != null) {
+                        in.transferTo(out);
+                    }
+                }
+            }
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        fullResponses.incrementAndGet();
+        bytesStored.addAndGet(Files.size(entry));
+        maybeSweep();
+        return new CachedBody(entry, false);
+    }
+
+    /**
+     * Open a cached body for reading (decompressed)
+     */
+    public InputStream openBody(CachedBody body) throws IOException {
+        InputStream file = Files.newInputStream(body.getPath());
+        try {
+            DataInputStream header = new DataInputStream(file);
+            header.skipNBytes(header.readInt());
+            return new GZIPInputStream(file, 64 * 1024);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Cache hit/miss counters for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("directory", root != null ? root.toString() : null);
+        metrics.put("maxSizeMb", maxSizeMb);
+        metrics.put("maxAgeDays", maxAgeDays);
+        metrics.put("notModifiedResponses", notModifiedResponses.get());
+        metrics.put("fullResponses", fullResponses.get());
+        metrics.put("compressedBytesStored", bytesStored.get());
+        metrics.put("entriesEvicted", entriesEvicted.get());
+        return metrics;
+    }
+
+    private void maybeSweep() {
+        if (System.currentTimeMillis() - lastSweepMillis >= SWEEP_INTERVAL_MILLIS) {
+            sweep();
+        }
+    }
+
+    /**
+     * Delete entries past the maximum age, then the least recently used ones until the
+     * directory is under its size limit. Other files (temp files of crashed writes,
+     * entries of older cache layouts) are swept the same way.
+     */
+    void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            lastSweepMillis = now;
+            List<CacheFile> files = new ArrayList<>();
+            long totalBytes = 0;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+                for (Path path : entries) {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        files.add(new CacheFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                        totalBytes += attributes.size();
+                    }
+                }
+            }
+
+            long maxAgeMillis = maxAgeDays * 24 * 60 * 60 * 1000L;
+            long maxBytes = maxSizeMb * 1024 * 1024;
+            files.sort(Comparator.comparingLong(file -> file.lastUsedMillis));
+            int evicted = 0;
+            for (CacheFile file : files) {
+                long idleMillis = now - file.lastUsedMillis;
+                boolean expired = idleMillis > maxAgeMillis;
+                if ((!expired && totalBytes <= maxBytes) || idleMillis < IN_USE_MILLIS) {
+                    continue;
+                }
+                if (Files.deleteIfExists(file.path)) {
+                    totalBytes -= file.size;
+                    evicted++;
+                }
+            }
+            if (evicted > 0) {
+                entriesEvicted.addAndGet(evicted);
+                logger.info("Swept {} eCFR cache files, {} MB left", evicted, totalBytes / (1024 * 1024));
+            }
+        } catch (IOException e) {
+            logger.warn("Could not sweep eCFR response cache {}: {}", root, e.getMessage());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private Properties readMeta(String url) {
+        try (InputStream file = Files.newInputStream(entryPath(url))) {
+            DataInputStream header = new DataInputStream(file);
+            byte[] metaBytes = header.readNBytes(header.readInt());
+            Properties meta = new Properties();
+            meta.load(new ByteArrayInputStream(metaBytes));
+            // Guard against a hash collision pointing at another URL's entry
+            return url.equals(meta.getProperty(META_URL)) ? meta : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Unreadable cache entry for {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private Path entryPath(String url) {
+        return root.resolve(key(url) + ENTRY_SUFFIX);
+    }
+
+    private static String key(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class CacheFile {
+        private final Path path;
+        private final long size;
+        private final long lastUsedMillis;
+
+        CacheFile(Path path, long size, long lastUsedMillis) {
+            this.path = path;
+            this.size = size;
+            this.lastUsedMillis = lastUsedMillis;
+        }
+    }
+
+    /**
+     * A cached body file and whether the upstream just confirmed it with a 304
+     */
+    public static class CachedBody {
+        private final Path path;
+        private final boolean notModified;
+
+        CachedBody(Path path, boolean notModified) {
+            this.path = path;
+            this.notModified = notModified;
+        }
+
+        public Path getPath() { return path; }
+        public boolean isNotModified() { return notModified; }
+    }
+}
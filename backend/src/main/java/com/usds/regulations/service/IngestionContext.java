@@ -0,0 +1,45 @@
+package com.usds.regulations.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hooks an ingest run reports progress to and consults for cancellation and
+ * checkpoints. Plain synchronous downloads use {@link #NONE}; ingestion jobs
+ * supply an implementation backed by their persisted checkpoints.
+ */
+public interface IngestionContext {
+
+    IngestionContext NONE = new IngestionContext() { };
+
+    default boolean isCancelled() {
+        return false;
+    }
+
+    default boolean isTitleCompleted(int titleNumber) {
+        return false;
+    }
+
+    default boolean isPartCompleted(int titleNumber, String partNumber) {
+        return false;
+    }
+
+    /**
+     * Parts saved (and checkpointed) together; progress is reported after each group
+     */
+    default int getCheckpointInterval() {
+        return Integer.MAX_VALUE;
+    }
+
+    default void onTitleStarted(int titleNumber, int partsPlanned) {
+    }
+
+    /**
+     * Parts of a group that were saved; parts that failed are left out and stay pending
+     */
+    default void onPartsCompleted(int titleNumber, List<String> partNumbers, Map<String, Object> saveResult) {
+    }
+
+    default void onTitleCompleted(int titleNumber, Map<String, Object> titleResult) {
+    }
+}
@@ -0,0 +1,474 @@
+package com.usds.regulations.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.usds.regulations.entity.IngestionCheckpoint;
+import com.usds.regulations.entity.IngestionJob;
+import com.usds.regulations.entity.IngestionJobStatus;
+import com.usds.regulations.repository.IngestionCheckpointRepository;
+import com.usds.regulations.repository.IngestionJobRepository;
+
+/**
+ * Runs bulk title ingestion as background jobs. Each job is persisted with
+ * its progress counters, saves a checkpoint after every group of parts and
+ * every finished title, can be cancelled between groups, and can be resumed
+ * from its checkpoints after a cancel, failure or restart. Progress is
+ * pushed to subscribers as server-sent events.
+ */
+@Service
+public class IngestionJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionJobService.class);
+
+    private static final Set<IngestionJobStatus> UNFINISHED =
+            EnumSet.of(IngestionJobStatus.QUEUED, IngestionJobStatus.RUNNING);
+
+    @Autowired
+    private TitleIngestionEngine ingestionEngine;
+
+    @Autowired
+    private IngestionJobRepository jobRepository;
+
+    @Autowired
+    private IngestionCheckpointRepository checkpointRepository;
+
+    @Autowired
+    @Qualifier("ecfrJobExecutor")
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @Value("${ecfr.jobs.checkpoint-parts:50}")
+    private int checkpointParts;
+
+    @Value("${ecfr.jobs.events-timeout-minutes:30}")
+    private long eventsTimeoutMinutes;
+
+    @Value("${ecfr.jobs.resume-interrupted:false}")
+    private boolean resumeInterrupted;
+
+    // Contexts of jobs currently executing on this node
+    private final Map<Long, JobContext> activeJobs = new ConcurrentHashMap<>();
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Queue a new ingestion job; sampleSize null means all parts of every title
+     */
+    public IngestionJob submit(Integer sampleSize, boolean replay) {
+        IngestionJob job = jobRepository.save(new IngestionJob(sampleSize, replay));
+        logger.info("Submitted ingestion job {} (sampleSize={}, replay={})", job.getId(), sampleSize, replay);
+        return dispatch(job);
+    }
+
+    /**
+     * Queue an incremental sync of every title changed upstream since the last ingest
+     */
+    public IngestionJob submitIncrementalSync() {
+        IngestionJob job = new IngestionJob(null, false);
+        job.setIncremental(true);
+        job = jobRepository.save(job);
+        logger.info("Submitted incremental sync job {}", job.getId());
+        return dispatch(job);
+    }
+
+    /**
+     * Ask a job to stop. A running job stops after its in-flight part groups are saved.
+     */
+    public IngestionJob cancel(Long jobId) {
+        IngestionJob job = findJob(jobId);
+        JobContext context = activeJobs.get(jobId);
+        if (context != null) {
+            context.cancelled.set(true);
+            logger.info("Cancellation requested for ingestion job {}", jobId);
+        } else if (job.getStatus() == IngestionJobStatus.QUEUED) {
+            job.setStatus(IngestionJobStatus.CANCELLED);
+            job.setFinishedAt(LocalDateTime.now());
+            job = jobRepository.save(job);
+            completeSubscribers(jobId, statusOf(job, null));
+        }
+        return job;
+    }
+
+    /**
+     * Re-queue a cancelled, failed or interrupted job; it skips everything already checkpointed
+     */
+    public IngestionJob resume(Long jobId) {
+        IngestionJob job = findJob(jobId);
+        if (!job.isResumable() || activeJobs.containsKey(jobId)) {
+            throw new IllegalStateException("Job " + jobId + " is " + job.getStatus() + " and cannot be resumed");
+        }
+        job.setStatus(IngestionJobStatus.QUEUED);
+        job.setFinishedAt(null);
+        job.setMessage(null);
+        logger.info("Resuming ingestion job {}", jobId);
+        return dispatch(jobRepository.save(job));
+    }
+
+    /**
+     * Persisted job state plus live per-title progress while it runs
+     */
+    public Map<String, Object> getStatus(Long jobId) {
+        return statusOf(findJob(jobId), activeJobs.get(jobId));
+    }
+
+    public List<Map<String, Object>> listJobs() {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (IngestionJob job : jobRepository.findTop20ByOrderByCreatedAtDesc()) {
+            jobs.add(statusOf(job, activeJobs.get(job.getId())));
+        }
+        return jobs;
+    }
+
+    /**
+     * Stream a job's progress; the current status is sent immediately and the stream ends with the job
+     */
+    public SseEmitter subscribe(Long jobId) {
+        IngestionJob job = findJob(jobId);
+        SseEmitter emitter = new SseEmitter(Duration.ofMinutes(eventsTimeoutMinutes).toMillis());
+        Map<String, Object> status = statusOf(job, activeJobs.get(jobId));
+
+        if (!UNFINISHED.contains(job.getStatus())) {
+            send(emitter, "complete", status);
+            emitter.complete();
+            return emitter;
+        }
+
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        if (!send(emitter, "progress", status)) {
+            emitters.remove(emitter);
+        }
+        return emitter;
+    }
+
+    /**
+     * Jobs that were queued or running when the application stopped never finished;
+     * mark them interrupted and optionally pick them back up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        for (IngestionJob job : jobRepository.findByStatusIn(UNFINISHED)) {
+            job.setStatus(IngestionJobStatus.INTERRUPTED);
+            job.setMessage("Interrupted by application shutdown");
+            job = jobRepository.save(job);
+            logger.warn("Ingestion job {} was interrupted by a shutdown", job.getId());
+            if (resumeInterrupted) {
+                resume(job.getId());
+            }
+        }
+    }
+
+    private IngestionJob dispatch(IngestionJob job) {
+        Long jobId = job.getId();
+        try {
+            jobExecutor.execute(() -> runJob(jobId));
+            return job;
+        } catch (TaskRejectedException e) {
+            logger.warn("Ingestion job {} rejected, job queue is full", jobId);
+            job.setStatus(IngestionJobStatus.FAILED);
+            job.setFinishedAt(LocalDateTime.now());
+            job.setMessage("Rejected: too many ingestion jobs queued");
+            return jobRepository.save(job);
+        }
+    }
+
+    private void runJob(Long jobId) {
+        IngestionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != IngestionJobStatus.QUEUED) {
+            // Cancelled (or removed) while it was waiting in the queue
+            return;
+        }
+
+        job.setStatus(IngestionJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setAttempts(job.getAttempts() + 1);
+        job = jobRepository.save(job);
+
+        JobContext context = new JobContext(job, checkpointRepository.findByJobId(jobId));
+        activeJobs.put(jobId, context);
+        publish(jobId, "progress", statusOf(job, context));
+
+        Integer sampleSize = job.getSampleSize() != null ? job.getSampleSize() : Integer.MAX_VALUE;
+        try {
+            if (Boolean.TRUE.equals(job.getIncremental())) {
+                ingestionEngine.syncAllTitles(context);
+            } else if (Boolean.TRUE.equals(job.getReplay())) {
+                ingestionEngine.downloadAllTitlesFromArchive(sampleSize, context);
+            } else {
+                ingestionEngine.downloadAllTitles(sampleSize, context);
+            }
+            context.finish(context.cancelled.get() ? IngestionJobStatus.CANCELLED : IngestionJobStatus.COMPLETED, null);
+        } catch (RuntimeException e) {
+            logger.error("Ingestion job {} failed: {}", jobId, e.getMessage(), e);
+            context.finish(IngestionJobStatus.FAILED, e.getMessage());
+        } finally {
+            activeJobs.remove(jobId);
+        }
+        completeSubscribers(jobId, statusOf(context.job, null));
+    }
+
+    private IngestionJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Ingestion job not found: " + jobId));
+    }
+
+    private Map<String, Object> statusOf(IngestionJob job, JobContext context) {
+        if (context != null) {
+            job = context.job;
+        }
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", job.getId());
+        status.put("status", job.getStatus());
+        status.put("sampleSize", job.getSampleSize());
+        status.put("replay", job.getReplay());
+        status.put("incremental", Boolean.TRUE.equals(job.getIncremental()));
+        status.put("attempts", job.getAttempts());
+        status.put("createdAt", job.getCreatedAt());
+        status.put("startedAt", job.getStartedAt());
+        status.put("finishedAt", job.getFinishedAt());
+        status.put("titlesCompleted", job.getTitlesCompleted());
+        status.put("partsCompleted", job.getPartsCompleted());
+        status.put("partsCreated", job.getPartsCreated());
+        status.put("partsUpdated", job.getPartsUpdated());
+        status.put("errors", job.getErrors());
+        status.put("totalWordCount", job.getTotalWordCount());
+        status.put("message", job.getMessage());
+        status.put("resumable", job.isResumable());
+
+        if (context != null) {
+            status.put("titlesCompleted", context.titlesCompleted.get());
+            status.put("partsCompleted", context.partsCompleted.get());
+            status.put("partsCreated", context.partsCreated.get());
+            status.put("partsUpdated", context.partsUpdated.get());
+            status.put("errors", context.errors.get());
+            status.put("totalWordCount", context.totalWordCount.get());
+            status.put("cancelRequested", context.cancelled.get());
+            status.put("titlesInProgress", context.titleProgress());
+            status.put("partsPerMinute", context.partsPerMinute());
+        }
+        return status;
+    }
+
+    private void publish(Long jobId, String eventName, Map<String, Object> data) {
+        List<SseEmitter> emitters = subscribers.get(jobId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            if (!send(emitter, eventName, data)) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    private void completeSubscribers(Long jobId, Map<String, Object> finalStatus) {
+        List<SseEmitter> emitters = subscribers.remove(jobId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(emitter, "complete", finalStatus);
+            emitter.complete();
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String eventName, Map<String, Object> data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; it can re-subscribe or poll the status endpoint
+            logger.debug("Dropping ingestion job event subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ingestion context for one attempt of a job, backed by its persisted checkpoints
+     */
+    private class JobContext implements IngestionContext {
+        private final Long jobId;
+        private final Set<Integer> completedTitles = ConcurrentHashMap.newKeySet();
+        private final Set<String> completedParts = ConcurrentHashMap.newKeySet();
+        private final Map<Integer, int[]> progressByTitle = new ConcurrentHashMap<>();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final long startedAtMillis = System.currentTimeMillis();
+        private final int partsAtStart;
+
+        // Seeded from the job so totals stay cumulative across resumed attempts
+        private final AtomicInteger titlesCompleted;
+        private final AtomicInteger partsCompleted;
+        private final AtomicInteger partsCreated;
+        private final AtomicInteger partsUpdated;
+        private final AtomicInteger errors;
+        private final AtomicLong totalWordCount;
+
+        // Replaced under this lock; volatile so status reads from other threads see the latest copy
+        private volatile IngestionJob job;
+
+        JobContext(IngestionJob job, Collection<IngestionCheckpoint> checkpoints) {
+            this.job = job;
+            this.jobId = job.getId();
+            for (IngestionCheckpoint checkpoint : checkpoints) {
+                if (checkpoint.isTitleCheckpoint()) {
+                    completedTitles.add(checkpoint.getCfrTitle());
+                } else {
+                    completedParts.add(partKey(checkpoint.getCfrTitle(), checkpoint.getPartNumber()));
+                }
+            }
+            this.titlesCompleted = new AtomicInteger(job.getTitlesCompleted());
+            this.partsCompleted = new AtomicInteger(job.getPartsCompleted());
+            this.partsCreated = new AtomicInteger(job.getPartsCreated());
+            this.partsUpdated = new AtomicInteger(job.getPartsUpdated());
+            this.errors = new AtomicInteger(job.getErrors());
+            this.totalWordCount = new AtomicLong(job.getTotalWordCount());
+            this.partsAtStart = job.getPartsCompleted();
+            if (!checkpoints.isEmpty()) {
+                logger.info("Ingestion job {} resuming past {} completed titles and {} completed parts",
+                        jobId, completedTitles.size(), completedParts.size());
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        @Override
+        public boolean isTitleCompleted(int titleNumber) {
+            return completedTitles.contains(titleNumber);
+        }
+
+        @Override
+        public boolean isPartCompleted(int titleNumber, String partNumber) {
+            return completedParts.contains(partKey(titleNumber, partNumber));
+        }
+
+        @Override
+        public int getCheckpointInterval() {
+            return checkpointParts;
+        }
+
+        @Override
+        public void onTitleStarted(int titleNumber, int partsPlanned) {
+            progressByTitle.put(titleNumber, new int[] {0, partsPlanned});
+        }
+
+        @Override
+        public void onPartsCompleted(int titleNumber, List<String> partNumbers, Map<String, Object> saveResult) {
+            List<IngestionCheckpoint> checkpoints = new ArrayList<>(partNumbers.size());
+            for (String partNumber : partNumbers) {
+                checkpoints.add(new IngestionCheckpoint(jobId, titleNumber, partNumber));
+                completedParts.add(partKey(titleNumber, partNumber));
+            }
+            checkpointRepository.saveAll(checkpoints);
+
+            int[] progress = progressByTitle.get(titleNumber);
+            if (progress != null) {
+                synchronized (progress) {
+                    progress[0] += partNumbers.size();
+                }
+            }
+            partsCompleted.addAndGet(partNumbers.size());
+            partsCreated.addAndGet(count(saveResult, "created"));
+            partsUpdated.addAndGet(count(saveResult, "updated"));
+            errors.addAndGet(count(saveResult, "errors"));
+            totalWordCount.addAndGet(count(saveResult, "totalWordCount"));
+
+            persistCounters();
+            publish(jobId, "progress", statusOf(job, this));
+        }
+
+        @Override
+        public void onTitleCompleted(int titleNumber, Map<String, Object> titleResult) {
+            checkpointRepository.save(new IngestionCheckpoint(jobId, titleNumber, null));
+            completedTitles.add(titleNumber);
+            progressByTitle.remove(titleNumber);
+            titlesCompleted.incrementAndGet();
+
+            persistCounters();
+            publish(jobId, "progress", statusOf(job, this));
+        }
+
+        synchronized void finish(IngestionJobStatus status, String message) {
+            copyCounters();
+            job.setStatus(status);
+            job.setFinishedAt(LocalDateTime.now());
+            job.setMessage(message);
+            job = jobRepository.save(job);
+            logger.info("Ingestion job {} {}: {} titles, {} parts ({} created, {} updated, {} errors)",
+                    jobId, status, job.getTitlesCompleted(), job.getPartsCompleted(),
+                    job.getPartsCreated(), job.getPartsUpdated(), job.getErrors());
+        }
+
+        Map<Integer, Map<String, Integer>> titleProgress() {
+            Map<Integer, Map<String, Integer>> titles = new TreeMap<>();
+            progressByTitle.forEach((title, progress) -> {
+                Map<String, Integer> entry = new HashMap<>();
+                synchronized (progress) {
+                    entry.put("partsCompleted", progress[0]);
+                    entry.put("partsPlanned", progress[1]);
+                }
+                titles.put(title, entry);
+            });
+            return titles;
+        }
+
+        double partsPerMinute() {
+            long elapsedMillis = Math.max(1, System.currentTimeMillis() - startedAtMillis);
+            return (partsCompleted.get() - partsAtStart) * 60000.0 / elapsedMillis;
+        }
+
+        private synchronized void persistCounters() {
+            copyCounters();
+            job = jobRepository.save(job);
+        }
+
+        private void copyCounters() {
+            job.setTitlesCompleted(titlesCompleted.get());
+            job.setPartsCompleted(partsCompleted.get());
+            job.setPartsCreated(partsCreated.get());
+            job.setPartsUpdated(partsUpdated.get());
+            job.setErrors(errors.get());
+            job.setTotalWordCount(totalWordCount.get());
+        }
+
+        private String partKey(int titleNumber, String partNumber) {
+            return titleNumber + ":" + partNumber;
+        }
+
+        private int count(Map<String, Object> result, String key) {
+            Object value = result.get(key);
+            return value instanceof Number ? ((Number) value).intValue() : 0;
+        }
+    }
+}
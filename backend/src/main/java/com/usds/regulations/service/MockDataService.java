@@ -6,7 +6,6 @@ import com.usds.regulations.entity.RelationshipType;
 import com.usds.regulations.entity.ConflictSeverity;
 import org.springframework.stereotype.Service;
 
-import java.security.MessageDigest;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -48,8 +47,6 @@ public class MockDataService {
         
         regulation.setTitle(mockTitle);
         regulation.setContent(mockContent);
-        regulation.setWordCount(calculateWordCount(mockContent));
-        regulation.setContentChecksum(generateChecksum(mockContent));
         
         // Mock amendment dates
         LocalDate baseDate = LocalDate.of(2020, 1, 1);
@@ -373,30 +370,6 @@ public class MockDataService {
         };
     }
     
-    private Integer calculateWordCount(String content) {
-        if (content == null || content.trim().isEmpty()) {
-            return 0;
-        }
-        return content.trim().split("\\s+").length;
-    }
-    
-    private String generateChecksum(String content) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(content.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            return "mock-checksum-" + System.currentTimeMillis();
-        }
-    }
     
     /**
      * Generate enhanced mock data with varied content lengths and potential relationships
@@ -429,8 +402,6 @@ public class MockDataService {
         
         regulation.setTitle(mockTitle);
         regulation.setContent(mockContent);
-        regulation.setWordCount(calculateWordCount(mockContent));
-        regulation.setContentChecksum(generateChecksum(mockContent));
         
         // Mock amendment dates with more variety
         LocalDate baseDate = LocalDate.of(2018, 1, 1);
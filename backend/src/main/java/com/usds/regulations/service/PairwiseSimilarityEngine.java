@@ -0,0 +1,172 @@
+package com.usds.regulations.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs pairwise comparisons on a dedicated {@link ForkJoinPool}. All pairs of n items
+ * (the upper triangle of the pair matrix) are cut into square tiles of
+ * {@link #TILE_SIZE} items a side, so a worker compares one block of rows against one
+ * block of columns at a time; a list of candidate pairs is cut into fixed-size runs.
+ * Each task collects its results into its own buffer and buffers are concatenated as
+ * tasks join, so the order of results is deterministic: tile by tile, and candidate
+ * pairs in the order given.
+ * <p>
+ * Compare functions run on the pool's threads: they must only read state prepared
+ * beforehand (no lazy JPA loading) and return null for pairs without a result.
+ */
+@Service
+public class PairwiseSimilarityEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PairwiseSimilarityEngine.class);
+
+    static final int TILE_SIZE = 64;
+
+    // Candidate pairs compared per task
+    static final int PAIR_RUN = TILE_SIZE * TILE_SIZE;
+
+    /** Number of workers; 0 uses one per available processor */
+    @Value("${regulations.similarity.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    public PairwiseSimilarityEngine() {
+    }
+
+    PairwiseSimilarityEngine(int parallelism) {
+        this.parallelism = parallelism;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(workers, PairwiseSimilarityEngine::newWorker, null, false);
+        logger.info("Pairwise similarity engine started with {} workers", workers);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Compare every pair (i, j) with 0 <= i < j < count
+     */
+    public <R> List<R> compareAll(int count, PairFunction<R> function) {
+        int blocks = (count + TILE_SIZE - 1) / TILE_SIZE;
+        int[] tileRows = new int[blocks * (blocks + 1) / 2];
+        int[] tileColumns = new int[tileRows.length];
+        int tile = 0;
+        for (int row = 0; row < blocks; row++) {
+            for (int column = row; column < blocks; column++) {
+                tileRows[tile] = row;
+                tileColumns[tile++] = column;
+            }
+        }
+        return run(new Task<>(tileRows.length, (from, to, results) -> {
+            for (int t = from; t < to; t++) {
+                compareTile(count, tileRows[t], tileColumns[t], function, results);
+            }
+        }));
+    }
+
+    /**
+     * Compare the given pairs, each packed as (i << 32) | j
+     */
+    public <R> List<R> compareCandidates(long[] pairs, PairFunction<R> function) {
+        int runs = (pairs.length + PAIR_RUN - 1) / PAIR_RUN;
+        return run(new Task<>(runs, (from, to, results) -> {
+            for (int p = from * PAIR_RUN, end = Math.min(pairs.length, to * PAIR_RUN); p < end; p++) {
+                collect(function.compare((int) (pairs[p] >>> 32), (int) pairs[p]), results);
+            }
+        }));
+    }
+
+    private <R> List<R> run(Task<R> task) {
+        // A single unit of work is not worth a hand-off to the pool
+        return task.to - task.from <= 1 ? task.compute() : pool.invoke(task);
+    }
+
+    private static <R> void compareTile(int count, int tileRow, int tileColumn, PairFunction<R> function, List<R> results) {
+        int rowEnd = Math.min(count, (tileRow + 1) * TILE_SIZE);
+        int columnStart = tileColumn * TILE_SIZE;
+        int columnEnd = Math.min(count, columnStart + TILE_SIZE);
+        for (int i = tileRow * TILE_SIZE; i < rowEnd; i++) {
+            // Tiles on the diagonal only hold the pairs above it
+            for (int j = Math.max(columnStart, i + 1); j < columnEnd; j++) {
+                collect(function.compare(i, j), results);
+            }
+        }
+    }
+
+    private static <R> void collect(R result, List<R> results) {
+        if (result != null) {
+            results.add(result);
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("similarity-" + worker.getPoolIndex());
+        return worker;
+    }
+
+    /**
+     * Result of comparing items i and j, or null if the pair has none
+     */
+    @FunctionalInterface
+    public interface PairFunction<R> {
+        R compare(int i, int j);
+    }
+
+    private interface Units<R> {
+        void process(int from, int to, List<R> results);
+    }
+
+    /**
+     * Halves its range of work units until one is left, then fills its own result buffer
+     */
+    private static class Task<R> extends RecursiveTask<List<R>> {
+        private final int from;
+        private final int to;
+        private final Units<R> units;
+
+        Task(int count, Units<R> units) {
+            this(0, count, units);
+        }
+
+        private Task(int from, int to, Units<R> units) {
+            this.from = from;
+            this.to = to;
+            this.units = units;
+        }
+
+        @Override
+        protected List<R> compute() {
+            if (to - from <= 1) {
+                List<R> results = new ArrayList<>();
+                units.process(from, to, results);
+                return results;
+            }
+            int middle = (from + to) >>> 1;
+            Task<R> right = new Task<>(middle, to, units);
+            right.fork();
+            List<R> results = new Task<>(from, middle, units).compute();
+            results.addAll(right.join());
+            return results;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.usds.regulations.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Content-addressed archive of every raw eCFR payload we ingest.
+ * Bodies are stored gzip-compressed under the SHA-256 of their uncompressed
+ * bytes (objects/ab/abcd....gz), and a small ref file per URL records which
+ * payload that URL last returned. Regulations link to their payload through
+ * a "#sha256=..." fragment on sourceUrl.
+ *
+ * In replay mode every outbound GET is answered from the archive instead of
+ * the network, reading the stored objects through memory-mapped files.
+ * Replay is either switched on globally (ecfr.archive.replay) or scoped to
+ * one ingest run with {@link #runInReplay(Supplier)}.
+ */
+@Component
+public class RawPayloadArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(RawPayloadArchive.class);
+
+    private static final String HASH_FRAGMENT = "#sha256=";
+    private static final String REF_URL = "url";
+    private static final String REF_SHA256 = "sha256";
+    private static final String REF_ARCHIVED_AT = "archivedAt";
+
+    // Replay flag for the current ingest run; copied onto worker threads by propagateReplayScope
+    private static final ThreadLocal<Boolean> REPLAY_SCOPE = new ThreadLocal<>();
+
+    @Value("${ecfr.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ecfr.archive.replay:false}")
+    private boolean replayAlways;
+
+    @Value("${ecfr.archive.dir:./data/ecfr-archive}")
+    private String archiveDir;
+
+    private Path objectsDir;
+    private Path refsDir;
+
+    private final AtomicLong payloadsStored = new AtomicLong();
+    private final AtomicLong duplicatePayloads = new AtomicLong();
+    private final AtomicLong payloadsReplayed = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        Path root = Paths.get(archiveDir).toAbsolutePath();
+        objectsDir = root.resolve("objects");
+        refsDir = root.resolve("refs");
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(objectsDir);
+            Files.createDirectories(refsDir);
+            logger.info("eCFR raw payload archive at {}", root);
+        } catch (IOException e) {
+            logger.warn("Could not create payload archive directory {}, archiving disabled: {}", root, e.getMessage());
+            enabled = false;
+        }
+    }
+
+    /**
+     * Whether fetched payloads are written to the archive
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the current thread should read payloads from the archive instead of the network
+     */
+    public boolean isReplayActive() {
+        return replayAlways || Boolean.TRUE.equals(REPLAY_SCOPE.get());
+    }
+
+    /**
+     * Run an ingest with every outbound GET served from the archive
+     */
+    public <T> T runInReplay(Supplier<T> work) {
+        Boolean previous = REPLAY_SCOPE.get();
+        REPLAY_SCOPE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            restoreReplayScope(previous);
+        }
+    }
+
+    /**
+     * Task decorator for ingest executors so part and title workers inherit the submitter's replay scope
+     */
+    public static Runnable propagateReplayScope(Runnable task) {
+        Boolean submitterScope = REPLAY_SCOPE.get();
+        return () -> {
+            Boolean previous = REPLAY_SCOPE.get();
+            REPLAY_SCOPE.set(submitterScope);
+            try {
+                task.run();
+            } finally {
+                restoreReplayScope(previous);
+            }
+        };
+    }
+
+    /**
+     * Store a payload and point the URL's ref at it; returns the payload's SHA-256
+     */
+    public String store(String url, InputStream body) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(objectsDir, "payload-", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(body, digest);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                in.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path object = objectPath(hash);
+            if (Files.exists(object)) {
+                duplicatePayloads.incrementAndGet();
+            } else {
+                Files.createDirectories(object.getParent());
+                Files.move(temp, object, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                payloadsStored.incrementAndGet();
+            }
+            writeRef(url, hash);
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * SHA-256 of the payload the URL last returned, or null if never archived
+     */
+    public String getPayloadHash(String url) {
+        Properties ref = readRef(url);
+        return ref != null ? ref.getProperty(REF_SHA256) : null;
+    }
+
+    /**
+     * Source URL annotated with the archived payload it came from
+     */
+    public String sourceUrlFor(String url) {
+        String hash = getPayloadHash(url);
+        return hash != null ? url + HASH_FRAGMENT + hash : url;
+    }
+
+    /**
+     * Open a stored payload (decompressed)
+     */
+    public InputStream open(String hash) throws IOException {
+        return new GZIPInputStream(Files.newInputStream(objectPath(hash)), 64 * 1024);
+    }
+
+    /**
+     * Open the payload last archived for a URL through a memory-mapped view of the object file
+     */
+    public InputStream openForReplay(String url) throws IOException {
+        String hash = getPayloadHash(url);
+        if (hash == null) {
+            throw new IOException("No archived payload for " + url);
+        }
+
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(objectPath(hash), StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        payloadsReplayed.incrementAndGet();
+        return new GZIPInputStream(new ByteBufferInputStream(mapped), 64 * 1024);
+    }
+
+    /**
+     * Archive counters for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("replayAlways", replayAlways);
+        metrics.put("directory", objectsDir.getParent().toString());
+        metrics.put("payloadsStored", payloadsStored.get());
+        metrics.put("duplicatePayloads", duplicatePayloads.get());
+        metrics.put("payloadsReplayed", payloadsReplayed.get());
+        return metrics;
+    }
+
+    private Properties readRef(String url) {
+        Path refPath = refPath(url);
+        if (!Files.exists(refPath)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(refPath)) {
+            Properties ref = new Properties();
+            ref.load(in);
+            return url.equals(ref.getProperty(REF_URL)) ? ref : null;
+        } catch (IOException e) {
+            logger.warn("Unreadable archive ref for {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRef(String url, String hash) throws IOException {
+        Properties ref = new Properties();
+        ref.setProperty(REF_URL, url);
+        ref.setProperty(REF_SHA256, hash);
+        ref.setProperty(REF_ARCHIVED_AT, String.valueOf(System.currentTimeMillis()));
+
+        Path temp = Files.createTempFile(refsDir, "ref-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                ref.store(out, null);
+            }
+            Files.move(temp, refPath(url), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path objectPath(String hash) {
+        return objectsDir.resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+    }
+
+    private Path refPath(String url) {
+        return refsDir.resolve(HexFormat.of().formatHex(sha256().digest(url.getBytes(StandardCharsets.UTF_8))) + ".properties");
+    }
+
+    private static void restoreReplayScope(Boolean previous) {
+        if (previous == null) {
+            REPLAY_SCOPE.remove();
+        } else {
+            REPLAY_SCOPE.set(previous);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * InputStream view over a (memory-mapped) buffer
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
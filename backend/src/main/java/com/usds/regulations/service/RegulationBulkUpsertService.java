@@ -0,0 +1,598 @@
+package com.usds.regulations.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.usds.regulations.entity.Regulation;
+import com.usds.regulations.entity.RegulationContent;
+import com.usds.regulations.repository.RegulationRepository;
+import com.usds.regulations.util.ContentCodec;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Persists downloaded or generated regulations in bulk instead of one
+ * SELECT + save per row. Existing (cfrTitle, partNumber) rows of each title are
+ * preloaded in one query; only new or changed rows are written, in JDBC batches.
+ * On PostgreSQL rows go through a native INSERT ... ON CONFLICT upsert, elsewhere
+ * through batched JPA persists/updates (ids come from a pooled sequence so
+ * Hibernate can batch the inserts). Content text is written compressed to
+ * regulation_contents, and only for rows whose text changed.
+ */
+@Service
+public class RegulationBulkUpsertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegulationBulkUpsertService.class);
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO regulations (id, cfr_title, part_number, title, content_id, agency_name, word_count, " +
+        "content_checksum, minhash_signature, created_at, updated_at, latest_amended_on, latest_issue_date, " +
+        "last_updated_on, amendment_count, ecfr_last_modified, source_url) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (cfr_title, part_number) DO UPDATE SET " +
+        "title = EXCLUDED.title, content_id = EXCLUDED.content_id, agency_name = EXCLUDED.agency_name, " +
+        "word_count = EXCLUDED.word_count, content_checksum = EXCLUDED.content_checksum, " +
+        "minhash_signature = COALESCE(EXCLUDED.minhash_signature, regulations.minhash_signature), " +
+        "updated_at = EXCLUDED.updated_at, " +
+        "latest_amended_on = COALESCE(EXCLUDED.latest_amended_on, regulations.latest_amended_on), " +
+        "latest_issue_date = COALESCE(EXCLUDED.latest_issue_date, regulations.latest_issue_date), " +
+        "last_updated_on = COALESCE(EXCLUDED.last_updated_on, regulations.last_updated_on), " +
+        "amendment_count = COALESCE(EXCLUDED.amendment_count, regulations.amendment_count), " +
+        "ecfr_last_modified = COALESCE(EXCLUDED.ecfr_last_modified, regulations.ecfr_last_modified), " +
+        "source_url = COALESCE(EXCLUDED.source_url, regulations.source_url) " +
+        "WHERE regulations.content_checksum IS DISTINCT FROM EXCLUDED.content_checksum " +
+        "OR regulations.latest_amended_on IS DISTINCT FROM EXCLUDED.latest_amended_on " +
+        "OR regulations.last_updated_on IS DISTINCT FROM EXCLUDED.last_updated_on";
+
+    private static final String CONTENT_UPSERT_SQL =
+        "INSERT INTO regulation_contents (id, content_data) VALUES (?, ?) " +
+        "ON CONFLICT (id) DO UPDATE SET content_data = EXCLUDED.content_data, content = NULL";
+
+    @Autowired
+    private RegulationRepository regulationRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${regulations.persistence.batch-size:50}")
+    private int batchSize;
+
+    @Value("${regulations.persistence.native-upsert:true}")
+    private volatile boolean nativeUpsertEnabled;
+
+    private TransactionTemplate transactionTemplate;
+    private volatile boolean postgres;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = product != null && product.toLowerCase().contains("postgresql");
+            logger.info("Bulk upserts use {} (database: {})",
+                    postgres && nativeUpsertEnabled ? "native INSERT ... ON CONFLICT" : "batched JPA writes", product);
+        } catch (DataAccessException e) {
+            logger.warn("Could not detect database product, using batched JPA writes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the database is PostgreSQL, so native upsert syntax can be used
+     */
+    boolean isPostgres() {
+        return postgres;
+    }
+
+    /**
+     * Move regulations_seq past ids handed out before the sequence existed (IDENTITY era rows)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void alignIdSequence() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM regulations", Long.class);
+            alignSequence(Regulation.ID_SEQUENCE, maxId != null ? maxId : 0);
+        } catch (DataAccessException e) {
+            logger.warn("Could not align {} with existing ids: {}", Regulation.ID_SEQUENCE, e.getMessage());
+        }
+    }
+
+    /**
+     * Backfill missing word counts with 0 and make word_count NOT NULL. Schemas created before
+     * the column was declared non-null keep it nullable (ddl-auto=update never alters columns),
+     * and title pages are read off idx_cfr_title_word_count_id on the raw column.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requireWordCounts() {
+        try {
+            int backfilled = jdbcTemplate.update("UPDATE regulations SET word_count = 0 WHERE word_count IS NULL");
+            if (backfilled > 0) {
+                logger.info("Set a word count of 0 on {} regulations that had none", backfilled);
+            }
+            jdbcTemplate.execute("ALTER TABLE regulations ALTER COLUMN word_count SET NOT NULL");
+        } catch (DataAccessException e) {
+            logger.warn("Could not make regulations.word_count NOT NULL: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Make sure a pooled sequence (block size ID_ALLOCATION_SIZE) only hands out ids above maxId
+     */
+    void alignSequence(String sequence, long maxId) {
+        if (maxId == 0) {
+            return;
+        }
+        if (postgres) {
+            jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', GREATEST(?, " +
+                    "(SELECT last_value FROM " + sequence + ")))", Long.class, maxId);
+        } else {
+            Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+            if (next != null && next <= maxId + Regulation.ID_ALLOCATION_SIZE) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH "
+                        + (maxId + Regulation.ID_ALLOCATION_SIZE));
+            }
+        }
+    }
+
+    /**
+     * Insert new regulations and update those whose content or amendment dates changed
+     */
+    public UpsertResult upsert(List<Regulation> regulations) {
+        UpsertResult result = new UpsertResult();
+
+        // Group by title so existing rows are preloaded with one query per title
+        Map<Integer, Map<String, Regulation>> byTitle = new LinkedHashMap<>();
+        for (Regulation regulation : regulations) {
+            byTitle.computeIfAbsent(regulation.getCfrTitle(), t -> new LinkedHashMap<>())
+                   .putIfAbsent(regulation.getPartNumber(), regulation);
+        }
+
+        for (Map.Entry<Integer, Map<String, Regulation>> title : byTitle.entrySet()) {
+            Map<String, ExistingRow> existing = loadExisting(title.getKey());
+
+            List<Regulation> inserts = new ArrayList<>();
+            Map<Long, Regulation> updates = new LinkedHashMap<>();
+            Set<Long> datesOnlyUpdates = new HashSet<>();
+            List<NativeRow> nativeRows = new ArrayList<>();
+            for (Regulation incoming : title.getValue().values()) {
+                ExistingRow row = existing.get(incoming.getPartNumber());
+                if (row != null && incoming.isPlaceholder()) {
+                    // Keep the stored text; the part stays pending and is fetched again next time
+                    result.keptParts.add(incoming.getPartNumber());
+                } else if (row == null) {
+                    inserts.add(incoming);
+                    nativeRows.add(new NativeRow(incoming, null, true));
+                } else if (row.contentChanged(incoming)) {
+                    updates.put(row.id, incoming);
+                    nativeRows.add(new NativeRow(incoming, row, true));
+                    result.updated++;
+                    result.totalWordCount += incoming.getWordCount() != null ? incoming.getWordCount() : 0;
+                } else if (row.datesChanged(incoming)) {
+                    // Same text, newer amendment dates: record them so the next sync skips this part
+                    updates.put(row.id, incoming);
+                    datesOnlyUpdates.add(row.id);
+                    nativeRows.add(new NativeRow(incoming, row, row.contentId == null));
+                    result.datesRefreshed++;
+                } else {
+                    result.unchanged++;
+                }
+            }
+            result.created += inserts.size();
+            for (Regulation insert : inserts) {
+                result.totalWordCount += insert.getWordCount() != null ? insert.getWordCount() : 0;
+            }
+
+            if (postgres && nativeUpsertEnabled) {
+                nativeUpsert(nativeRows, result);
+            } else {
+                jpaInsert(inserts, result);
+                jpaUpdate(updates, datesOnlyUpdates, result);
+            }
+            logger.debug("Upserted Title {}: {}", title.getKey(), result);
+        }
+
+        return result;
+    }
+
+    private Map<String, ExistingRow> loadExisting(Integer cfrTitle) {
+        Map<String, ExistingRow> existing = new HashMap<>();
+        for (Object[] row : regulationRepository.getExistingPartState(cfrTitle)) {
+            existing.put((String) row[0], new ExistingRow((Long) row[1], (String) row[2],
+                    (LocalDate) row[3], (LocalDate) row[4], (LocalDate) row[5], (Long) row[6],
+                    (String) row[7], (Integer) row[8]));
+        }
+        return existing;
+    }
+
+    private void jpaInsert(List<Regulation> inserts, UpsertResult result) {
+        for (List<Regulation> chunk : chunks(inserts)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<RegulationChangeEvent.Change> changes = new ArrayList<>(chunk.size());
+                    for (Regulation regulation : chunk) {
+                        entityManager.persist(regulation);
+                        changes.add(RegulationChangeEvent.Change.created(regulation, regulation.getUpdatedAt()));
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    eventPublisher.publishEvent(new RegulationChangeEvent(changes));
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Batch insert of {} regulations failed, retrying row by row: {}", chunk.size(), e.getMessage());
+                for (Regulation regulation : chunk) {
+                    regulation.clearIds();
+                    saveOne(regulation, null, Outcome.CREATED, result);
+                }
+            }
+        }
+    }
+
+    private void jpaUpdate(Map<Long, Regulation> updates, Set<Long> datesOnlyUpdates, UpsertResult result) {
+        for (List<Long> ids : chunks(new ArrayList<>(updates.keySet()))) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Regulation> stored = regulationRepository.findAllWithContentByIdIn(ids);
+                    List<Before> before = new ArrayList<>(stored.size());
+                    for (Regulation regulation : stored) {
+                        before.add(new Before(regulation));
+                        applyUpdate(updates.get(regulation.getId()), regulation);
+                    }
+                    // Flushing runs @PreUpdate, which stamps updatedAt
+                    entityManager.flush();
+                    entityManager.clear();
+                    List<RegulationChangeEvent.Change> changes = new ArrayList<>(stored.size());
+                    for (int i = 0; i < stored.size(); i++) {
+                        changes.add(before.get(i).updatedTo(stored.get(i), stored.get(i).getUpdatedAt()));
+                    }
+                    eventPublisher.publishEvent(new RegulationChangeEvent(changes));
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Batch update of {} regulations failed, retrying row by row: {}", ids.size(), e.getMessage());
+                for (Long id : ids) {
+                    updateOne(id, updates.get(id), datesOnlyUpdates.contains(id) ? Outcome.DATES_REFRESHED : Outcome.UPDATED, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * A stored regulation with its content loaded, so replacing the text works on the detached entity
+     */
+    private Optional<Regulation> loadWithContent(Long id) {
+        return regulationRepository.findAllWithContentByIdIn(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * Apply an update to one stored row in its own transaction
+     * @param outcome what the row was counted as when the upsert was planned
+     */
+    private void updateOne(Long id, Regulation incoming, Outcome outcome, UpsertResult result) {
+        Optional<Regulation> stored = loadWithContent(id);
+        if (stored.isEmpty()) {
+            logger.error("Error saving Title {} Part {}: row {} no longer exists", incoming.getCfrTitle(), incoming.getPartNumber(), id);
+            result.failed(outcome, incoming);
+            return;
+        }
+        Before before = new Before(stored.get());
+        applyUpdate(incoming, stored.get());
+        saveOne(stored.get(), before, outcome, result);
+    }
+
+    /**
+     * Save one regulation in its own transaction, taking it back out of the counts if that fails
+     * @param before state of the stored row before the update, or null for an insert
+     * @param outcome what the row was counted as when the upsert was planned
+     */
+    private void saveOne(Regulation regulation, Before before, Outcome outcome, UpsertResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Regulation saved = regulationRepository.saveAndFlush(regulation); // DATABASE HIT
+                eventPublisher.publishEvent(new RegulationChangeEvent(List.of(before == null
+                        ? RegulationChangeEvent.Change.created(saved, saved.getUpdatedAt())
+                        : before.updatedTo(saved, saved.getUpdatedAt()))));
+            });
+        } catch (RuntimeException e) {
+            logger.error("Error saving Title {} Part {}: {}", regulation.getCfrTitle(), regulation.getPartNumber(), e.getMessage());
+            result.failed(outcome, regulation);
+        }
+    }
+
+    private void nativeUpsert(List<NativeRow> rows, UpsertResult result) {
+        for (List<NativeRow> chunk : chunks(rows)) {
+            List<Long> ids = allocateIds(Regulation.ID_SEQUENCE, chunk.size());
+            List<Long> newContentIds = allocateIds(RegulationContent.ID_SEQUENCE,
+                    (int) chunk.stream().filter(row -> row.contentId() == null).count());
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> contentArgs = new ArrayList<>(chunk.size());
+            List<Object[]> batchArgs = new ArrayList<>(chunk.size());
+            List<RegulationChangeEvent.Change> changes = new ArrayList<>(chunk.size());
+            int nextContentId = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                NativeRow row = chunk.get(i);
+                Regulation r = row.regulation;
+                Long contentId = row.contentId() != null ? row.contentId() : newContentIds.get(nextContentId++);
+                if (row.writeContent) {
+                    contentArgs.add(new Object[] { contentId, ContentCodec.encode(r.getContent()) });
+                }
+                // Dates-only rows send no signature and keep the stored one
+                byte[] signature = null;
+                if (row.existing == null || row.existing.contentChanged(r)) {
+                    r.refreshMinhashSignature();
+                    signature = r.getMinhashSignature();
+                }
+                batchArgs.add(new Object[] {
+                    ids.get(i), r.getCfrTitle(), r.getPartNumber(), r.getTitle(), contentId, r.getAgencyName(),
+                    r.getWordCount(), r.getContentChecksum(), signature,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now),
+                    toSqlDate(r.getLatestAmendedOn()), toSqlDate(r.getLatestIssueDate()), toSqlDate(r.getLastUpdatedOn()),
+                    r.getAmendmentCount(),
+                    r.getEcfrLastModified() != null ? Timestamp.valueOf(r.getEcfrLastModified()) : null,
+                    r.getSourceUrl()
+                });
+                changes.add(row.existing == null
+                        ? RegulationChangeEvent.Change.created(r, now)
+                        : row.existing.before.updatedTo(r, now));
+            }
+            try {
+                // Content rows first: regulations.content_id references them
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(CONTENT_UPSERT_SQL, contentArgs);
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+                    eventPublisher.publishEvent(new RegulationChangeEvent(changes));
+                });
+            } catch (DataAccessException e) {
+                // e.g. the unique (cfr_title, part_number) constraint could not be created over duplicate rows
+                logger.warn("Native upsert failed, falling back to batched JPA writes: {}", e.getMessage());
+                nativeUpsertEnabled = false;
+                for (NativeRow row : chunk) {
+                    Regulation regulation = row.regulation;
+                    Outcome outcome = row.existing == null ? Outcome.CREATED
+                            : row.existing.contentChanged(regulation) ? Outcome.UPDATED : Outcome.DATES_REFRESHED;
+                    Long existingId = regulationRepository.findByCfrTitleAndPartNumber(
+                            regulation.getCfrTitle(), regulation.getPartNumber()).map(Regulation::getId).orElse(null);
+                    if (existingId == null) {
+                        saveOne(regulation, null, outcome, result);
+                    } else {
+                        updateOne(existingId, regulation, outcome, result);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserve ids from a sequence the same way Hibernate's pooled optimizer does:
+     * each nextval is the top of a block of ID_ALLOCATION_SIZE ids
+     */
+    private List<Long> allocateIds(String sequence, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        int blocks = (count + Regulation.ID_ALLOCATION_SIZE - 1) / Regulation.ID_ALLOCATION_SIZE + 1;
+        List<Long> blockTops = jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (Long top : blockTops) {
+            // A freshly created sequence starts at 1, which is not the top of a full block
+            if (top < Regulation.ID_ALLOCATION_SIZE) {
+                continue;
+            }
+            for (long id = top - Regulation.ID_ALLOCATION_SIZE + 1; id <= top && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        if (ids.size() < count) {
+            ids.addAll(allocateIds(sequence, count - ids.size()));
+        }
+        return ids;
+    }
+
+    /**
+     * Copy ingest-owned fields onto a stored regulation, never wiping values the incoming row lacks
+     */
+    private static void applyUpdate(Regulation from, Regulation to) {
+        to.setTitle(from.getTitle());
+        to.copyContentFrom(from);
+        to.setAgencyName(from.getAgencyName());
+        if (from.getLatestAmendedOn() != null || from.getLastUpdatedOn() != null) {
+            to.setLatestAmendedOn(from.getLatestAmendedOn());
+            to.setLatestIssueDate(from.getLatestIssueDate());
+            to.setLastUpdatedOn(from.getLastUpdatedOn());
+        }
+        if (from.getAmendmentCount() != null) {
+            to.setAmendmentCount(from.getAmendmentCount());
+        }
+        if (from.getEcfrLastModified() != null) {
+            to.setEcfrLastModified(from.getEcfrLastModified());
+        }
+        if (from.getSourceUrl() != null) {
+            to.setSourceUrl(from.getSourceUrl());
+        }
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += batchSize) {
+            chunks.add(items.subList(start, Math.min(items.size(), start + batchSize)));
+        }
+        return chunks;
+    }
+
+    private static Date toSqlDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+
+    /**
+     * Preloaded state of a stored row, enough to decide whether it needs writing
+     */
+    private static class ExistingRow {
+        private final Long id;
+        private final String contentChecksum;
+        private final LocalDate latestAmendedOn;
+        private final LocalDate latestIssueDate;
+        private final LocalDate lastUpdatedOn;
+        private final Long contentId;
+        private final Before before;
+
+        ExistingRow(Long id, String contentChecksum, LocalDate latestAmendedOn, LocalDate latestIssueDate,
+                    LocalDate lastUpdatedOn, Long contentId, String agencyName, Integer wordCount) {
+            this.id = id;
+            this.contentChecksum = contentChecksum;
+            this.latestAmendedOn = latestAmendedOn;
+            this.latestIssueDate = latestIssueDate;
+            this.lastUpdatedOn = lastUpdatedOn;
+            this.contentId = contentId;
+            this.before = new Before(agencyName, wordCount);
+        }
+
+        boolean contentChanged(Regulation incoming) {
+            return !Objects.equals(contentChecksum, incoming.getContentChecksum());
+        }
+
+        boolean datesChanged(Regulation incoming) {
+            // Sources that carry no dates never count as a change
+            if (incoming.getLatestAmendedOn() == null && incoming.getLastUpdatedOn() == null) {
+                return false;
+            }
+            return !Objects.equals(latestAmendedOn, incoming.getLatestAmendedOn())
+                    || !Objects.equals(latestIssueDate, incoming.getLatestIssueDate())
+                    || !Objects.equals(lastUpdatedOn, incoming.getLastUpdatedOn());
+        }
+    }
+
+    /**
+     * The fields of a stored row that analytics aggregate, as they were before an update
+     */
+    private static class Before {
+        private final String agencyName;
+        private final Integer wordCount;
+
+        Before(String agencyName, Integer wordCount) {
+            this.agencyName = agencyName;
+            this.wordCount = wordCount;
+        }
+
+        Before(Regulation stored) {
+            this(stored.getAgencyName(), stored.getWordCount());
+        }
+
+        RegulationChangeEvent.Change updatedTo(Regulation regulation, LocalDateTime changedAt) {
+            return RegulationChangeEvent.Change.updated(agencyName, wordCount, regulation, changedAt);
+        }
+    }
+
+    /**
+     * A row for the native upsert: the stored row it replaces (null = new) and whether its text is written
+     */
+    private static class NativeRow {
+        private final Regulation regulation;
+        private final ExistingRow existing;
+        private final boolean writeContent;
+
+        NativeRow(Regulation regulation, ExistingRow existing, boolean writeContent) {
+            this.regulation = regulation;
+            this.existing = existing;
+            this.writeContent = writeContent;
+        }
+
+        Long contentId() {
+            return existing != null ? existing.contentId : null;
+        }
+    }
+
+    /**
+     * What a row was counted as when an upsert was planned
+     */
+    private enum Outcome {
+        CREATED, UPDATED, DATES_REFRESHED
+    }
+
+    /**
+     * Counts from one bulk upsert
+     */
+    public static class UpsertResult {
+        private int created;
+        private int updated;
+        private int datesRefreshed;
+        private int unchanged;
+        private int errors;
+        private long totalWordCount;
+        private final Set<String> failedParts = new LinkedHashSet<>();
+        private final Set<String> keptParts = new LinkedHashSet<>();
+
+        public int getCreated() { return created; }
+        public int getUpdated() { return updated; }
+        public int getDatesRefreshed() { return datesRefreshed; }
+        public int getUnchanged() { return unchanged; }
+        public int getErrors() { return errors; }
+        public long getTotalWordCount() { return totalWordCount; }
+
+        /** Part numbers of the rows that could not be saved */
+        public Set<String> getFailedParts() { return failedParts; }
+
+        /** Part numbers of placeholders that were not written over the stored row */
+        public Set<String> getKeptParts() { return keptParts; }
+
+        // A planned row could not be saved: count it as an error instead
+        private void failed(Outcome outcome, Regulation regulation) {
+            errors++;
+            failedParts.add(regulation.getPartNumber());
+            int wordCount = regulation.getWordCount() != null ? regulation.getWordCount() : 0;
+            switch (outcome) {
+                case CREATED -> {
+                    created--;
+                    totalWordCount -= wordCount;
+                }
+                case UPDATED -> {
+                    updated--;
+                    totalWordCount -= wordCount;
+                }
+                case DATES_REFRESHED -> datesRefreshed--;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "created=" + created + ", updated=" + updated + ", datesRefreshed=" + datesRefreshed
+                    + ", unchanged=" + unchanged + ", kept=" + keptParts.size() + ", errors=" + errors;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.usds.regulations.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.usds.regulations.entity.Regulation;
+
+/**
+ * Regulations created, updated or deleted by one write, published from inside the
+ * writing transaction. Listeners act on it only once that transaction committed, so
+ * they never see a rolled-back write and cannot fail the write themselves.
+ */
+public class RegulationChangeEvent {
+
+    private final List<Change> changes;
+
+    public RegulationChangeEvent(List<Change> changes) {
+        this.changes = changes;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * State of one regulation before and after the write, reduced to what aggregates need
+     */
+    public static class Change {
+        private final Integer cfrTitle;
+        private final boolean existedBefore;
+        private final String previousAgencyName;
+        private final long previousWordCount;
+        private final boolean existsAfter;
+        private final String agencyName;
+        private final long wordCount;
+        private final LocalDateTime changedAt;
+
+        private Change(Integer cfrTitle, boolean existedBefore, String previousAgencyName, Integer previousWordCount,
+                       boolean existsAfter, String agencyName, Integer wordCount, LocalDateTime changedAt) {
+            this.cfrTitle = cfrTitle;
+            this.existedBefore = existedBefore;
+            this.previousAgencyName = previousAgencyName;
+            this.previousWordCount = previousWordCount != null ? previousWordCount : 0;
+            this.existsAfter = existsAfter;
+            this.agencyName = agencyName;
+            this.wordCount = wordCount != null ? wordCount : 0;
+            this.changedAt = changedAt;
+        }
+
+        public static Change created(Regulation regulation, LocalDateTime changedAt) {
+            return new Change(regulation.getCfrTitle(), false, null, null,
+                    true, regulation.getAgencyName(), regulation.getWordCount(), changedAt);
+        }
+
+        public static Change updated(String previousAgencyName, Integer previousWordCount,
+                                     Regulation regulation, LocalDateTime changedAt) {
+            return new Change(regulation.getCfrTitle(), true, previousAgencyName, previousWordCount,
+                    true, regulation.getAgencyName(), regulation.getWordCount(), changedAt);
+        }
+
+        public static Change deleted(Regulation regulation) {
+            return new Change(regulation.getCfrTitle(), true, regulation.getAgencyName(), regulation.getWordCount(),
+                    false, null, null, null);
+        }
+
+        public Integer getCfrTitle() { return cfrTitle; }
+        public boolean isExistedBefore() { return existedBefore; }
+        public String getPreviousAgencyName() { return previousAgencyName; }
+        public long getPreviousWordCount() { return previousWordCount; }
+        public boolean isExistsAfter() { return existsAfter; }
+        public String getAgencyName() { return agencyName; }
+        public long getWordCount() { return wordCount; }
+        /** When the regulation was written; null for deletes */
+        public LocalDateTime getChangedAt() { return changedAt; }
+    }
+}
@@ -0,0 +1,186 @@
+package com.usds.regulations.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.usds.regulations.entity.RegulationContent;
+import com.usds.regulations.util.ContentCodec;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Brings stored regulation text up to the current layout, in two steps:
+ * <ol>
+ *   <li>Text left in the old regulations.content column moves into regulation_contents.
+ *       Schemas created before content got its own table keep that column (ddl-auto=update
+ *       never drops columns); each migrated row gets a content row with the regulation's own
+ *       id and the old column is cleared. Runs before any other startup work so that
+ *       resumed ingestion jobs only ever see migrated rows.</li>
+ *   <li>Plain text in regulation_contents.content is re-encoded into the compressed
+ *       content_data column. This runs online on a background thread in small batches;
+ *       until a row is reached it is simply read from the plain column.</li>
+ * </ol>
+ */
+@Service
+public class RegulationContentMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegulationContentMigration.class);
+
+    private static final String PENDING_CONDITION = "content IS NOT NULL AND content_id IS NULL";
+    private static final String UNENCODED_CONDITION = "content IS NOT NULL AND content_data IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RegulationBulkUpsertService bulkUpsertService;
+
+    @Value("${regulations.persistence.content-migration-batch-size:500}")
+    private int batchSize;
+
+    @Value("${regulations.persistence.content-migration-pause-millis:50}")
+    private long pauseMillis;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrateContent() {
+        moveLegacyContent();
+        startReencoding();
+    }
+
+    private void moveLegacyContent() {
+        Long pending;
+        try {
+            pending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM regulations WHERE " + PENDING_CONDITION, Long.class);
+        } catch (DataAccessException e) {
+            // Schema created with regulation_contents from the start: no legacy column
+            logger.debug("No legacy regulations.content column to migrate");
+            return;
+        }
+        if (pending == null || pending == 0) {
+            return;
+        }
+
+        try {
+            // Migrated content rows reuse regulation ids, so new content ids must start above all of them
+            Long maxId = jdbcTemplate.queryForObject("SELECT GREATEST(" +
+                    "(SELECT COALESCE(MAX(id), 0) FROM regulations), " +
+                    "(SELECT COALESCE(MAX(id), 0) FROM regulation_contents))", Long.class);
+            bulkUpsertService.alignSequence(RegulationContent.ID_SEQUENCE, maxId != null ? maxId : 0);
+
+            logger.info("Moving content of {} regulations into regulation_contents", pending);
+            long migrated = 0;
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> migrateBatch());
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                migrated += moved;
+                logger.debug("Moved content of {}/{} regulations", migrated, pending);
+            }
+            logger.info("Moved content of {} regulations into regulation_contents", migrated);
+        } catch (DataAccessException e) {
+            logger.error("Could not move legacy regulation content: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Move the next batch of rows, lowest ids first
+     * @return number of rows moved
+     */
+    private int migrateBatch() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM regulations WHERE " + PENDING_CONDITION +
+                " ORDER BY id LIMIT ?", Long.class, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // The batch is every pending row between its lowest and highest id
+        Long from = ids.get(0);
+        Long to = ids.get(ids.size() - 1);
+        jdbcTemplate.update("INSERT INTO regulation_contents (id, content) " +
+                "SELECT id, content FROM regulations WHERE id BETWEEN ? AND ? AND " + PENDING_CONDITION, from, to);
+        return jdbcTemplate.update("UPDATE regulations SET content_id = id, content = NULL " +
+                "WHERE id BETWEEN ? AND ? AND " + PENDING_CONDITION, from, to);
+    }
+
+    private void startReencoding() {
+        Long pending;
+        try {
+            pending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM regulation_contents WHERE " + UNENCODED_CONDITION, Long.class);
+        } catch (DataAccessException e) {
+            logger.warn("Could not count uncompressed regulation content: {}", e.getMessage());
+            return;
+        }
+        if (pending == null || pending == 0) {
+            return;
+        }
+
+        logger.info("Compressing {} stored regulation texts in the background", pending);
+        Thread worker = new Thread(() -> reencode(pending), "content-reencode");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void reencode(long pending) {
+        long reencoded = 0;
+        try {
+            while (true) {
+                Integer done = transactionTemplate.execute(status -> reencodeBatch());
+                if (done == null || done == 0) {
+                    break;
+                }
+                reencoded += done;
+                logger.debug("Compressed {}/{} regulation texts", reencoded, pending);
+                // Leave room for request and ingestion traffic between batches
+                Thread.sleep(pauseMillis);
+            }
+            logger.info("Compressed {} regulation texts", reencoded);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            logger.error("Compressing regulation content stopped after {} rows: {}", reencoded, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-encode the next batch of plain-text rows; rows rewritten through JPA in the
+     * meantime already have content_data and are left alone
+     * @return number of rows read
+     */
+    private int reencodeBatch() {
+        List<Object[]> rows = jdbcTemplate.query("SELECT id, content FROM regulation_contents WHERE " +
+                UNENCODED_CONDITION + " ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new Object[] { ContentCodec.encode(rs.getString(2)), rs.getLong(1) }, batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("UPDATE regulation_contents SET content_data = ?, content = NULL " +
+                "WHERE id = ? AND content_data IS NULL", rows);
+        return rows.size();
+    }
+}
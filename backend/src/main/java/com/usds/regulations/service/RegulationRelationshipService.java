@@ -3,6 +3,8 @@ package com.usds.regulations.service;
 import com.usds.regulations.entity.*;
 import com.usds.regulations.repository.RegulationRepository;
 import com.usds.regulations.repository.RegulationRelationshipRepository;
+import com.usds.regulations.util.LongHashSet;
+import com.usds.regulations.util.MinHashLshIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,12 +20,21 @@ public class RegulationRelationshipService {
     
     private static final Logger logger = LoggerFactory.getLogger(RegulationRelationshipService.class);
     
+    private static final String[] CONFLICT_KEYWORDS = {"shall not", "prohibited", "forbidden", "must not", "except", "unless"};
+    private static final String[] REQUIREMENT_KEYWORDS = {"shall", "must", "required", "mandatory"};
+    
     @Autowired
     private RegulationRelationshipRepository relationshipRepository;
     
     @Autowired
     private RegulationRepository regulationRepository;
     
+    @Autowired
+    private TokenProfileCache tokenProfileCache;
+    
+    @Autowired
+    private PairwiseSimilarityEngine similarityEngine;
+    
     /**
      * Analyze relationships for a specific regulation
      */
@@ -69,42 +80,52 @@ public class RegulationRelationshipService {
     public List<RegulationRelationship> detectPotentialRelationships(Integer titleNumber) {
         logger.info("Detecting potential relationships for CFR Title {}", titleNumber);
         
-        List<Regulation> regulations = regulationRepository.findByCfrTitle(titleNumber);
+        List<Regulation> regulations = regulationRepository.findWithContentByCfrTitle(titleNumber);
         List<RegulationRelationship> detectedRelationships = new ArrayList<>();
         
-        // Simple similarity-based detection (can be enhanced with NLP later)
+        // Load existing relationships of the title once, keyed by the pair's positions in the list
+        Map<Long, Integer> positions = new HashMap<>();
         for (int i = 0; i < regulations.size(); i++) {
-            for (int j = i + 1; j < regulations.size(); j++) {
-                Regulation reg1 = regulations.get(i);
-                Regulation reg2 = regulations.get(j);
-                
-                // Check if relationship already exists
-                Optional<RegulationRelationship> existing = relationshipRepository
-                    .findExistingRelationship(reg1.getId(), reg2.getId());
-                
-                if (existing.isEmpty()) {
-                    RegulationRelationship relationship = analyzeRegulationPair(reg1, reg2);
-                    if (relationship != null) {
-                        detectedRelationships.add(relationship);
-                    }
-                }
+            positions.put(regulations.get(i).getId(), i);
+        }
+        LongHashSet existing = new LongHashSet();
+        for (Object[] endpoints : relationshipRepository.findEndpointsWithinTitle(titleNumber)) {
+            Integer source = positions.get((Long) endpoints[0]);
+            Integer target = positions.get((Long) endpoints[1]);
+            if (source != null && target != null) {
+                existing.add(MinHashLshIndex.pair(source, target));
             }
         }
         
+        try (TokenProfileCache.Run run = tokenProfileCache.startRun()) {
+            // Read and tokenize each regulation once here; the pairs are compared on the engine's workers
+            ContentFeatures[] features = new ContentFeatures[regulations.size()];
+            for (int i = 0; i < features.length; i++) {
+                features[i] = contentFeatures(regulations.get(i));
+            }
+            
+            // Simple similarity-based detection (can be enhanced with NLP later)
+            detectedRelationships.addAll(similarityEngine.compareAll(features.length, (i, j) ->
+                // Skip pairs already related (either direction)
+                existing.contains(MinHashLshIndex.pair(i, j)) ? null : analyzeRegulationPair(features[i], features[j])));
+        }
+        
+        logger.info("Detected {} potential relationships among {} regulations ({} already related pairs, {} cached token profiles)",
+                detectedRelationships.size(), regulations.size(), existing.size(), tokenProfileCache.size());
         return detectedRelationships;
     }
     
     /**
      * Analyze a pair of regulations for potential relationships
      */
-    private RegulationRelationship analyzeRegulationPair(Regulation reg1, Regulation reg2) {
+    private RegulationRelationship analyzeRegulationPair(ContentFeatures reg1, ContentFeatures reg2) {
         // Basic analysis - can be enhanced with NLP
         double similarity = calculateBasicSimilarity(reg1, reg2);
         
         if (similarity > 0.7) {
             // High similarity suggests redundancy
             RegulationRelationship relationship = new RegulationRelationship(
-                reg1.getId(), reg2.getId(), RelationshipType.REDUNDANT, similarity);
+                reg1.id, reg2.id, RelationshipType.REDUNDANT, similarity);
             relationship.setDetectedBy("BASIC_SIMILARITY_ANALYSIS");
             relationship.setOverlapDetails(String.format(
                 "High content similarity detected (%.2f). Regulations may be redundant.", similarity));
@@ -113,7 +134,7 @@ public class RegulationRelationshipService {
         } else if (similarity > 0.3 && detectPotentialConflict(reg1, reg2)) {
             // Medium similarity with conflicting keywords
             RegulationRelationship relationship = new RegulationRelationship(
-                reg1.getId(), reg2.getId(), RelationshipType.CONFLICTING, similarity);
+                reg1.id, reg2.id, RelationshipType.CONFLICTING, similarity);
             relationship.setConflictSeverity(ConflictSeverity.MEDIUM);
             relationship.setDetectedBy("KEYWORD_CONFLICT_ANALYSIS");
             relationship.setOverlapDetails("Potential conflict detected based on overlapping scope with conflicting requirements.");
@@ -127,48 +148,50 @@ public class RegulationRelationshipService {
     /**
      * Calculate basic similarity between two regulations
      */
-    private double calculateBasicSimilarity(Regulation reg1, Regulation reg2) {
-        if (reg1.getContent() == null || reg2.getContent() == null) {
+    private double calculateBasicSimilarity(ContentFeatures reg1, ContentFeatures reg2) {
+        if (reg1.profile == null || reg2.profile == null) {
             return 0.0;
         }
         
         // Simple word-based similarity (can be enhanced with TF-IDF, embeddings, etc.)
-        Set<String> words1 = getWordSet(reg1.getContent());
-        Set<String> words2 = getWordSet(reg2.getContent());
-        
-        Set<String> intersection = new HashSet<>(words1);
-        intersection.retainAll(words2);
-        
-        Set<String> union = new HashSet<>(words1);
-        union.addAll(words2);
-        
-        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
+        return reg1.profile.similarity(reg2.profile);
     }
     
-    private Set<String> getWordSet(String content) {
-        return Arrays.stream(content.toLowerCase().split("\\W+"))
-                    .filter(word -> word.length() > 3) // Filter short words
-                    .collect(Collectors.toSet());
+    /**
+     * Detect potential conflicts using basic keyword analysis
+     */
+    private boolean detectPotentialConflict(ContentFeatures reg1, ContentFeatures reg2) {
+        // Potential conflict if one has prohibitions and another has requirements in similar domain
+        return (reg1.hasConflictTerms && reg2.hasRequirements) || (reg2.hasConflictTerms && reg1.hasRequirements);
     }
     
     /**
-     * Detect potential conflicts using basic keyword analysis
+     * Token profile and conflict keyword flags of one regulation's content
      */
-    private boolean detectPotentialConflict(Regulation reg1, Regulation reg2) {
+    private ContentFeatures contentFeatures(Regulation regulation) {
+        String content = regulation.getContent();
+        if (content == null) {
+            return new ContentFeatures(regulation.getId(), null, false, false);
+        }
         // Basic conflict detection - look for contradictory terms
-        String content1 = reg1.getContent().toLowerCase();
-        String content2 = reg2.getContent().toLowerCase();
-        
-        String[] conflictKeywords = {"shall not", "prohibited", "forbidden", "must not", "except", "unless"};
-        String[] requirementKeywords = {"shall", "must", "required", "mandatory"};
-        
-        boolean hasConflictTerms1 = Arrays.stream(conflictKeywords).anyMatch(content1::contains);
-        boolean hasConflictTerms2 = Arrays.stream(conflictKeywords).anyMatch(content2::contains);
-        boolean hasRequirements1 = Arrays.stream(requirementKeywords).anyMatch(content1::contains);
-        boolean hasRequirements2 = Arrays.stream(requirementKeywords).anyMatch(content2::contains);
-        
-        // Potential conflict if one has prohibitions and another has requirements in similar domain
-        return (hasConflictTerms1 && hasRequirements2) || (hasConflictTerms2 && hasRequirements1);
+        String lowerContent = content.toLowerCase();
+        return new ContentFeatures(regulation.getId(), tokenProfileCache.profile(regulation),
+                Arrays.stream(CONFLICT_KEYWORDS).anyMatch(lowerContent::contains),
+                Arrays.stream(REQUIREMENT_KEYWORDS).anyMatch(lowerContent::contains));
+    }
+    
+    private static class ContentFeatures {
+        private final Long id;
+        private final TokenProfileCache.TokenProfile profile;
+        private final boolean hasConflictTerms;
+        private final boolean hasRequirements;
+        
+        ContentFeatures(Long id, TokenProfileCache.TokenProfile profile, boolean hasConflictTerms, boolean hasRequirements) {
+            this.id = id;
+            this.profile = profile;
+            this.hasConflictTerms = hasConflictTerms;
+            this.hasRequirements = hasRequirements;
+        }
     }
     
     /**
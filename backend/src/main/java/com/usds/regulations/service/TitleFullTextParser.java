@@ -0,0 +1,189 @@
+package com.usds.regulations.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming reader for versioner full-text title XML (/versioner/v1/full/...).
+ * Walks the document once with StAX and emits one {@link FullTextPart} per
+ * DIV5 TYPE="PART" element, holding only the text of the part being read.
+ * Parts the caller does not want are skipped without collecting their text.
+ */
+public class TitleFullTextParser {
+
+    // Inline markup (italics, superscripts, footnote refs) continues the surrounding text
+    private static final Set<String> INLINE_ELEMENTS = Set.of("I", "E", "B", "SU", "FTREF", "AC", "FR", "SMALL", "SUB", "SUP");
+
+    private final XMLInputFactory inputFactory;
+
+    public TitleFullTextParser() {
+        inputFactory = XMLInputFactory.newFactory();
+        // Untrusted input: no DTDs and no external entities
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Parse a full-text title document. Parts whose number fails wanted are skipped;
+     * each collected part is handed to sink, which returns false to stop reading.
+     * @return number of parts emitted
+     */
+    public int parseParts(InputStream body, Predicate<String> wanted, Predicate<FullTextPart> sink) throws IOException {
+        int emitted = 0;
+        XMLStreamReader reader = null;
+        try {
+            reader = inputFactory.createXMLStreamReader(body);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT || !isPart(reader)) {
+                    continue;
+                }
+                String partNumber = attribute(reader, "N");
+                if (partNumber.isEmpty() || !wanted.test(partNumber)) {
+                    skipElement(reader);
+                    continue;
+                }
+                emitted++;
+                if (!sink.test(readPart(reader, partNumber))) {
+                    break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed full-text XML: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // Closing only releases parser state; the caller owns the stream
+                }
+            }
+        }
+        return emitted;
+    }
+
+    /**
+     * Collect a part's text up to its end tag; the reader is positioned on the part's start tag
+     */
+    private FullTextPart readPart(XMLStreamReader reader, String partNumber) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        String heading = "";
+        int sections = 0;
+        int depth = 1;
+        boolean inPartHeading = false;
+        int headingStart = 0;
+
+        while (depth > 0 && reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    if (depth == 2 && heading.isEmpty() && "HEAD".equals(reader.getLocalName())) {
+                        inPartHeading = true;
+                        headingStart = text.length();
+                    } else if ("SECTION".equals(attribute(reader, "TYPE"))) {
+                        sections++;
+                    }
+                    if (!INLINE_ELEMENTS.contains(reader.getLocalName())) {
+                        endLine(text);
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    depth--;
+                    if (inPartHeading && depth == 1) {
+                        heading = text.substring(headingStart).trim();
+                        inPartHeading = false;
+                    }
+                    if (depth > 0 && !INLINE_ELEMENTS.contains(reader.getLocalName())) {
+                        endLine(text);
+                    }
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> appendText(text, reader.getText());
+                default -> { }
+            }
+        }
+
+        return new FullTextPart(partNumber, heading, text.toString().trim(), sections);
+    }
+
+    private static boolean isPart(XMLStreamReader reader) {
+        return reader.getLocalName().startsWith("DIV") && "PART".equals(attribute(reader, "TYPE"));
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value.trim() : "";
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Append character data with runs of whitespace collapsed to one space
+     */
+    static void appendText(StringBuilder text, String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (Character.isWhitespace(c)) {
+                int last = text.length() - 1;
+                if (last >= 0 && text.charAt(last) != ' ' && text.charAt(last) != '\n') {
+                    text.append(' ');
+                }
+            } else {
+                text.append(c);
+            }
+        }
+    }
+
+    /**
+     * Block elements start and end on their own line
+     */
+    private static void endLine(StringBuilder text) {
+        int last = text.length() - 1;
+        if (last < 0 || text.charAt(last) == '\n') {
+            return;
+        }
+        if (text.charAt(last) == ' ') {
+            text.setCharAt(last, '\n');
+        } else {
+            text.append('\n');
+        }
+    }
+
+    /**
+     * Text of one part as read from the full-text XML
+     */
+    public static class FullTextPart {
+        private final String partNumber;
+        private final String heading;
+        private final String content;
+        private final int sectionCount;
+
+        public FullTextPart(String partNumber, String heading, String content, int sectionCount) {
+            this.partNumber = partNumber;
+            this.heading = heading;
+            this.content = content;
+            this.sectionCount = sectionCount;
+        }
+
+        public String getPartNumber() { return partNumber; }
+        public String getHeading() { return heading; }
+        public String getContent() { return content; }
+        public int getSectionCount() { return sectionCount; }
+    }
+}
@@ -0,0 +1,266 @@
+package com.usds.regulations.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.usds.regulations.repository.RegulationRepository;
+
+/**
+ * Runs multi-title eCFR ingestion concurrently on a bounded executor.
+ * Outbound politeness comes from the shared EcfrRequestThrottle, so titles
+ * no longer wait on fixed sleeps between each other.
+ */
+@Service
+public class TitleIngestionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleIngestionEngine.class);
+    private static final int FIRST_TITLE = 1;
+    private static final int LAST_TITLE = 50;
+
+    @Autowired
+    private EcfrApiService ecfrApiService;
+
+    @Autowired
+    private RawPayloadArchive payloadArchive;
+
+    @Autowired
+    private EcfrDateResolver dateResolver;
+
+    @Autowired
+    private RegulationRepository regulationRepository;
+
+    @Autowired
+    @Qualifier("ecfrTitleExecutor")
+    private ThreadPoolTaskExecutor titleExecutor;
+
+    /**
+     * Download ALL CFR titles (1-50) and save to database (all available parts)
+     * CRUD: Bulk CREATE + UPDATE operations across all titles
+     */
+    public Map<String, Object> downloadAllTitles() {
+        logger.info("Downloading ALL available parts for ALL CFR titles (1-50)");
+        return downloadAllTitles(Integer.MAX_VALUE); // Get all parts for all titles
+    }
+
+    /**
+     * Download ALL CFR titles (1-50) with sample size limit and save to database
+     * CRUD: Bulk CREATE + UPDATE operations across all titles
+     */
+    public Map<String, Object> downloadAllTitles(Integer sampleSize) {
+        return downloadAllTitles(sampleSize, IngestionContext.NONE);
+    }
+
+    /**
+     * Download ALL CFR titles (1-50), reporting progress to the context and honoring its
+     * checkpoints (completed titles are skipped) and cancellation (unstarted titles are skipped)
+     */
+    public Map<String, Object> downloadAllTitles(Integer sampleSize, IngestionContext context) {
+        logger.info("Starting concurrent download of ALL CFR titles (1-50) with max {} parts each ({} title workers)",
+                sampleSize, titleExecutor.getMaxPoolSize());
+
+        long startTime = System.currentTimeMillis();
+
+        List<CompletableFuture<Map<String, Object>>> titleDownloads = new ArrayList<>();
+        for (int titleNumber = FIRST_TITLE; titleNumber <= LAST_TITLE; titleNumber++) {
+            int title = titleNumber;
+            titleDownloads.add(CompletableFuture.supplyAsync(() -> downloadTitle(title, sampleSize, context), titleExecutor));
+        }
+
+        Map<String, Object> overallResult = new HashMap<>();
+        List<Map<String, Object>> titleResults = new ArrayList<>();
+        int totalCreated = 0, totalUpdated = 0, totalErrors = 0, totalDownloaded = 0;
+        long totalWordCount = 0;
+
+        // Aggregate in title order so the summary matches the sequential run
+        for (int i = 0; i < titleDownloads.size(); i++) {
+            int titleNumber = FIRST_TITLE + i;
+            try {
+                Map<String, Object> titleResult = titleDownloads.get(i).join();
+                titleResults.add(titleResult);
+
+                // Accumulate totals
+                totalCreated += (Integer) titleResult.get("created");
+                totalUpdated += (Integer) titleResult.get("updated");
+                totalErrors += (Integer) titleResult.get("errors");
+                totalDownloaded += (Integer) titleResult.get("downloaded");
+                totalWordCount += (Integer) titleResult.get("totalWordCount");
+
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.error("Error processing Title {}: {}", titleNumber, cause.getMessage());
+                totalErrors++;
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+        long durationMinutes = (endTime - startTime) / 60000;
+
+        overallResult.put("titleResults", titleResults);
+        overallResult.put("totalTitlesProcessed", titleResults.size());
+        overallResult.put("totalCreated", totalCreated);
+        overallResult.put("totalUpdated", totalUpdated);
+        overallResult.put("totalErrors", totalErrors);
+        overallResult.put("totalDownloaded", totalDownloaded);
+        overallResult.put("totalWordCount", totalWordCount);
+        overallResult.put("durationMinutes", durationMinutes);
+
+        logger.info("Bulk download complete! Processed {} titles in {} minutes. Total: Created {}, Updated {}, Errors {}, Word Count: {}",
+                titleResults.size(), durationMinutes, totalCreated, totalUpdated, totalErrors, totalWordCount);
+
+        return overallResult;
+    }
+
+    /**
+     * Incremental sync of ALL CFR titles: one titles listing and one grouped query decide which
+     * titles moved upstream, and only those are synced (part by part) on the title executor
+     */
+    public Map<String, Object> syncAllTitles() {
+        return syncAllTitles(IngestionContext.NONE);
+    }
+
+    /**
+     * Incremental sync of ALL CFR titles, reporting progress to the context and honoring its
+     * checkpoints and cancellation the same way as a full download
+     */
+    public Map<String, Object> syncAllTitles(IngestionContext context) {
+        long startTime = System.currentTimeMillis();
+        dateResolver.refresh();
+
+        Map<Integer, LocalDate> storedLatestAmended = new HashMap<>();
+        Map<Integer, Long> storedCounts = new HashMap<>();
+        for (Object[] row : regulationRepository.getTitleAmendmentDates()) {
+            Integer title = (Integer) row[0];
+            storedLatestAmended.put(title, (LocalDate) row[1]);
+            storedCounts.put(title, ((Number) row[2]).longValue());
+        }
+
+        List<Integer> changedTitles = new ArrayList<>();
+        for (int titleNumber = FIRST_TITLE; titleNumber <= LAST_TITLE; titleNumber++) {
+            if (ecfrApiService.titleNeedsSync(titleNumber, storedLatestAmended.get(titleNumber),
+                    storedCounts.getOrDefault(titleNumber, 0L))) {
+                changedTitles.add(titleNumber);
+            }
+        }
+        logger.info("Incremental sync: {} of {} titles changed upstream: {}",
+                changedTitles.size(), LAST_TITLE - FIRST_TITLE + 1, changedTitles);
+
+        List<CompletableFuture<Map<String, Object>>> titleSyncs = new ArrayList<>();
+        for (Integer titleNumber : changedTitles) {
+            titleSyncs.add(CompletableFuture.supplyAsync(() -> syncTitle(titleNumber, context), titleExecutor));
+        }
+
+        List<Map<String, Object>> titleResults = new ArrayList<>();
+        int totalCreated = 0, totalUpdated = 0, totalErrors = 0, totalPartsChanged = 0;
+        for (int i = 0; i < titleSyncs.size(); i++) {
+            try {
+                Map<String, Object> titleResult = titleSyncs.get(i).join();
+                titleResults.add(titleResult);
+                totalCreated += (Integer) titleResult.get("created");
+                totalUpdated += (Integer) titleResult.get("updated");
+                totalErrors += (Integer) titleResult.get("errors");
+                totalPartsChanged += (Integer) titleResult.get("partsChanged");
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.error("Error syncing Title {}: {}", changedTitles.get(i), cause.getMessage());
+                totalErrors++;
+            }
+        }
+
+        Map<String, Object> overallResult = new HashMap<>();
+        overallResult.put("titlesChecked", LAST_TITLE - FIRST_TITLE + 1);
+        overallResult.put("titlesChanged", changedTitles);
+        overallResult.put("titlesSkipped", LAST_TITLE - FIRST_TITLE + 1 - changedTitles.size());
+        overallResult.put("titleResults", titleResults);
+        overallResult.put("totalPartsChanged", totalPartsChanged);
+        overallResult.put("totalCreated", totalCreated);
+        overallResult.put("totalUpdated", totalUpdated);
+        overallResult.put("totalErrors", totalErrors);
+        overallResult.put("durationSeconds", (System.currentTimeMillis() - startTime) / 1000);
+
+        logger.info("Incremental sync complete: {} titles synced, {} parts changed, Created {}, Updated {}, Errors {}",
+                changedTitles.size(), totalPartsChanged, totalCreated, totalUpdated, totalErrors);
+        return overallResult;
+    }
+
+    /**
+     * Re-ingest ALL CFR titles from the raw payload archive without touching the network
+     */
+    public Map<String, Object> downloadAllTitlesFromArchive(Integer sampleSize) {
+        return downloadAllTitlesFromArchive(sampleSize, IngestionContext.NONE);
+    }
+
+    /**
+     * Re-ingest ALL CFR titles from the raw payload archive, reporting to the given context
+     */
+    public Map<String, Object> downloadAllTitlesFromArchive(Integer sampleSize, IngestionContext context) {
+        logger.info("Replaying ingestion of ALL CFR titles (1-50) from the raw payload archive");
+        Map<String, Object> result = payloadArchive.runInReplay(() -> downloadAllTitles(sampleSize, context));
+        result.put("replayedFromArchive", true);
+        return result;
+    }
+
+    /**
+     * Sync one changed title unless it was synced in an earlier attempt or the run is cancelled
+     */
+    private Map<String, Object> syncTitle(int titleNumber, IngestionContext context) {
+        if (context.isTitleCompleted(titleNumber) || context.isCancelled()) {
+            Map<String, Object> skipped = new HashMap<>();
+            skipped.put("titleNumber", titleNumber);
+            skipped.put("skipped", context.isCancelled() ? "cancelled" : "completed in an earlier attempt");
+            skipped.put("created", 0);
+            skipped.put("updated", 0);
+            skipped.put("errors", 0);
+            skipped.put("partsChanged", 0);
+            return skipped;
+        }
+
+        Map<String, Object> titleResult = ecfrApiService.syncTitle(titleNumber, context);
+        if (!Boolean.TRUE.equals(titleResult.get("cancelled"))) {
+            context.onTitleCompleted(titleNumber, titleResult);
+        }
+        return titleResult;
+    }
+
+    /**
+     * Download and save one title, tagging the result with its title metadata
+     */
+    private Map<String, Object> downloadTitle(int titleNumber, Integer sampleSize, IngestionContext context) {
+        if (context.isTitleCompleted(titleNumber) || context.isCancelled()) {
+            Map<String, Object> skipped = new HashMap<>();
+            skipped.put("titleNumber", titleNumber);
+            skipped.put("skipped", context.isCancelled() ? "cancelled" : "completed in an earlier attempt");
+            skipped.put("created", 0);
+            skipped.put("updated", 0);
+            skipped.put("errors", 0);
+            skipped.put("downloaded", 0);
+            skipped.put("totalWordCount", 0);
+            return skipped;
+        }
+
+        logger.info("Processing CFR Title {} - {}", titleNumber, ecfrApiService.getTitleName(titleNumber));
+
+        Map<String, Object> titleResult = ecfrApiService.downloadAndSaveTitle(titleNumber, sampleSize, context);
+        titleResult.put("titleNumber", titleNumber);
+        titleResult.put("titleName", ecfrApiService.getTitleName(titleNumber));
+        titleResult.put("agency", ecfrApiService.getAgencyForTitle(titleNumber));
+        if (!Boolean.TRUE.equals(titleResult.get("cancelled"))) {
+            context.onTitleCompleted(titleNumber, titleResult);
+        }
+
+        logger.info("Title {} complete: Created {}, Updated {}, Errors {}",
+                titleNumber, titleResult.get("created"), titleResult.get("updated"), titleResult.get("errors"));
+        return titleResult;
+    }
+}
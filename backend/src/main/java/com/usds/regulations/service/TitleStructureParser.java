@@ -0,0 +1,218 @@
+package com.usds.regulations.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streaming reader for versioner structure documents.
+ * Walks title -> children (chapters) -> children (parts) with a Jackson
+ * JsonParser and only materializes one part node at a time, so peak memory
+ * does not grow with the size of the title. The part index keeps no text;
+ * content is read in a separate pass for just the parts being built.
+ */
+public class TitleStructureParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleStructureParser.class);
+
+    private final ObjectMapper objectMapper;
+
+    public TitleStructureParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parse a structure document, handing each part (without its content) to the sink as it is read
+     * @return number of parts emitted
+     */
+    public int parseParts(InputStream body, Consumer<TitleStructureSnapshot.StructurePart> sink) throws IOException {
+        return walkParts(body, partNode -> {
+            TitleStructureSnapshot.StructurePart part = toStructurePart(partNode);
+            if (part == null) {
+                return false;
+            }
+            sink.accept(part);
+            return true;
+        });
+    }
+
+    /**
+     * Parse a structure document, handing the content of each wanted part to the sink
+     * @return number of parts whose content was emitted
+     */
+    public int parseContent(InputStream body, Predicate<String> wanted, BiConsumer<String, String> sink) throws IOException {
+        return walkParts(body, partNode -> {
+            String partNumber = extractPartNumber(partNode.path("identifier").asText(""));
+            if (partNumber == null || !wanted.test(partNumber)) {
+                return false;
+            }
+            sink.accept(partNumber, extractContentFromVersionerPart(partNode));
+            return true;
+        });
+    }
+
+    /**
+     * Hand every part node to the visitor, one at a time
+     * @return number of nodes the visitor accepted
+     */
+    private int walkParts(InputStream body, PartVisitor visitor) throws IOException {
+        int emitted = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return 0;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("title".equals(field) && value == JsonToken.START_OBJECT) {
+                    emitted += readTitle(parser, visitor);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return emitted;
+    }
+
+    private int readTitle(JsonParser parser, PartVisitor visitor) throws IOException {
+        int emitted = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("children".equals(field) && value == JsonToken.START_ARRAY) {
+                emitted += readChapters(parser, visitor);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return emitted;
+    }
+
+    private int readChapters(JsonParser parser, PartVisitor visitor) throws IOException {
+        int emitted = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("children".equals(field) && value == JsonToken.START_ARRAY) {
+                    emitted += readParts(parser, visitor);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return emitted;
+    }
+
+    private int readParts(JsonParser parser, PartVisitor visitor) throws IOException {
+        int emitted = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            // Only this one part's subtree is held in memory
+            JsonNode partNode = objectMapper.readTree(parser);
+            if (visitor.visit(partNode)) {
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    /**
+     * Reduce a structure part node to the fields ingestion needs
+     */
+    TitleStructureSnapshot.StructurePart toStructurePart(JsonNode part) {
+        String identifier = part.path("identifier").asText("");
+        String partNumber = extractPartNumber(identifier);
+        if (partNumber == null) {
+            return null;
+        }
+
+        return new TitleStructureSnapshot.StructurePart(
+            partNumber,
+            identifier,
+            part.path("label").asText(""),
+            part.path("last_amended").asText(""),
+            part.path("last_issued").asText(""),
+            part.path("last_updated").asText(""));
+    }
+
+    /**
+     * Extract part number from identifier like "7 CFR 1"
+     */
+    private String extractPartNumber(String identifier) {
+        String[] parts = identifier.split(" ");
+        return parts.length >= 3 ? parts[2] : null;
+    }
+
+    /**
+     * Extract content text from a versioner API part node
+     */
+    private String extractContentFromVersionerPart(JsonNode partNode) {
+        StringBuilder content = new StringBuilder();
+
+        try {
+            // Try different fields that might contain content
+            String text = partNode.path("text").asText("");
+            if (!text.isEmpty()) {
+                content.append(text);
+            }
+
+            String fullText = partNode.path("full_text").asText("");
+            if (!fullText.isEmpty()) {
+                if (content.length() > 0) content.append(" ");
+                content.append(fullText);
+            }
+
+            String description = partNode.path("description").asText("");
+            if (!description.isEmpty()) {
+                if (content.length() > 0) content.append(" ");
+                content.append(description);
+            }
+
+            // Try to extract from children nodes
+            JsonNode childrenNode = partNode.get("children");
+            if (childrenNode != null && childrenNode.isArray()) {
+                for (JsonNode child : childrenNode) {
+                    String childText = child.path("text").asText("");
+                    if (!childText.isEmpty()) {
+                        if (content.length() > 0) content.append(" ");
+                        content.append(childText);
+                    }
+                }
+            }
+
+        } catch (Exception e) {
+            logger.warn("Error extracting content from versioner part: {}", e.getMessage());
+        }
+
+        String result = content.toString().trim();
+        return result.isEmpty() ? "Content not available" : result;
+    }
+
+    /**
+     * Handles one part node; returns whether it counted as emitted
+     */
+    @FunctionalInterface
+    private interface PartVisitor {
+        boolean visit(JsonNode partNode) throws IOException;
+    }
+}
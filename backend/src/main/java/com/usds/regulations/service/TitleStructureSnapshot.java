@@ -0,0 +1,135 @@
+package com.usds.regulations.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed view of a single title's versioner structure document.
+ * Fetched once per ingest run and indexed by part number so every
+ * part of the title can be built without re-downloading the structure.
+ * Only labels and dates are kept; part text is read per group of parts
+ * (see {@link TitleStructureParser#parseContent}) from the document stored
+ * on disk when the snapshot was fetched, so memory stays bounded and the
+ * document is downloaded once per run. Close the snapshot to release it.
+ */
+public class TitleStructureSnapshot implements Closeable {
+
+    private final Integer titleNumber;
+    private final String apiDate;
+    private final String sourceUrl;
+    private final Map<String, StructurePart> partsByNumber = new LinkedHashMap<>();
+    private EcfrHttpClient.StoredBody document;
+
+    public TitleStructureSnapshot(Integer titleNumber, String apiDate, String sourceUrl) {
+        this.titleNumber = titleNumber;
+        this.apiDate = apiDate;
+        this.sourceUrl = sourceUrl;
+    }
+
+    /**
+     * Snapshot used when the structure document could not be fetched
+     */
+    public static TitleStructureSnapshot empty(Integer titleNumber, String apiDate, String sourceUrl) {
+        return new TitleStructureSnapshot(titleNumber, apiDate, sourceUrl);
+    }
+
+    /**
+     * Index a part; the first occurrence of a part number wins
+     */
+    public void addPart(StructurePart part) {
+        if (part != null && part.getPartNumber() != null && !part.getPartNumber().isEmpty()) {
+            partsByNumber.putIfAbsent(part.getPartNumber(), part);
+        }
+    }
+
+    /**
+     * Keep the structure document the parts were read from, so their text can be read again from disk
+     */
+    void attachDocument(EcfrHttpClient.StoredBody document) {
+        this.document = document;
+    }
+
+    /**
+     * Open the stored structure document, or null if there is none
+     */
+    InputStream openDocument() throws IOException {
+        return document != null ? document.open() : null;
+    }
+
+    @Override
+    public void close() {
+        if (document != null) {
+            document.close();
+        }
+    }
+
+    public StructurePart getPart(String partNumber) {
+        return partsByNumber.get(partNumber);
+    }
+
+    /**
+     * Part numbers in document order
+     */
+    public List<String> getPartNumbers() {
+        return new ArrayList<>(partsByNumber.keySet());
+    }
+
+    public Map<String, StructurePart> getParts() {
+        return Collections.unmodifiableMap(partsByNumber);
+    }
+
+    public boolean isEmpty() {
+        return partsByNumber.isEmpty();
+    }
+
+    public int size() {
+        return partsByNumber.size();
+    }
+
+    public Integer getTitleNumber() {
+        return titleNumber;
+    }
+
+    public String getApiDate() {
+        return apiDate;
+    }
+
+    public String getSourceUrl() {
+        return sourceUrl;
+    }
+
+    /**
+     * The fields of a structure part node that ingestion actually uses, apart from its text
+     */
+    public static class StructurePart {
+        private final String partNumber;
+        private final String identifier;
+        private final String label;
+        private final String lastAmended;
+        private final String lastIssued;
+        private final String lastUpdated;
+
+        public StructurePart(String partNumber, String identifier, String label,
+                             String lastAmended, String lastIssued, String lastUpdated) {
+            this.partNumber = partNumber;
+            this.identifier = identifier;
+            this.label = label;
+            this.lastAmended = lastAmended;
+            this.lastIssued = lastIssued;
+            this.lastUpdated = lastUpdated;
+        }
+
+        public String getPartNumber() { return partNumber; }
+        public String getIdentifier() { return identifier; }
+        public String getLabel() { return label; }
+        public String getLastAmended() { return lastAmended; }
+        public String getLastIssued() { return lastIssued; }
+        public String getLastUpdated() { return lastUpdated; }
+    }
+}
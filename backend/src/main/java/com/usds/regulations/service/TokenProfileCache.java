@@ -0,0 +1,179 @@
+package com.usds.regulations.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.usds.regulations.entity.Regulation;
+
+/**
+ * Tokenized word sets of regulations for relationship similarity. A regulation is
+ * tokenized once per content version: its profile is cached by id and reused while
+ * the content checksum matches. Words are interned into a process-wide dictionary
+ * of int term ids, so a profile is a sorted int[] and the Jaccard similarity of two
+ * profiles is a merge of two arrays without allocating.
+ * <p>
+ * Profiles are kept for the most recently used regulations only, so deleted ones age
+ * out. The dictionary only grows, so once it is over its limit it is dropped together
+ * with every profile at the start of the next detection run that finds no other run
+ * active; profiles of one run therefore always share one dictionary.
+ */
+@Service
+public class TokenProfileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenProfileCache.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("\\W+");
+
+    // Shorter words are too common to say anything about overlap
+    private static final int MIN_WORD_LENGTH = 4;
+
+    @Value("${regulations.similarity.max-cached-profiles:20000}")
+    private int maxProfiles;
+
+    @Value("${regulations.similarity.max-terms:2000000}")
+    private int maxTerms;
+
+    private final Map<String, Integer> termIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTermId = new AtomicInteger();
+
+    // Access-ordered, so the least recently used profile is evicted first
+    private final Map<Long, TokenProfile> profiles = Collections.synchronizedMap(
+            new LinkedHashMap<Long, TokenProfile>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, TokenProfile> eldest) {
+                    return size() > maxProfiles;
+                }
+            });
+
+    // Held shared by every detection run; the dictionary is only dropped with it held exclusively
+    private final ReadWriteLock runLock = new ReentrantReadWriteLock();
+
+    /**
+     * Start a detection run; close it on the same thread once its profiles are no longer compared
+     */
+    public Run startRun() {
+        if (termIds.size() > maxTerms && runLock.writeLock().tryLock()) {
+            try {
+                if (termIds.size() > maxTerms) {
+                    logger.info("Token dictionary reached {} terms, dropping it and {} cached profiles",
+                            termIds.size(), profiles.size());
+                    profiles.clear();
+                    termIds.clear();
+                    nextTermId.set(0);
+                }
+            } finally {
+                runLock.writeLock().unlock();
+            }
+        }
+        runLock.readLock().lock();
+        return () -> runLock.readLock().unlock();
+    }
+
+    /**
+     * Profile of a regulation's current content, for use inside a {@link #startRun() run};
+     * unsaved or unchecksummed regulations are not cached
+     */
+    public TokenProfile profile(Regulation regulation) {
+        Long id = regulation.getId();
+        String checksum = regulation.getContentChecksum();
+        if (id == null || checksum == null) {
+            return new TokenProfile(null, termIds(regulation.getContent()));
+        }
+        TokenProfile cached = profiles.get(id);
+        if (cached != null && checksum.equals(cached.checksum)) {
+            return cached;
+        }
+        TokenProfile profile = new TokenProfile(checksum, termIds(regulation.getContent()));
+        profiles.put(id, profile);
+        return profile;
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    /**
+     * Sorted distinct term ids of the lowercased words (split on non-word characters) of at least four letters
+     */
+    int[] termIds(String content) {
+        if (content == null || content.isEmpty()) {
+            return new int[0];
+        }
+        String[] words = NON_WORD.split(content.toLowerCase());
+        int[] terms = new int[words.length];
+        int count = 0;
+        for (String word : words) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                terms[count++] = termIds.computeIfAbsent(word, term -> nextTermId.getAndIncrement());
+            }
+        }
+        Arrays.sort(terms, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || terms[i] != terms[distinct - 1]) {
+                terms[distinct++] = terms[i];
+            }
+        }
+        return Arrays.copyOf(terms, distinct);
+    }
+
+    /**
+     * Jaccard similarity (0..1) of two sorted distinct term id arrays; 0 when both are empty
+     */
+    public static double jaccard(int[] a, int[] b) {
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 0.0 : (double) common / union;
+    }
+
+    /**
+     * A detection run in progress
+     */
+    public interface Run extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Term ids of one content version
+     */
+    public static class TokenProfile {
+        private final String checksum;
+        private final int[] terms;
+
+        TokenProfile(String checksum, int[] terms) {
+            this.checksum = checksum;
+            this.terms = terms;
+        }
+
+        /** Sorted distinct term ids */
+        public int[] getTerms() { return terms; }
+
+        public double similarity(TokenProfile other) {
+            return jaccard(terms, other.terms);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.usds.regulations.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage encoding of regulation text. Every stored value starts with a format
+ * byte, so values written in any format stay readable:
+ * <ul>
+ *   <li>{@link #FORMAT_RAW}: UTF-8 bytes, used for short or incompressible text</li>
+ *   <li>{@link #FORMAT_DEFLATE_V1}: 4-byte UTF-8 length, then a zlib stream deflated
+ *       with the preset dictionary compression/regulation-dictionary-v1.txt</li>
+ * </ul>
+ * The dictionary primes the compressor with boilerplate that recurs across parts
+ * (definitions, authority and source notes, cross-reference phrasing), which plain
+ * deflate could only exploit once it had seen it in the same value. A dictionary
+ * can never be edited once values were written with it; a better one gets a new
+ * format byte.
+ */
+public final class ContentCodec {
+
+    public static final byte FORMAT_RAW = 0;
+    public static final byte FORMAT_DEFLATE_V1 = 1;
+
+    // Below this the zlib header and length prefix eat most of the gain
+    private static final int MIN_COMPRESS_BYTES = 128;
+
+    private static final byte[] DICTIONARY_V1 = loadDictionary("/compression/regulation-dictionary-v1.txt");
+
+    // Deflater/Inflater hold native memory; reuse one per thread instead of one per value
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_COMPRESSION));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private ContentCodec() {
+    }
+
+    /**
+     * Encode text for storage, compressed when that makes it smaller; null stays null
+     */
+    public static byte[] encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= MIN_COMPRESS_BYTES) {
+            byte[] compressed = deflate(utf8);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        byte[] raw = new byte[utf8.length + 1];
+        raw[0] = FORMAT_RAW;
+        System.arraycopy(utf8, 0, raw, 1, utf8.length);
+        return raw;
+    }
+
+    /**
+     * Decode a stored value in any known format; null and empty values decode to null
+     */
+    public static String decode(byte[] stored) {
+        if (stored == null || stored.length == 0) {
+            return null;
+        }
+        return switch (stored[0]) {
+            case FORMAT_RAW -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case FORMAT_DEFLATE_V1 -> new String(inflate(stored), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown content storage format " + stored[0]);
+        };
+    }
+
+    /**
+     * Compressed value, or null if it would not be smaller than the raw one
+     */
+    private static byte[] deflate(byte[] utf8) {
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setDictionary(DICTIONARY_V1);
+        deflater.setInput(utf8);
+        deflater.finish();
+
+        int limit = utf8.length;
+        byte[] out = new byte[Math.min(limit, 5 + utf8.length / 4 + 64)];
+        out[0] = FORMAT_DEFLATE_V1;
+        writeInt(out, 1, utf8.length);
+        int length = 5;
+        while (!deflater.finished()) {
+            if (length == out.length) {
+                if (out.length == limit) {
+                    return null;
+                }
+                out = Arrays.copyOf(out, Math.min(out.length * 2, limit));
+            }
+            length += deflater.deflate(out, length, out.length - length);
+        }
+        return Arrays.copyOf(out, length);
+    }
+
+    private static byte[] inflate(byte[] stored) {
+        int utf8Length = readInt(stored, 1);
+        byte[] utf8 = new byte[utf8Length];
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(stored, 5, stored.length - 5);
+        try {
+            int length = 0;
+            while (length < utf8Length) {
+                int n = inflater.inflate(utf8, length, utf8Length - length);
+                if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY_V1);
+                    } else if (inflater.finished() || inflater.needsInput()) {
+                        throw new IllegalArgumentException("Truncated compressed content");
+                    }
+                }
+                length += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed content: " + e.getMessage(), e);
+        }
+        return utf8;
+    }
+
+    private static void writeInt(byte[] out, int offset, int value) {
+        out[offset] = (byte) (value >>> 24);
+        out[offset + 1] = (byte) (value >>> 16);
+        out[offset + 2] = (byte) (value >>> 8);
+        out[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] in, int offset) {
+        return ((in[offset] & 0xFF) << 24) | ((in[offset + 1] & 0xFF) << 16)
+                | ((in[offset + 2] & 0xFF) << 8) | (in[offset + 3] & 0xFF);
+    }
+
+    private static byte[] loadDictionary(String resource) {
+        try (InputStream in = ContentCodec.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing compression dictionary " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.usds.regulations.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Word count, character stats and hashes of a regulation's text.
+ * One pass over the characters yields the word count, the stats and a
+ * 64-bit FNV-1a hash without allocating; the SHA-256 checksum is computed
+ * only when first asked for, by encoding the text to UTF-8 in small chunks
+ * rather than copying it into one byte array.
+ *
+ * The fast hash is the cheap pre-check: different lengths or fast hashes
+ * prove the texts differ, so the SHA-256 and full comparison are only paid
+ * when two texts look the same.
+ */
+public final class ContentFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Reused per thread for chunked UTF-8 encoding (4 bytes is the longest encoded code point)
+    private static final ThreadLocal<byte[]> ENCODE_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private final String text;
+    private final int wordCount;
+    private final int length;
+    private final int utf8Length;
+    private final int letters;
+    private final int digits;
+    private final int whitespace;
+    private final int lines;
+    private final long fastHash;
+
+    private volatile String sha256;
+
+    private ContentFingerprint(String text, int wordCount, int utf8Length, int letters, int digits,
+                               int whitespace, int lines, long fastHash) {
+        this.text = text;
+        this.wordCount = wordCount;
+        this.length = text.length();
+        this.utf8Length = utf8Length;
+        this.letters = letters;
+        this.digits = digits;
+        this.whitespace = whitespace;
+        this.lines = lines;
+        this.fastHash = fastHash;
+    }
+
+    /**
+     * Analyze a text in one pass; null is treated as empty
+     */
+    public static ContentFingerprint of(String text) {
+        if (text == null) {
+            text = "";
+        }
+
+        int words = 0, utf8Length = 0, letters = 0, digits = 0, whitespace = 0, lines = 1;
+        long hash = FNV_OFFSET_BASIS;
+        boolean inWord = false;
+
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ c) * FNV_PRIME;
+
+            if (isSeparator(c)) {
+                whitespace++;
+                inWord = false;
+                if (c == '\n') {
+                    lines++;
+                }
+            } else {
+                if (!inWord) {
+                    words++;
+                    inWord = true;
+                }
+                if (Character.isLetter(c)) {
+                    letters++;
+                } else if (Character.isDigit(c)) {
+                    digits++;
+                }
+            }
+
+            if (c < 0x80) {
+                utf8Length += 1;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                utf8Length += 4;
+                hash = (hash ^ text.charAt(++i)) * FNV_PRIME;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates encode as '?', matching String.getBytes(UTF_8)
+                utf8Length += 1;
+            } else {
+                utf8Length += 3;
+            }
+        }
+
+        return new ContentFingerprint(text, words, utf8Length, letters, digits, whitespace, lines, hash);
+    }
+
+    /**
+     * Whitespace-separated word count, without analyzing anything else
+     */
+    public static int wordCount(String text) {
+        return of(text).getWordCount();
+    }
+
+    /**
+     * Hex SHA-256 of the UTF-8 bytes of a text
+     */
+    public static String sha256Hex(String text) {
+        return of(text).getSha256();
+    }
+
+    /**
+     * Whether this fingerprint was taken of exactly this String instance
+     */
+    public boolean isOf(String candidate) {
+        return text == candidate || (candidate == null && length == 0);
+    }
+
+    /**
+     * Content equality with the fast hash as pre-check before comparing characters
+     */
+    public boolean sameContentAs(ContentFingerprint other) {
+        if (this == other) {
+            return true;
+        }
+        return other != null && length == other.length && fastHash == other.fastHash && text.equals(other.text);
+    }
+
+    /**
+     * Hex SHA-256 of the UTF-8 encoded text, computed once on first use
+     */
+    public String getSha256() {
+        String checksum = sha256;
+        if (checksum == null) {
+            checksum = computeSha256(text);
+            sha256 = checksum;
+        }
+        return checksum;
+    }
+
+    public String getText() { return text; }
+    public int getWordCount() { return wordCount; }
+    public int getLength() { return length; }
+    public int getUtf8Length() { return utf8Length; }
+    public int getLetterCount() { return letters; }
+    public int getDigitCount() { return digits; }
+    public int getWhitespaceCount() { return whitespace; }
+    public int getLineCount() { return length == 0 ? 0 : lines; }
+    public long getFastHash() { return fastHash; }
+
+    /**
+     * The separators of the legacy split("\\s+") word count
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    private static String computeSha256(String text) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        byte[] buffer = ENCODE_BUFFER.get();
+        int limit = buffer.length - 4;
+        int pos = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            if (pos > limit) {
+                digest.update(buffer, 0, pos);
+                pos = 0;
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[pos++] = (byte) (0xC0 | (c >> 6));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[pos++] = (byte) '?';
+            } else {
+                buffer[pos++] = (byte) (0xE0 | (c >> 12));
+                buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        digest.update(buffer, 0, pos);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
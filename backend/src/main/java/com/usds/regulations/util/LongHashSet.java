@@ -0,0 +1,125 @@
+package com.usds.regulations.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive longs, for packed id pairs and other keys
+ * held in bulk: one long[] slot per entry instead of a boxed Long plus a map node,
+ * and lookups without allocation. Linear probing, resized at half load.
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private long[] slots;
+    private int size;
+    // EMPTY marks free slots, so the key 0 is tracked separately
+    private boolean containsEmpty;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        slots = new long[capacity];
+    }
+
+    /**
+     * Add a key; false if it was already present
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        for (int slot = index(key, mask); ; slot = (slot + 1) & mask) {
+            if (slots[slot] == key) {
+                return false;
+            }
+            if (slots[slot] == EMPTY) {
+                slots[slot] = key;
+                if (++size * 2 > slots.length) {
+                    resize();
+                }
+                return true;
+            }
+        }
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
+        int mask = slots.length - 1;
+        for (int slot = index(key, mask); ; slot = (slot + 1) & mask) {
+            if (slots[slot] == key) {
+                return true;
+            }
+            if (slots[slot] == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The keys, in no particular order
+     */
+    public long[] toArray() {
+        long[] keys = new long[size];
+        int count = 0;
+        if (containsEmpty) {
+            keys[count++] = EMPTY;
+        }
+        for (long slot : slots) {
+            if (slot != EMPTY) {
+                keys[count++] = slot;
+            }
+        }
+        return keys;
+    }
+
+    private void resize() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long key : old) {
+            if (key != EMPTY) {
+                int slot = index(key, mask);
+                while (slots[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = key;
+            }
+        }
+    }
+
+    // Packed pairs differ mostly in the high or low half; spread both over the index bits
+    private static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    @Override
+    public String toString() {
+        long[] keys = toArray();
+        Arrays.sort(keys);
+        return Arrays.toString(keys);
+    }
+}
@@ -0,0 +1,169 @@
+package com.usds.regulations.util;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures of a text's word set, for estimating Jaccard similarity
+ * without comparing the words. Words are the lowercased, whitespace-separated
+ * tokens also used by the exact Jaccard check. Each word is hashed once to 64 bits;
+ * signature slot i holds the minimum over all distinct words of an independent
+ * mix of that hash with seed i. The fraction of equal slots of two signatures
+ * estimates the Jaccard similarity of their word sets.
+ * <p>
+ * Stored signatures start with a format byte, so a different hash count or
+ * tokenization can be introduced without misreading old values.
+ */
+public final class MinHash {
+
+    public static final int NUM_HASHES = 128;
+
+    private static final byte FORMAT_V1 = 1;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Signature of a text's word set; null and blank texts share the all-empty signature
+     */
+    public static int[] signature(String text) {
+        long[] wordHashes = distinctWordHashes(text);
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long wordHash : wordHashes) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int value = (int) (mix(wordHash ^ SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimated Jaccard similarity (0..1): the fraction of matching slots
+     */
+    public static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /**
+     * Jaccard similarity (0..1) of two word sets given as sorted distinct word hashes;
+     * two empty sets are identical
+     */
+    public static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 && b.length == 0) {
+            return 1.0;
+        }
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    /**
+     * Stored form of a signature: format byte, then the slots big-endian
+     */
+    public static byte[] encode(int[] signature) {
+        byte[] stored = new byte[1 + NUM_HASHES * 4];
+        stored[0] = FORMAT_V1;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int value = signature[i];
+            int offset = 1 + i * 4;
+            stored[offset] = (byte) (value >>> 24);
+            stored[offset + 1] = (byte) (value >>> 16);
+            stored[offset + 2] = (byte) (value >>> 8);
+            stored[offset + 3] = (byte) value;
+        }
+        return stored;
+    }
+
+    /**
+     * Decode a stored signature; null if it is missing or in an unknown format (recompute it then)
+     */
+    public static int[] decode(byte[] stored) {
+        if (stored == null || stored.length != 1 + NUM_HASHES * 4 || stored[0] != FORMAT_V1) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int offset = 1 + i * 4;
+            signature[i] = ((stored[offset] & 0xFF) << 24) | ((stored[offset + 1] & 0xFF) << 16)
+                    | ((stored[offset + 2] & 0xFF) << 8) | (stored[offset + 3] & 0xFF);
+        }
+        return signature;
+    }
+
+    /**
+     * Sorted 64-bit hashes of every distinct lowercased word, hashed in place instead of splitting
+     */
+    public static long[] distinctWordHashes(String text) {
+        if (text == null || text.isEmpty()) {
+            return new long[0];
+        }
+        long[] hashes = new long[16];
+        int count = 0;
+        long hash = FNV_OFFSET_BASIS;
+        boolean inWord = false;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isWhitespace(c)) {
+                if (inWord) {
+                    if (count == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, count * 2);
+                    }
+                    hashes[count++] = hash;
+                    hash = FNV_OFFSET_BASIS;
+                    inWord = false;
+                }
+            } else {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inWord = true;
+            }
+        }
+        // Sort so repeated words can be skipped; each distinct word is mixed NUM_HASHES times
+        Arrays.sort(hashes, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || hashes[i] != hashes[distinct - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, distinct);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,78 @@
+package com.usds.regulations.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Banded locality-sensitive hashing over MinHash signatures. Each signature is
+ * cut into {@link #BANDS} bands of {@link #ROWS} slots; two documents become a
+ * candidate pair when any band matches exactly. A pair with Jaccard similarity s
+ * is found with probability 1 - (1 - s^ROWS)^BANDS: about 0.99 at s = 0.6 and
+ * 0.5 around s = 0.38, so candidates come out in near-linear time while pairs
+ * above typical duplicate thresholds are practically never missed.
+ */
+public final class MinHashLshIndex {
+
+    public static final int BANDS = 32;
+    public static final int ROWS = MinHash.NUM_HASHES / BANDS;
+
+    // Per band: band hash -> indexes of the documents in that bucket
+    private final List<Map<Long, List<Integer>>> bands = new ArrayList<>(BANDS);
+
+    public MinHashLshIndex() {
+        for (int band = 0; band < BANDS; band++) {
+            bands.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Add a document under its caller-assigned index
+     */
+    public void add(int document, int[] signature) {
+        for (int band = 0; band < BANDS; band++) {
+            bands.get(band).computeIfAbsent(bandHash(signature, band), hash -> new ArrayList<>()).add(document);
+        }
+    }
+
+    /**
+     * Every pair of documents sharing at least one band, packed as (lower index << 32 | higher index)
+     */
+    public LongHashSet candidatePairs() {
+        LongHashSet pairs = new LongHashSet();
+        for (Map<Long, List<Integer>> buckets : bands) {
+            for (List<Integer> bucket : buckets.values()) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    for (int j = i + 1; j < bucket.size(); j++) {
+                        pairs.add(pair(bucket.get(i), bucket.get(j)));
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Direction-independent key of two indexes: (lower << 32) | higher
+     */
+    public static long pair(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    public static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    public static int second(long pair) {
+        return (int) pair;
+    }
+
+    private static long bandHash(int[] signature, int band) {
+        long hash = band;
+        for (int row = band * ROWS, end = row + ROWS; row < end; row++) {
+            hash = hash * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return hash;
+    }
+}
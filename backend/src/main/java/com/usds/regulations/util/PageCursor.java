@@ -0,0 +1,93 @@
+package com.usds.regulations.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort key and id of the
+ * last row of a page, tagged with the listing it belongs to. The next page starts
+ * strictly after that (key, id) position, so it costs one index range scan no
+ * matter how deep it is.
+ */
+public final class PageCursor {
+
+    private final String listing;
+    private final String key;
+    private final long id;
+
+    private PageCursor(String listing, String key, long id) {
+        this.listing = listing;
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Token for the position after a row with this sort key and id; a null key is encoded as empty
+     */
+    public static String encode(String listing, Object key, long id) {
+        String raw = listing + "|" + (key != null ? key : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a token handed out for the given listing
+     * @throws IllegalArgumentException if the token is malformed or belongs to another listing
+     */
+    public static PageCursor decode(String token, String listing) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != 3 || !parts[0].equals(listing)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return new PageCursor(parts[0], parts[1], Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Requested page size limited to 1..maxSize
+     */
+    public static int clampPageSize(int requested, int maxSize) {
+        return Math.max(1, Math.min(requested, maxSize));
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Integer sort key; an empty key (the row's value was null) reads as 0, as the listings sort it
+     */
+    public int getIntKey() {
+        if (key.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public LocalDateTime getDateTimeKey() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return listing + "(" + key + ", " + id + ")";
+    }
+}
@@ -0,0 +1,88 @@
+package com.usds.regulations.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.usds.regulations.entity.Regulation;
+
+public class AnalyticsSnapshotServiceTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2024, 1, 2, 10, 0);
+
+    @Test
+    public void testCreatesAddToTitleAndAgency() {
+        Map<String, AnalyticsSnapshotService.Delta> deltas = AnalyticsSnapshotService.deltas(List.of(
+                RegulationChangeEvent.Change.created(regulation(7, "USDA", 100), T1),
+                RegulationChangeEvent.Change.created(regulation(7, "USDA", 50), T2)));
+
+        AnalyticsSnapshotService.Delta title = deltas.get("TITLE:7");
+        assertEquals(2L, title.getRegulationCount());
+        assertEquals(150L, title.getTotalWordCount());
+        assertEquals(2L, title.getWithWordsCount());
+        assertEquals(T2, title.getLastUpdated());
+        assertEquals(150L, deltas.get("AGENCY:USDA").getTotalWordCount());
+    }
+
+    @Test
+    public void testUpdateAppliesWordDifferenceAndMovesBetweenAgencies() {
+        Map<String, AnalyticsSnapshotService.Delta> deltas = AnalyticsSnapshotService.deltas(List.of(
+                RegulationChangeEvent.Change.updated("USDA", 100, regulation(7, "FSIS", 120), T1)));
+
+        AnalyticsSnapshotService.Delta title = deltas.get("TITLE:7");
+        assertEquals(0L, title.getRegulationCount());
+        assertEquals(20L, title.getTotalWordCount());
+        assertEquals(T1, title.getLastUpdated());
+
+        assertEquals(-1L, deltas.get("AGENCY:USDA").getRegulationCount());
+        assertEquals(-100L, deltas.get("AGENCY:USDA").getTotalWordCount());
+        assertNull(deltas.get("AGENCY:USDA").getLastUpdated());
+        assertEquals(1L, deltas.get("AGENCY:FSIS").getRegulationCount());
+        assertEquals(120L, deltas.get("AGENCY:FSIS").getTotalWordCount());
+    }
+
+    @Test
+    public void testDeleteSubtractsAndIgnoresMissingAgency() {
+        Map<String, AnalyticsSnapshotService.Delta> deltas = AnalyticsSnapshotService.deltas(List.of(
+                RegulationChangeEvent.Change.deleted(regulation(12, null, 40))));
+
+        assertEquals(1, deltas.size());
+        assertEquals(-1L, deltas.get("TITLE:12").getRegulationCount());
+        assertEquals(-40L, deltas.get("TITLE:12").getTotalWordCount());
+    }
+
+    @Test
+    public void testWithWordsCountSkipsEmptyRegulations() {
+        Map<String, AnalyticsSnapshotService.Delta> deltas = AnalyticsSnapshotService.deltas(List.of(
+                RegulationChangeEvent.Change.updated("USDA", 0, regulation(7, "USDA", 80), T1),
+                RegulationChangeEvent.Change.created(regulation(7, "USDA", 0), T1)));
+
+        AnalyticsSnapshotService.Delta title = deltas.get("TITLE:7");
+        assertEquals(1L, title.getRegulationCount());
+        assertEquals(80L, title.getTotalWordCount());
+        assertEquals(1L, title.getWithWordsCount());
+    }
+
+    @Test
+    public void testDeltasAreInKeyOrder() {
+        Map<String, AnalyticsSnapshotService.Delta> deltas = AnalyticsSnapshotService.deltas(List.of(
+                RegulationChangeEvent.Change.created(regulation(40, "EPA", 10), T1),
+                RegulationChangeEvent.Change.created(regulation(7, "USDA", 10), T1),
+                RegulationChangeEvent.Change.created(regulation(12, "DOL", 10), T1)));
+
+        assertEquals(List.of("AGENCY:DOL", "AGENCY:EPA", "AGENCY:USDA", "TITLE:12", "TITLE:40", "TITLE:7"),
+                List.copyOf(deltas.keySet()));
+    }
+
+    private static Regulation regulation(int cfrTitle, String agencyName, int wordCount) {
+        Regulation regulation = new Regulation();
+        regulation.setCfrTitle(cfrTitle);
+        regulation.setAgencyName(agencyName);
+        regulation.setWordCount(wordCount);
+        return regulation;
+    }
+}
@@ -0,0 +1,123 @@
+package com.usds.regulations.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EcfrCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private EcfrCircuitBreaker breaker() {
+        // window 10, at least 4 calls, open at 50% failures for 5s, 2 trial calls
+        return new EcfrCircuitBreaker("versioner", 10, 4, 50, 5_000, 2, now::get);
+    }
+
+    @Test
+    public void testStaysClosedBelowMinimumCalls() {
+        EcfrCircuitBreaker breaker = breaker();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(EcfrCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testOpensAtFailureRateAndRejectsCalls() {
+        EcfrCircuitBreaker breaker = breaker();
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(EcfrCircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(EcfrCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1L, breaker.getMetrics().get("rejectedCalls"));
+    }
+
+    @Test
+    public void testHalfOpenTrialsCloseTheCircuit() {
+        EcfrCircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+
+        now.addAndGet(5_000);
+        assertEquals(EcfrCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only the trial calls may go out while half-open");
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(EcfrCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getMetrics().get("callsInWindow"));
+    }
+
+    @Test
+    public void testHalfOpenFailureReopens() {
+        EcfrCircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+
+        now.addAndGet(5_000);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(EcfrCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2L, breaker.getMetrics().get("timesOpened"));
+    }
+
+    @Test
+    public void testReleasedTrialFreesItsSlot() {
+        EcfrCircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+
+        now.addAndGet(5_000);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.release();
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testOldOutcomesSlideOutOfTheWindow() {
+        EcfrCircuitBreaker breaker = new EcfrCircuitBreaker("search", 4, 4, 75, 5_000, 1, now::get);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onFailure();
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquire();
+            breaker.onSuccess();
+        }
+        assertEquals(0, breaker.getMetrics().get("failuresInWindow"));
+
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(EcfrCircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(EcfrCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testEndpointOfUrl() {
+        assertEquals("versioner", EcfrHttpClient.endpointOf("https://ecfr.federalregister.gov/api/versioner/v1/titles"));
+        assertEquals("search", EcfrHttpClient.endpointOf("https://ecfr.federalregister.gov/api/search/v1/results?query=x"));
+        assertEquals("other", EcfrHttpClient.endpointOf("https://example.com/titles"));
+    }
+
+    private void tripOpen(EcfrCircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquire();
+            breaker.onFailure();
+        }
+        assertEquals(EcfrCircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,53 @@
+package com.usds.regulations.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PairwiseSimilarityEngineTest {
+
+    @Test
+    public void testCompareAllVisitsEveryPairOnce() {
+        PairwiseSimilarityEngine engine = new PairwiseSimilarityEngine(4);
+        try {
+            for (int count : new int[] { 0, 1, 2, 63, 64, 65, 200 }) {
+                List<Long> expected = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    for (int j = i + 1; j < count; j++) {
+                        expected.add(((long) i << 32) | j);
+                    }
+                }
+                List<Long> actual = engine.compareAll(count, (i, j) -> ((long) i << 32) | j);
+                assertEquals(sorted(expected), sorted(actual));
+            }
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    public void testNullResultsAreDroppedAndCandidateOrderKept() {
+        PairwiseSimilarityEngine engine = new PairwiseSimilarityEngine(3);
+        try {
+            long[] pairs = new long[PairwiseSimilarityEngine.PAIR_RUN * 3 + 7];
+            List<Integer> expected = new ArrayList<>();
+            for (int p = 0; p < pairs.length; p++) {
+                pairs[p] = ((long) p << 32) | (p + 1);
+                if (p % 3 == 0) {
+                    expected.add(p);
+                }
+            }
+            assertEquals(expected, engine.compareCandidates(pairs, (i, j) -> i % 3 == 0 && j == i + 1 ? i : null));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private static List<Long> sorted(List<Long> values) {
+        List<Long> copy = new ArrayList<>(values);
+        copy.sort(null);
+        return copy;
+    }
+}
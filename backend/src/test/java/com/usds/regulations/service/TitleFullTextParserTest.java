@@ -0,0 +1,75 @@
+package com.usds.regulations.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleFullTextParserTest {
+
+    private static final String TITLE_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+        + "<ECFR><DIV1 N=\"7\" TYPE=\"TITLE\"><HEAD>Title 7\u2014Agriculture</HEAD>"
+        + "<DIV3 N=\"I\" TYPE=\"CHAPTER\"><HEAD>CHAPTER I</HEAD>"
+        + "<DIV5 N=\"1\" TYPE=\"PART\"><HEAD>PART 1\u2014ADMINISTRATIVE   REGULATIONS</HEAD>"
+        + "<AUTH><HED>Authority:</HED><PSPACE>5 U.S.C. 301.</PSPACE></AUTH>"
+        + "<DIV8 N=\"1.1\" TYPE=\"SECTION\"><HEAD>\u00a7 1.1 Definitions.</HEAD>"
+        + "<P>(a) The <I>Department</I> means\n   the Department of Agriculture.</P></DIV8>"
+        + "<DIV8 N=\"1.2\" TYPE=\"SECTION\"><HEAD>\u00a7 1.2 Scope.</HEAD><P>This part applies.</P></DIV8>"
+        + "</DIV5>"
+        + "<DIV5 N=\"2\" TYPE=\"PART\"><HEAD>PART 2\u2014DELEGATIONS</HEAD><P>Skipped text.</P></DIV5>"
+        + "<DIV5 N=\"3\" TYPE=\"PART\"><HEAD>PART 3\u2014DEBT MANAGEMENT</HEAD><P>Debts.</P></DIV5>"
+        + "</DIV3></DIV1></ECFR>";
+
+    private final TitleFullTextParser parser = new TitleFullTextParser();
+
+    @Test
+    public void testEmitsWantedPartsWithSectionText() throws Exception {
+        List<TitleFullTextParser.FullTextPart> parts = new ArrayList<>();
+        int emitted = parser.parseParts(stream(TITLE_XML), part -> !part.equals("2"), parts::add);
+
+        assertEquals(2, emitted);
+        TitleFullTextParser.FullTextPart first = parts.get(0);
+        assertEquals("1", first.getPartNumber());
+        assertEquals("PART 1\u2014ADMINISTRATIVE REGULATIONS", first.getHeading());
+        assertEquals(2, first.getSectionCount());
+        assertTrue(first.getContent().contains("(a) The Department means the Department of Agriculture."));
+        assertTrue(first.getContent().contains("\u00a7 1.2 Scope.\nThis part applies."));
+        assertEquals("3", parts.get(1).getPartNumber());
+        assertFalse(parts.get(1).getContent().contains("Skipped"));
+    }
+
+    @Test
+    public void testSinkCanStopTheScan() throws Exception {
+        List<String> seen = new ArrayList<>();
+        int emitted = parser.parseParts(stream(TITLE_XML), part -> true, part -> {
+            seen.add(part.getPartNumber());
+            return false;
+        });
+
+        assertEquals(1, emitted);
+        assertEquals(List.of("1"), seen);
+    }
+
+    @Test
+    public void testRejectsExternalEntities() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE ECFR [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+            + "<ECFR><DIV5 N=\"1\" TYPE=\"PART\"><P>&x;</P></DIV5></ECFR>";
+
+        List<TitleFullTextParser.FullTextPart> parts = new ArrayList<>();
+        try {
+            parser.parseParts(stream(xml), part -> true, parts::add);
+        } catch (IOException expected) {
+            return;
+        }
+        assertFalse(parts.get(0).getContent().contains("root:"));
+    }
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
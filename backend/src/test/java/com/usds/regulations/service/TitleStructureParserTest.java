@@ -0,0 +1,80 @@
+package com.usds.regulations.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TitleStructureParserTest {
+
+    private final TitleStructureParser parser = new TitleStructureParser(new ObjectMapper());
+
+    @Test
+    public void testEmitsPartsInDocumentOrder() throws Exception {
+        String json = "{\"meta\":{\"date\":\"2024-01-01\"},\"title\":{\"label\":\"Title 7\",\"children\":["
+            + "{\"label\":\"Chapter I\",\"children\":["
+            + "{\"identifier\":\"7 CFR 1\",\"label\":\"Part 1\",\"text\":\"Administrative rules\",\"last_amended\":\"2023-05-01\","
+            + "\"children\":[{\"text\":\"Section text\",\"children\":[{\"text\":\"ignored\"}]}]},"
+            + "{\"identifier\":\"7 CFR 2\",\"label\":\"Part 2\"}]},"
+            + "{\"label\":\"Chapter II\",\"children\":[{\"identifier\":\"7 CFR 210\",\"description\":\"School lunch\"}]}"
+            + "]}}";
+
+        List<TitleStructureSnapshot.StructurePart> parts = new ArrayList<>();
+        int emitted = parser.parseParts(stream(json), parts::add);
+
+        assertEquals(3, emitted);
+        assertEquals("1", parts.get(0).getPartNumber());
+        assertEquals("2023-05-01", parts.get(0).getLastAmended());
+        assertEquals("2", parts.get(1).getPartNumber());
+        assertEquals("210", parts.get(2).getPartNumber());
+
+        Map<String, String> contents = new HashMap<>();
+        assertEquals(3, parser.parseContent(stream(json), partNumber -> true, contents::put));
+        assertEquals("Administrative rules Section text", contents.get("1"));
+        assertEquals("Content not available", contents.get("2"));
+        assertEquals("School lunch", contents.get("210"));
+    }
+
+    @Test
+    public void testContentOnlyForWantedParts() throws Exception {
+        String json = "{\"title\":{\"children\":[{\"children\":["
+            + "{\"identifier\":\"7 CFR 1\",\"text\":\"One\"},{\"identifier\":\"7 CFR 2\",\"text\":\"Two\"}]}]}}";
+
+        Map<String, String> contents = new HashMap<>();
+        assertEquals(1, parser.parseContent(stream(json), "2"::equals, contents::put));
+        assertEquals(1, contents.size());
+        assertEquals("Two", contents.get("2"));
+    }
+
+    @Test
+    public void testSkipsMalformedIdentifiersAndUnrelatedFields() throws Exception {
+        String json = "{\"title\":{\"children\":[\"not-a-chapter\",{\"children\":["
+            + "{\"identifier\":\"Appendix\"},{\"identifier\":\"7 CFR 5\",\"text\":\"Kept\"},42]}]},\"trailer\":[1,2,3]}";
+
+        List<TitleStructureSnapshot.StructurePart> parts = new ArrayList<>();
+        int emitted = parser.parseParts(stream(json), parts::add);
+
+        assertEquals(1, emitted);
+        assertEquals("5", parts.get(0).getPartNumber());
+    }
+
+    @Test
+    public void testDocumentWithoutTitleYieldsNoParts() throws Exception {
+        List<TitleStructureSnapshot.StructurePart> parts = new ArrayList<>();
+        assertEquals(0, parser.parseParts(stream("{\"error\":\"not found\"}"), parts::add));
+        assertEquals(0, parser.parseParts(stream("[]"), parts::add));
+        assertTrue(parts.isEmpty());
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
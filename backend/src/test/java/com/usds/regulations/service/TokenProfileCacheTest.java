@@ -0,0 +1,57 @@
+package com.usds.regulations.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenProfileCacheTest {
+
+    @Test
+    public void testJaccardMatchesWordSetSimilarity() {
+        TokenProfileCache cache = new TokenProfileCache();
+        String[][] pairs = {
+            { "The Secretary shall issue RULES, forms and notices.", "Rules and forms: the secretary may issue notices" },
+            { "Each applicant must file Form 1040-A within thirty days.", "Applicants file forms within 30 days" },
+            { "no long words", "tiny set" },
+            { "", "Definitions apply to this part" }
+        };
+        for (String[] pair : pairs) {
+            double expected = wordSetSimilarity(pair[0], pair[1]);
+            double actual = TokenProfileCache.jaccard(cache.termIds(pair[0]), cache.termIds(pair[1]));
+            assertEquals(expected, actual, 1e-9);
+        }
+    }
+
+    @Test
+    public void testTermIdsAreSortedDistinctAndShared() {
+        TokenProfileCache cache = new TokenProfileCache();
+        int[] first = cache.termIds("permit permit PERMIT holder");
+        int[] second = cache.termIds("holder of the permit");
+
+        assertEquals(2, first.length);
+        assertTrue(first[0] < first[1]);
+        assertTrue(Arrays.equals(first, second));
+        assertEquals(0, cache.termIds(null).length);
+    }
+
+    // The word-set Jaccard the relationship detector used before term ids
+    private static double wordSetSimilarity(String a, String b) {
+        Set<String> words1 = wordSet(a);
+        Set<String> words2 = wordSet(b);
+        Set<String> intersection = new HashSet<>(words1);
+        intersection.retainAll(words2);
+        Set<String> union = new HashSet<>(words1);
+        union.addAll(words2);
+        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
+    }
+
+    private static Set<String> wordSet(String content) {
+        return Arrays.stream(content.toLowerCase().split("\\W+"))
+                .filter(word -> word.length() > 3)
+                .collect(Collectors.toSet());
+    }
+}
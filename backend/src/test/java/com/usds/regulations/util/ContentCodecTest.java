@@ -0,0 +1,54 @@
+package com.usds.regulations.util;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentCodecTest {
+
+    private static final String SECTION = "\u00a7 1.1 Definitions.\n"
+        + "For the purposes of this part: (a) Secretary means the Secretary of Agriculture or any officer "
+        + "or employee of the Department to whom authority has been delegated. (b) Person means any "
+        + "individual, partnership, corporation, association, or other legal entity.\n"
+        + "Regular inspections will be conducted by authorized personnel to ensure compliance with "
+        + "established standards. Records must be retained for a minimum of three years and made "
+        + "available for inspection upon request.\n";
+
+    @Test
+    public void testRoundTripsShortLongAndEmptyText() {
+        StringBuilder part = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            part.append(SECTION.replace("1.1", "1." + i));
+        }
+        String[] samples = { "", "Short text", SECTION, part.toString(), "caf\u00e9 \ud83d\udcdc " + SECTION };
+        for (String sample : samples) {
+            assertEquals(sample, ContentCodec.decode(ContentCodec.encode(sample)));
+        }
+        assertNull(ContentCodec.encode(null));
+        assertNull(ContentCodec.decode(null));
+    }
+
+    @Test
+    public void testCompressesBoilerplateAndKeepsShortTextRaw() {
+        byte[] encoded = ContentCodec.encode(SECTION);
+        assertEquals(ContentCodec.FORMAT_DEFLATE_V1, encoded[0]);
+        assertTrue(encoded.length < SECTION.getBytes(StandardCharsets.UTF_8).length / 2,
+                "dictionary should cover most of a typical section, got " + encoded.length + " bytes");
+
+        assertEquals(ContentCodec.FORMAT_RAW, ContentCodec.encode("Part 1")[0]);
+    }
+
+    @Test
+    public void testReadsRawFormatAndRejectsUnknownFormats() {
+        byte[] raw = { ContentCodec.FORMAT_RAW, 'P', 'a', 'r', 't' };
+        assertEquals("Part", ContentCodec.decode(raw));
+
+        try {
+            ContentCodec.decode(new byte[] { 9, 1, 2 });
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        assertTrue(false, "unknown format byte should be rejected");
+    }
+}
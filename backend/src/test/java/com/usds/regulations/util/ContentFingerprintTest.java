@@ -0,0 +1,46 @@
+package com.usds.regulations.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentFingerprintTest {
+
+    @Test
+    public void testWordCountMatchesWhitespaceSplit() {
+        String[] samples = { "", "   ", "one", "  two words ", "a\tb\nc\r\nd", "\u00a7 1.1 Definitions.\n\n(a) Term" };
+        for (String sample : samples) {
+            int expected = sample.trim().isEmpty() ? 0 : sample.trim().split("\\s+").length;
+            assertEquals(expected, ContentFingerprint.wordCount(sample));
+        }
+        assertEquals(0, ContentFingerprint.wordCount(null));
+    }
+
+    @Test
+    public void testSha256MatchesUtf8Digest() throws Exception {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            longText.append("\u00a7 ").append(i).append(" caf\u00e9 \u2014 \ud83d\udcdc ");
+        }
+        String[] samples = { "", "Title 7\u2014Agriculture", longText.toString() };
+        for (String sample : samples) {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sample.getBytes(StandardCharsets.UTF_8));
+            assertEquals(HexFormat.of().formatHex(digest), ContentFingerprint.sha256Hex(sample));
+            assertEquals(sample.getBytes(StandardCharsets.UTF_8).length, ContentFingerprint.of(sample).getUtf8Length());
+        }
+    }
+
+    @Test
+    public void testSameContentUsesValueNotInstance() {
+        ContentFingerprint first = ContentFingerprint.of("Part 1 text");
+        ContentFingerprint copy = ContentFingerprint.of(new String("Part 1 text"));
+
+        assertTrue(first.sameContentAs(copy));
+        assertFalse(first.isOf(copy.getText()));
+        assertFalse(first.sameContentAs(ContentFingerprint.of("Part 1 text.")));
+        assertEquals(first.getFastHash(), copy.getFastHash());
+    }
+}
@@ -0,0 +1,44 @@
+package com.usds.regulations.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    public void testMatchesHashSetAcrossResizes() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(5000) == 0 ? 0L : ((long) random.nextInt(300) << 32) | random.nextInt(300);
+            assertEquals(expected.add(key), set.add(key));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long key : expected) {
+            assertTrue(set.contains(key));
+        }
+        assertFalse(set.contains(-1L));
+
+        long[] keys = set.toArray();
+        Arrays.sort(keys);
+        assertEquals(expected.stream().mapToLong(Long::longValue).sorted().boxed().toList(),
+                Arrays.stream(keys).boxed().toList());
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0L));
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertTrue(set.contains(0L));
+        assertEquals(1, set.size());
+        assertEquals(0L, set.toArray()[0]);
+    }
+}
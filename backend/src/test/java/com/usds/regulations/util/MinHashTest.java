@@ -0,0 +1,64 @@
+package com.usds.regulations.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashTest {
+
+    @Test
+    public void testJaccardMatchesWordSets() {
+        String a = "The Secretary shall issue THE rules\tand  the forms";
+        String b = "the secretary may issue forms\nand notices";
+        Set<String> wordsA = words(a);
+        Set<String> wordsB = words(b);
+        Set<String> union = new HashSet<>(wordsA);
+        union.addAll(wordsB);
+        wordsA.retainAll(wordsB);
+        double expected = (double) wordsA.size() / union.size();
+
+        assertEquals(expected, MinHash.jaccard(MinHash.distinctWordHashes(a), MinHash.distinctWordHashes(b)), 1e-9);
+        assertEquals(1.0, MinHash.jaccard(MinHash.distinctWordHashes(""), MinHash.distinctWordHashes(null)), 1e-9);
+    }
+
+    @Test
+    public void testEstimateTracksJaccardAndSurvivesEncoding() {
+        String a = text(0, 400);
+        String b = text(100, 500);
+        double exact = MinHash.jaccard(MinHash.distinctWordHashes(a), MinHash.distinctWordHashes(b));
+        int[] signatureA = MinHash.signature(a);
+        int[] signatureB = MinHash.signature(b);
+
+        assertEquals(exact, MinHash.estimate(signatureA, signatureB), 0.15);
+        assertTrue(Arrays.equals(signatureA, MinHash.decode(MinHash.encode(signatureA))));
+        assertNull(MinHash.decode(null));
+        assertNull(MinHash.decode(new byte[] { 9 }));
+    }
+
+    @Test
+    public void testLshPairsNearDuplicatesOnly() {
+        MinHashLshIndex index = new MinHashLshIndex();
+        index.add(0, MinHash.signature(text(0, 500)));
+        index.add(1, MinHash.signature(text(0, 500) + " amended"));
+        index.add(2, MinHash.signature(text(5000, 5500)));
+
+        LongHashSet pairs = index.candidatePairs();
+        assertTrue(pairs.contains(MinHashLshIndex.pair(1, 0)));
+        assertEquals(1, pairs.size());
+    }
+
+    private static String text(int from, int to) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            text.append("word").append(i).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static Set<String> words(String text) {
+        return new HashSet<>(Arrays.asList(text.toLowerCase().trim().split("\\s+")));
+    }
+}
@@ -0,0 +1,54 @@
+package com.usds.regulations.util;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageCursorTest {
+
+    @Test
+    public void testRoundTripsIntAndDateTimeKeys() {
+        PageCursor byWords = PageCursor.decode(PageCursor.encode("title-7", 1523, 42L), "title-7");
+        assertEquals(1523, byWords.getIntKey());
+        assertEquals(42L, byWords.getId());
+
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 3, 1, 12, 30, 5, 123456000);
+        PageCursor byTime = PageCursor.decode(PageCursor.encode("recent-", updatedAt, 9L), "recent-");
+        assertEquals(updatedAt, byTime.getDateTimeKey());
+        assertEquals(9L, byTime.getId());
+    }
+
+    @Test
+    public void testNullWordCountContinuesAtZero() {
+        PageCursor cursor = PageCursor.decode(PageCursor.encode("title-7", null, 42L), "title-7");
+        assertEquals(0, cursor.getIntKey());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    public void testRejectsForeignAndMalformedTokens() {
+        String token = PageCursor.encode("title-7", 100, 1L);
+        String[] invalid = { "not a cursor!", "", token.substring(0, token.length() - 3) };
+        for (String bad : invalid) {
+            assertRejected(bad, "title-7");
+        }
+        assertRejected(token, "title-8");
+    }
+
+    @Test
+    public void testClampsPageSize() {
+        assertEquals(1, PageCursor.clampPageSize(0, 500));
+        assertEquals(100, PageCursor.clampPageSize(100, 500));
+        assertEquals(500, PageCursor.clampPageSize(10000, 500));
+    }
+
+    private void assertRejected(String token, String listing) {
+        try {
+            PageCursor.decode(token, listing);
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        assertTrue(false, "cursor " + token + " should be rejected for " + listing);
+    }
+}